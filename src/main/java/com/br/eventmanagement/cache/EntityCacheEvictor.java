@@ -0,0 +1,54 @@
+package com.br.eventmanagement.cache;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.TransactionCompletionCallbacks.AfterCompletionCallback;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Row by row eviction from the second-level cache, for the native seat updates of EventRepository. Hibernate cannot tell
+ * which rows a bulk statement touches and would empty the whole region of the entity, on every registration.
+ * The rows are locked in the cache like Hibernate does for its own updates: until the transaction ends they are read from
+ * the database and nothing loaded before the commit can put the old version back. Cached queries on the table are
+ * invalidated as well. Does nothing for entities that are not cached.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManager entityManager;
+
+    //call before the bulk statement, inside its transaction
+    public void evict(Class<?> entityClass, Collection<?> ids) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!persister.canWriteToCache() || ids.isEmpty()) return;
+
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        Map<Object, SoftLock> locks = new LinkedHashMap<>();
+        for (Object id : ids) {
+            Object key = cacheAccess.generateCacheKey(id, persister, factory, session.getTenantIdentifier());
+            locks.put(key, cacheAccess.lockItem(session, key, null));
+        }
+
+        TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+        String[] spaces = Arrays.stream(persister.getQuerySpaces()).map(String.class::cast).toArray(String[]::new);
+        timestamps.preInvalidate(spaces, session);
+        session.getTransactionCompletionCallbacks().registerCallback((AfterCompletionCallback) (success, completed) -> {
+            locks.forEach((key, lock) -> cacheAccess.unlockItem(completed, key, lock));
+            timestamps.invalidate(spaces, completed);
+        });
+    }
+}
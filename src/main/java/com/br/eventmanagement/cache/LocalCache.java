@@ -0,0 +1,155 @@
+package com.br.eventmanagement.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ * Small bounded in-process cache with a fixed time to live per entry.
+ * When the cache is full, expired entries go first and then arbitrary ones, so the bound is approximate
+ * but the map never grows past it.
+ */
+public class LocalCache<K, V> implements MeterBinder {
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final String name;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    public LocalCache(String name, int maximumSize, Duration timeToLive) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.apply(key);
+        } finally {
+            loadNanos.add(System.nanoTime() - start);
+        }
+        if (value != null) {
+            this.put(key, value);
+        }
+        return value;
+    }
+
+    //null when missing or expired, nothing is loaded
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+            hits.increment();
+            return entry.value();
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(K key, V value) {
+        if (entries.size() >= maximumSize) {
+            this.makeRoom();
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + timeToLiveNanos));
+    }
+
+    public void invalidate(K key) {
+        if (entries.remove(key) != null) {
+            evictions.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        evictions.add(entries.size());
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public Duration getTotalLoadTime() {
+        return Duration.ofNanos(loadNanos.sum());
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? Double.NaN : (double) hitCount / total;
+    }
+
+    private void makeRoom() {
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(current -> {
+            boolean expired = current.getValue().expiresAt() - now <= 0;
+            if (expired) evictions.increment();
+            return expired;
+        });
+
+        Iterator<K> keys = entries.keySet().iterator();
+        while (entries.size() >= maximumSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.local.gets", hits, LongAdder::sum)
+                .tag("cache", name).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.local.gets", misses, LongAdder::sum)
+                .tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.local.evictions", evictions, LongAdder::sum)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.local.size", entries, ConcurrentHashMap::size)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("cache.local.hit.ratio", this, LocalCache::getHitRatio)
+                .tag("cache", name)
+                .register(registry);
+        //every miss runs the loader, so the misses are the load count
+        FunctionTimer.builder("cache.local.loads", this, LocalCache::getMisses, cache -> cache.loadNanos.sum(), TimeUnit.NANOSECONDS)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.br.eventmanagement.config;
+
+import com.br.eventmanagement.cache.LocalCache;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public LocalCache<String, UserDetails> principalCache(
+            @Value("${api.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${api.security.principal-cache.ttl:10m}") Duration ttl) {
+        //a cached principal must never outlive the token that was used to load it
+        Duration effectiveTtl = ttl.compareTo(TokenService.TOKEN_LIFETIME) > 0 ? TokenService.TOKEN_LIFETIME : ttl;
+        return new LocalCache<>("principals", maxSize, effectiveTtl);
+    }
+
+    //entries are evicted by EventService on every change, the ttl only bounds what a missed eviction can cost
+    @Bean
+    public LocalCache<UUID, Event> eventCache(
+            @Value("${api.event-cache.max-size:10000}") int maxSize,
+            @Value("${api.event-cache.ttl:30s}") Duration ttl) {
+        return new LocalCache<>("events", maxSize, ttl);
+    }
+}
@@ -0,0 +1,68 @@
+package com.br.eventmanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/*
+ * Hibernate second-level cache for the Event and User entities and for cacheable queries, kept in local Caffeine caches
+ * through JCache. Every region is created here with its own size, a region nobody sized fails the startup.
+ * Hit, miss and put counts per region are published as the hibernate.second.level.cache.* metrics.
+ * application.properties turns the cache off by default, without this configuration no region is created.
+ */
+@Configuration
+@ConditionalOnBooleanProperty("api.second-level-cache.enabled")
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(
+            @Value("${api.second-level-cache.event.max-size:10000}") long eventMaxSize,
+            @Value("${api.second-level-cache.event.ttl:10m}") Duration eventTtl,
+            @Value("${api.second-level-cache.user.max-size:10000}") long userMaxSize,
+            @Value("${api.second-level-cache.user.ttl:10m}") Duration userTtl,
+            @Value("${api.second-level-cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${api.second-level-cache.query.ttl:10m}") Duration queryTtl) {
+        return properties -> {
+            //a manager of its own for every entity manager factory, Hibernate closes it together with the factory
+            CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+            cacheManager.createCache("event", region(eventMaxSize, eventTtl));
+            cacheManager.createCache("user", region(userMaxSize, userTtl));
+            cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(queryMaxSize, queryTtl));
+            //the last change of every table, a cached query result is only used if it is newer; an entry lost here
+            //would make stale results look current, so the region is neither bounded (one entry per table) nor expires
+            cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region());
+
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> region = region();
+        region.setMaximumSize(OptionalLong.of(maxSize));
+        region.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return region;
+    }
+
+    //Hibernate stores disassembled copies of the entities, so the values do not need to be copied again
+    private static CaffeineConfiguration<Object, Object> region() {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setStoreByValue(false);
+        return region;
+    }
+}
@@ -25,6 +25,11 @@ public class AuthenticationController {
 
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenDto> refresh(){
+        return ResponseEntity.ok(new TokenDto(authenticationService.refresh()));
+    }
+
     @PostMapping("/register")
     public ResponseEntity<User> register(@RequestBody @Valid RegisterDto registerDto){
         return new ResponseEntity<>(authenticationService.register(registerDto), HttpStatus.CREATED);
@@ -1,15 +1,28 @@
 package com.br.eventmanagement.controllers;
 
 import com.br.eventmanagement.dtos.event.*;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
 import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.services.EventAvailabilityStreamService;
+import com.br.eventmanagement.services.EventCatalogService;
+import com.br.eventmanagement.services.EventChangeFeedService;
+import com.br.eventmanagement.services.EventGeoService;
+import com.br.eventmanagement.services.EventSearchService;
 import com.br.eventmanagement.services.EventService;
+import com.br.eventmanagement.services.EventSuggestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,36 +31,121 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class EventController {
     private final EventService eventService;
+    private final EventSearchService eventSearchService;
+    private final EventCatalogService eventCatalogService;
+    private final EventChangeFeedService eventChangeFeedService;
+    private final EventAvailabilityStreamService eventAvailabilityStreamService;
+    private final EventGeoService eventGeoService;
+    private final EventSuggestService eventSuggestService;
+
+    //requests without cursor and limit keep getting the whole list while this is on
+    @Value("${api.pagination.legacy-unpaged:true}")
+    private boolean legacyUnpaged;
+
+    @Value("${api.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${api.pagination.max-size:500}")
+    private int maxPageSize;
 
     @GetMapping
-    public ResponseEntity<List<Event>> listAll(){
-        return ResponseEntity.ok(eventService.listAll());
+    public ResponseEntity<?> listAll(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit,
+                                     WebRequest request){
+        //a bad cursor is rejected before the ETag costs a query
+        PageQuery page = this.isUnpaged(cursor, limit) ? null : this.pageOf(cursor, limit);
+        if(request.checkNotModified(this.listEtag())) return null;
+        if(eventCatalogService.isServing()){
+            if(page == null) return ResponseEntity.ok(eventCatalogService.listAll());
+            return ResponseEntity.ok(eventCatalogService.listAll(page));
+        }
+        if(page == null) return ResponseEntity.ok(eventService.listAll());
+        return ResponseEntity.ok(eventService.listAll(page));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getById(@PathVariable("id") UUID id){
-        return ResponseEntity.ok(eventService.getById(id));
+    public ResponseEntity<Event> getById(@PathVariable("id") UUID id, WebRequest request){
+        Event event = eventCatalogService.find(id).orElseGet(() -> eventService.getById(id));
+        if(request.checkNotModified(id + "-" + event.getVersion())) return null;
+        return ResponseEntity.ok(event);
     }
     @GetMapping("/date/{date}")
     public ResponseEntity<List<Event>> findAllByDate(@PathVariable("date") LocalDate date){
         return ResponseEntity.ok(eventService.findAllByDate(date));
     }
 
+    @GetMapping("/range")
+    public ResponseEntity<CursorPageDto<Event>> findAllInRange(@RequestParam LocalDate from,
+                                                               @RequestParam LocalDate to,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(eventService.findAllInRange(from, to, this.pageOf(cursor, limit)));
+    }
+
+    //created, updated and deleted events since the cursor of the previous call, from the start without one
+    @GetMapping("/changes")
+    public ResponseEntity<EventChangesDto> changes(@RequestParam(required = false) String since,
+                                                   @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(eventChangeFeedService.changesSince(since, PageQuery.size(limit, defaultPageSize, maxPageSize)));
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<CursorPageDto<EventDistanceDto>> findNearby(@RequestParam double lat,
+                                                                      @RequestParam double lon,
+                                                                      @RequestParam double radiusKm,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(eventGeoService.findNearby(lat, lon, radiusKm, cursor,
+                PageQuery.size(limit, defaultPageSize, maxPageSize)));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<EventSuggestionDto>> suggest(@RequestParam String prefix,
+                                                            @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(eventSuggestService.suggest(prefix, limit));
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<List<EventDayCountDto>> countByDay(@RequestParam YearMonth month){
+        return ResponseEntity.ok(eventService.countByDay(month));
+    }
+
     @GetMapping("/isAvailableFreeSpot/{id}")
     public ResponseEntity<Boolean> isAvailableFreeSpot(@PathVariable("id") UUID id){
         return ResponseEntity.ok(eventService.isAvailableFreeSpot(id));
     }
 
+    //pushes the seats left whenever they change, at most once per api.availability-stream.interval-ms
+    @GetMapping(path = "/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(@PathVariable("id") UUID id){
+        return eventAvailabilityStreamService.subscribe(id);
+    }
+
     @GetMapping("/available")
-    public ResponseEntity<List<Event>> listAllAvailable(){
-        return ResponseEntity.ok(eventService.listAllAvailable());
+    public ResponseEntity<?> listAllAvailable(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              WebRequest request){
+        PageQuery page = this.isUnpaged(cursor, limit) ? null : this.pageOf(cursor, limit);
+        if(request.checkNotModified(this.listEtag())) return null;
+        if(eventCatalogService.isServing()){
+            if(page == null) return ResponseEntity.ok(eventCatalogService.listAllAvailable());
+            return ResponseEntity.ok(eventCatalogService.listAllAvailable(page));
+        }
+        if(page == null) return ResponseEntity.ok(eventService.listAllAvailable());
+        return ResponseEntity.ok(eventService.listAllAvailable(page));
     }
 
+    //q is the ranked free text search, title and location keep matching as substrings
     @GetMapping("/filter")
-    public ResponseEntity<List<Event>> searchEvents(@RequestParam(required = false) String title,
-                                                    @RequestParam(required = false) String location
-                                                                       ){
-        return ResponseEntity.ok(eventService.searchEvents(title, location));
+    public ResponseEntity<?> searchEvents(@RequestParam(required = false) String q,
+                                          @RequestParam(required = false) String title,
+                                          @RequestParam(required = false) String location,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit){
+        if(q != null) return ResponseEntity.ok(eventSearchService.search(q, cursor,
+                PageQuery.size(limit, defaultPageSize, maxPageSize)));
+        if(this.isUnpaged(cursor, limit)) return ResponseEntity.ok(eventService.searchEvents(title, location));
+        return ResponseEntity.ok(eventService.searchEvents(title, location, this.pageOf(cursor, limit)));
     }
 
     @PostMapping
@@ -80,9 +178,28 @@ public class EventController {
         return ResponseEntity.noContent().build();
     }
 
+    @PatchMapping("/hot/{id}")
+    public ResponseEntity<Void> updateHot(@PathVariable("id") UUID id, @RequestBody @Valid EventUpdateHotDto updateHotDto){
+        eventService.updateHot(id, updateHotDto);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable("id") UUID id){
         eventService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    //answers If-None-Match before the list is read, the catalog needs no database trip for it
+    private String listEtag(){
+        return eventCatalogService.isServing() ? eventCatalogService.etag() : eventService.listEtag();
+    }
+
+    private boolean isUnpaged(String cursor, Integer limit){
+        return legacyUnpaged && cursor == null && limit == null;
+    }
+
+    private PageQuery pageOf(String cursor, Integer limit){
+        return PageQuery.of(cursor, limit, defaultPageSize, maxPageSize);
+    }
 }
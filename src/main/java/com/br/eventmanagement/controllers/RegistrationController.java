@@ -1,14 +1,27 @@
 package com.br.eventmanagement.controllers;
 
+import com.br.eventmanagement.dtos.pagination.PageQuery;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
 import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
-import com.br.eventmanagement.entity.Registration;
+import com.br.eventmanagement.dtos.registration.RegistrationTicketDto;
+import com.br.eventmanagement.dtos.registration.RegistrationView;
+import com.br.eventmanagement.dtos.registration.WaitlistEntryView;
+import com.br.eventmanagement.enums.RegistrationExportFormat;
+import com.br.eventmanagement.services.RegistrationExportService;
+import com.br.eventmanagement.services.RegistrationIntakeService;
 import com.br.eventmanagement.services.RegistrationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,30 +30,90 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class RegistrationController {
     private final RegistrationService registrationService;
+    private final RegistrationIntakeService registrationIntakeService;
+    private final RegistrationExportService registrationExportService;
+
+    //requests without cursor and limit keep getting the whole list while this is on
+    @Value("${api.pagination.legacy-unpaged:true}")
+    private boolean legacyUnpaged;
+
+    @Value("${api.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${api.pagination.max-size:500}")
+    private int maxPageSize;
 
     @GetMapping("/{id}") //registration id, not user or event id
-    public ResponseEntity<Registration> getById(@PathVariable("id")UUID id){
-        return ResponseEntity.ok(registrationService.getById(id));
+    public ResponseEntity<RegistrationView> getById(@PathVariable("id")UUID id){
+        return ResponseEntity.ok(registrationService.getViewById(id));
     }
 
     @GetMapping
-    public ResponseEntity<List<Registration>> listAll(){
-        return ResponseEntity.ok(registrationService.listAll());
+    public ResponseEntity<?> listAll(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit){
+        if(this.isUnpaged(cursor, limit)) return ResponseEntity.ok(registrationService.listAll());
+        return ResponseEntity.ok(registrationService.listAll(this.pageOf(cursor, limit)));
     }
 
     @GetMapping("/user/{id}")
-    public ResponseEntity<List<Registration>> findAllByUserId(@PathVariable("id") UUID id){
-        return ResponseEntity.ok(registrationService.findAllByUserId(id));
+    public ResponseEntity<?> findAllByUserId(@PathVariable("id") UUID id,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit){
+        if(this.isUnpaged(cursor, limit)) return ResponseEntity.ok(registrationService.findAllByUserId(id));
+        return ResponseEntity.ok(registrationService.findAllByUserId(id, this.pageOf(cursor, limit)));
     }
 
     @GetMapping("/event/{id}")
-    public ResponseEntity<List<Registration>> findAllByEventId(@PathVariable("id") UUID id){
-        return ResponseEntity.ok(registrationService.findAllByEventId(id));
+    public ResponseEntity<?> findAllByEventId(@PathVariable("id") UUID id,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              WebRequest request){
+        if(request.checkNotModified(registrationService.registrationsEtag(id))) return null;
+        if(this.isUnpaged(cursor, limit)) return ResponseEntity.ok(registrationService.findAllByEventId(id));
+        return ResponseEntity.ok(registrationService.findAllByEventId(id, this.pageOf(cursor, limit)));
+    }
+
+    @GetMapping("/event/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportByEventId(@PathVariable("id") UUID id,
+                                                                 @RequestParam(defaultValue = "ndjson") String format){
+        RegistrationExportFormat exportFormat = RegistrationExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"registrations-" + id + "." + exportFormat.getExtension() + "\"")
+                .body(registrationExportService.exportByEventId(id, exportFormat));
     }
 
+    //in async mode the request is queued and answered with a ticket, see RegistrationIntakeService
     @PostMapping
-    public ResponseEntity<Registration> create(@RequestBody @Valid RegistrationCreateDto createDto){
-        return new ResponseEntity<>(registrationService.create(createDto), HttpStatus.CREATED);
+    public ResponseEntity<?> create(@RequestBody @Valid RegistrationCreateDto createDto){
+        if(registrationIntakeService.isEnabled()){
+            RegistrationTicketDto ticket = registrationIntakeService.submit(createDto);
+            return ResponseEntity.accepted().location(URI.create("/registration/ticket/" + ticket.ticketId())).body(ticket);
+        }
+        return new ResponseEntity<>(RegistrationView.from(registrationService.create(createDto)), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/ticket/{id}")
+    public ResponseEntity<RegistrationTicketDto> getTicket(@PathVariable("id") UUID id){
+        return ResponseEntity.ok(registrationIntakeService.getTicket(id));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<RegistrationBatchResultDto>> createBatch(@RequestBody @Valid RegistrationBatchCreateDto batchDto){
+        return ResponseEntity.ok(registrationService.createBatch(batchDto));
+    }
+
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryView> joinWaitlist(@RequestBody @Valid RegistrationCreateDto createDto){
+        return new ResponseEntity<>(WaitlistEntryView.from(registrationService.joinWaitlist(createDto)), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/waitlist/user/{userId}/event/{eventId}")
+    public ResponseEntity<Void> leaveWaitlist(@PathVariable("userId") UUID userId,
+                                              @PathVariable("eventId") UUID eventId){
+        registrationService.leaveWaitlist(userId, eventId);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
@@ -67,4 +140,12 @@ public class RegistrationController {
         registrationService.deleteAllByEventId(eventId);
         return ResponseEntity.noContent().build();
     }
+
+    private boolean isUnpaged(String cursor, Integer limit){
+        return legacyUnpaged && cursor == null && limit == null;
+    }
+
+    private PageQuery pageOf(String cursor, Integer limit){
+        return PageQuery.of(cursor, limit, defaultPageSize, maxPageSize);
+    }
 }
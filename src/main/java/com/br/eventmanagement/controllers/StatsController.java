@@ -0,0 +1,36 @@
+package com.br.eventmanagement.controllers;
+
+import com.br.eventmanagement.dtos.stats.OccupancyDayDto;
+import com.br.eventmanagement.dtos.stats.OccupancyHourDto;
+import com.br.eventmanagement.services.OccupancyRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+    private final OccupancyRollupService occupancyRollupService;
+
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<OccupancyDayDto>> findOccupancyByDay(@RequestParam LocalDate from,
+                                                                    @RequestParam LocalDate to){
+        return ResponseEntity.ok(occupancyRollupService.findByDay(from, to));
+    }
+
+    @GetMapping("/occupancy/{eventId}")
+    public ResponseEntity<List<OccupancyHourDto>> findOccupancyByHour(@PathVariable("eventId") UUID eventId){
+        return ResponseEntity.ok(occupancyRollupService.findByHour(eventId));
+    }
+
+    @PostMapping("/occupancy/rebuild")
+    public ResponseEntity<Void> rebuildOccupancy(){
+        occupancyRollupService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.br.eventmanagement.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Read-your-writes on top of the read replica (api.datasource.replica.*). Once a user commits a write, their read-only
+ * transactions go to the primary for api.datasource.replica.max-lag, the time the replica may trail behind. Rows that
+ * changed within that time are kept out of the caches, the replica may still answer with the old version.
+ * A marker is never dropped before the lag has passed, so the markers are not bounded by size; they only live for the
+ * lag and expired ones are purged at most once per lag. Does nothing while the replica is disabled.
+ */
+@Component
+public class ReplicaLagGuard {
+
+    private final boolean enabled;
+    private final long maxLagNanos;
+    //user names of recent writers and keys of recently changed rows, with the System.nanoTime() they expire at
+    private final Map<Object, Long> recentWrites = new ConcurrentHashMap<>();
+    private volatile long nextPurge;
+
+    public ReplicaLagGuard(@Value("${api.datasource.replica.enabled:false}") boolean enabled,
+                           @Value("${api.datasource.replica.max-lag:5s}") Duration maxLag) {
+        this.enabled = enabled;
+        this.maxLagNanos = maxLag.toNanos();
+        this.nextPurge = System.nanoTime() + maxLagNanos;
+    }
+
+    //the current user reads from the primary from the commit of this transaction on
+    public void wrote() {
+        String user = currentUser();
+        if (!enabled || user == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.mark(user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark(user);
+            }
+        });
+    }
+
+    //call once the change of the row is committed
+    public void changed(Object key) {
+        if (enabled) this.mark(key);
+    }
+
+    public boolean readsReplica() {
+        return enabled && TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !this.wroteRecently();
+    }
+
+    //the replica may still have an older version of the row, or miss the writes of the current user
+    public boolean mayLag(Object key) {
+        return enabled && (this.isRecent(key) || this.wroteRecently());
+    }
+
+    private boolean wroteRecently() {
+        String user = currentUser();
+        return user != null && this.isRecent(user);
+    }
+
+    private void mark(Object key) {
+        long now = System.nanoTime();
+        recentWrites.put(key, now + maxLagNanos);
+        if (now - nextPurge >= 0) {
+            nextPurge = now + maxLagNanos;
+            recentWrites.values().removeIf(expiresAt -> expiresAt - now <= 0);
+        }
+    }
+
+    private boolean isRecent(Object key) {
+        Long expiresAt = recentWrites.get(key);
+        return expiresAt != null && expiresAt - System.nanoTime() > 0;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) return null;
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,63 @@
+package com.br.eventmanagement.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/*
+ * Read-only transactions go to the replica, everything else to the primary, see ReplicaLagGuard. The lookup runs when
+ * a physical connection is taken, so DataSourceConfig puts a LazyConnectionDataSourceProxy in front: the connection is
+ * only taken at the first statement, after the transaction has been marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {PRIMARY, REPLICA}
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+        this.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        this.setDefaultTargetDataSource(primary);
+        this.setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaLagGuard.readsReplica()) {
+            keepOutOfSecondLevelCache();
+            return Target.REPLICA;
+        }
+        //a write transaction keeps its user on the primary once it commits
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            replicaLagGuard.wrote();
+        }
+        return Target.PRIMARY;
+    }
+
+    //a lagging replica may return a row older than its last committed update, and Hibernate would cache it as current
+    private static void keepOutOfSecondLevelCache() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (!(resource instanceof EntityManagerHolder holder)) continue;
+
+            Session session = holder.getEntityManager().unwrap(Session.class);
+            CacheMode cacheMode = session.getCacheMode();
+            session.setCacheMode(CacheMode.GET);
+            //the entity manager of an open-in-view request outlives the transaction
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (session.isOpen()) session.setCacheMode(cacheMode);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.br.eventmanagement.dtos.event;
+
+import java.util.UUID;
+
+public record EventAvailabilityDto(UUID eventId, int seatsLeft) {
+}
@@ -0,0 +1,10 @@
+package com.br.eventmanagement.dtos.event;
+
+import com.br.eventmanagement.entity.Event;
+
+import java.util.List;
+import java.util.UUID;
+
+//changed holds created and updated events, cursor is passed back as since to get the next changes
+public record EventChangesDto(List<Event> changed, List<UUID> deleted, String cursor, boolean hasMore) {
+}
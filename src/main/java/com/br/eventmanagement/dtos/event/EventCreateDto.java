@@ -1,6 +1,8 @@
 package com.br.eventmanagement.dtos.event;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,5 +14,7 @@ import java.time.LocalDateTime;
 public record EventCreateDto( @NotBlank String title,
                              @NotBlank String location,
                              @NotNull @FutureOrPresent @JsonFormat(pattern = "yyyy-MM-dd HH:mm")LocalDateTime date,
-                             @NotNull Integer maxParticipants) {
+                             @NotNull Integer maxParticipants,
+                             @DecimalMin("-90") @DecimalMax("90") Double latitude,
+                             @DecimalMin("-180") @DecimalMax("180") Double longitude) {
 }
@@ -0,0 +1,6 @@
+package com.br.eventmanagement.dtos.event;
+
+import com.br.eventmanagement.entity.Event;
+
+public record EventDistanceDto(Event event, double distanceKm) {
+}
@@ -0,0 +1,6 @@
+package com.br.eventmanagement.dtos.event;
+
+import java.time.LocalDate;
+
+public record EventPlaceCountDto(LocalDate day, String location, long events) {
+}
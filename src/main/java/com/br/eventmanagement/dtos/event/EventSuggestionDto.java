@@ -0,0 +1,10 @@
+package com.br.eventmanagement.dtos.event;
+
+//popularity is the sum of the registered participants of every event with this title or location
+public record EventSuggestionDto(String text, Field field, long popularity) {
+
+    public enum Field {
+        TITLE,
+        LOCATION
+    }
+}
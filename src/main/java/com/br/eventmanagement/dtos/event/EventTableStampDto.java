@@ -0,0 +1,4 @@
+package com.br.eventmanagement.dtos.event;
+
+public record EventTableStampDto(long events, long versions) {
+}
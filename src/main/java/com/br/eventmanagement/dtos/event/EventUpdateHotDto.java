@@ -0,0 +1,6 @@
+package com.br.eventmanagement.dtos.event;
+
+import jakarta.validation.constraints.NotNull;
+
+public record EventUpdateHotDto(@NotNull Boolean hot) {
+}
@@ -1,6 +1,11 @@
 package com.br.eventmanagement.dtos.event;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 
-public record EventUpdateLocationDto(@NotBlank String location) {
+//the coordinates of the new location, without them the event no longer shows up in /event/nearby
+public record EventUpdateLocationDto(@NotBlank String location,
+                                     @DecimalMin("-90") @DecimalMax("90") Double latitude,
+                                     @DecimalMin("-180") @DecimalMax("180") Double longitude) {
 }
@@ -0,0 +1,32 @@
+package com.br.eventmanagement.dtos.pagination;
+
+import com.br.eventmanagement.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+//keyset position of the last row of a page, clients only see it as an opaque token
+public record Cursor(LocalDateTime position, UUID id) {
+
+    //sorts before every row, uuids compare byte by byte in the database
+    public static final Cursor START = new Cursor(LocalDateTime.of(1, 1, 1, 0, 0), new UUID(0, 0));
+
+    public String encode() {
+        String raw = position + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
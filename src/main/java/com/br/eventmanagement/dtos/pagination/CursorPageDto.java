@@ -0,0 +1,16 @@
+package com.br.eventmanagement.dtos.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+//nextCursor is null on the last page
+public record CursorPageDto<T>(List<T> items, String nextCursor) {
+
+    //rows must be fetched with limit + 1, the extra row only tells that there is a next page
+    public static <T> CursorPageDto<T> of(List<T> rows, int limit, Function<T, Cursor> cursorOf) {
+        if (rows.size() <= limit) return new CursorPageDto<>(rows, null);
+
+        List<T> items = rows.subList(0, limit);
+        return new CursorPageDto<>(items, cursorOf.apply(items.getLast()).encode());
+    }
+}
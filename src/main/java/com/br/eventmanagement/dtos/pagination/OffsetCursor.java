@@ -0,0 +1,27 @@
+package com.br.eventmanagement.dtos.pagination;
+
+import com.br.eventmanagement.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//position in results ordered by relevance, they have no stable key to seek to so pages are skipped
+public record OffsetCursor(int offset) {
+
+    public static final OffsetCursor START = new OffsetCursor(0);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OffsetCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (offset < 0) throw new BadRequestException("Invalid cursor");
+            return new OffsetCursor(offset);
+        } catch (IllegalArgumentException exception) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.br.eventmanagement.dtos.pagination;
+
+import org.springframework.data.domain.Limit;
+
+public record PageQuery(Cursor after, int limit) {
+
+    public static PageQuery of(String cursor, Integer limit, int defaultSize, int maxSize) {
+        return new PageQuery(Cursor.decode(cursor), size(limit, defaultSize, maxSize));
+    }
+
+    public static int size(Integer limit, int defaultSize, int maxSize) {
+        return limit == null || limit < 1 ? defaultSize : Math.min(limit, maxSize);
+    }
+
+    //one more row than the page, see CursorPageDto.of
+    public Limit fetchLimit() {
+        return Limit.of(limit + 1);
+    }
+}
@@ -0,0 +1,27 @@
+package com.br.eventmanagement.dtos.pagination;
+
+import com.br.eventmanagement.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+//position in the event change feed, the change_seq of the last change a client has seen
+public record SequenceCursor(long sequence) {
+
+    public static final SequenceCursor START = new SequenceCursor(0);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(sequence).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SequenceCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            long sequence = Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (sequence < 0) throw new BadRequestException("Invalid cursor");
+            return new SequenceCursor(sequence);
+        } catch (IllegalArgumentException exception) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
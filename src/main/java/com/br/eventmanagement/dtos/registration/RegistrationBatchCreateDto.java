@@ -0,0 +1,14 @@
+package com.br.eventmanagement.dtos.registration;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Builder;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record RegistrationBatchCreateDto(@NotNull UUID eventId,
+                                         @NotEmpty @Size(max = 1000) List<@NotNull UUID> userIds) {
+}
@@ -0,0 +1,8 @@
+package com.br.eventmanagement.dtos.registration;
+
+import com.br.eventmanagement.enums.RegistrationBatchStatus;
+
+import java.util.UUID;
+
+public record RegistrationBatchResultDto(UUID userId, RegistrationBatchStatus status, UUID registrationId) {
+}
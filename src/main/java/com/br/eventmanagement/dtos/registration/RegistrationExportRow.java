@@ -0,0 +1,14 @@
+package com.br.eventmanagement.dtos.registration;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//flat projection for exports, nothing of it ends up managed by the persistence context
+public record RegistrationExportRow(
+        UUID registrationId,
+        UUID userId,
+        String username,
+        String email,
+        LocalDateTime createdAt
+) {
+}
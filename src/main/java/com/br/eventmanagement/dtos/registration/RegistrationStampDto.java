@@ -0,0 +1,6 @@
+package com.br.eventmanagement.dtos.registration;
+
+import java.time.LocalDateTime;
+
+public record RegistrationStampDto(long registrations, LocalDateTime lastCreatedAt) {
+}
@@ -0,0 +1,18 @@
+package com.br.eventmanagement.dtos.registration;
+
+import com.br.eventmanagement.enums.RegistrationTicketStatus;
+
+import java.util.UUID;
+
+public record RegistrationTicketDto(
+        UUID ticketId,
+        UUID userId,
+        UUID eventId,
+        RegistrationTicketStatus status,
+        UUID registrationId,
+        String message
+) {
+    public RegistrationTicketDto complete(RegistrationTicketStatus status, UUID registrationId, String message) {
+        return new RegistrationTicketDto(ticketId, userId, eventId, status, registrationId, message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.br.eventmanagement.dtos.registration;
+
+import com.br.eventmanagement.entity.Registration;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//what clients see of a registration, read with a constructor expression instead of loading user and event
+public record RegistrationView(
+        UUID id,
+        UUID userId,
+        String username,
+        UUID eventId,
+        String eventTitle,
+        LocalDateTime eventDate,
+        LocalDateTime createdAt
+) {
+    public static RegistrationView from(Registration registration) {
+        return new RegistrationView(
+                registration.getId(),
+                registration.getUser().getId(),
+                registration.getUser().getUsername(),
+                registration.getEvent().getId(),
+                registration.getEvent().getTitle(),
+                registration.getEvent().getDate(),
+                registration.getCreatedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.br.eventmanagement.dtos.registration;
+
+import com.br.eventmanagement.entity.WaitlistEntry;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record WaitlistEntryView(UUID id, UUID userId, UUID eventId, LocalDateTime createdAt) {
+
+    public static WaitlistEntryView from(WaitlistEntry entry) {
+        return new WaitlistEntryView(entry.getId(), entry.getUser().getId(), entry.getEvent().getId(), entry.getCreatedAt());
+    }
+}
@@ -0,0 +1,11 @@
+package com.br.eventmanagement.dtos.stats;
+
+import java.time.LocalDate;
+
+//occupancy is registered / capacity, 0 for a day without seats
+public record OccupancyDayDto(LocalDate day, String location, long events, long capacity, long registered, double occupancy) {
+
+    public OccupancyDayDto(LocalDate day, String location, long events, long capacity, long registered) {
+        this(day, location, events, capacity, registered, capacity == 0 ? 0 : (double) registered / capacity);
+    }
+}
@@ -0,0 +1,11 @@
+package com.br.eventmanagement.dtos.stats;
+
+import java.time.LocalDateTime;
+
+//registrations held at the end of the hour, the sum of everything registered and cancelled up to it
+public record OccupancyHourDto(LocalDateTime hour, long registered, long cancelled, long registrations) {
+
+    public OccupancyHourDto(LocalDateTime hour, long registered, long cancelled) {
+        this(hour, registered, cancelled, 0);
+    }
+}
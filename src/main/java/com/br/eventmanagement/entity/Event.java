@@ -1,14 +1,23 @@
 package com.br.eventmanagement.entity;
 
 import com.br.eventmanagement.dtos.event.EventCreateDto;
+import com.br.eventmanagement.geo.GeoGrid;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "event")
+@DynamicUpdate //an entity update must not write back a stale registered_participants
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "event") //sized in SecondLevelCacheConfig
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,10 +44,46 @@ public class Event {
     @Column(name = "registered_participants")
     private Integer registeredParticipants;
 
+    //only set through setCoordinates, which keeps the grid cell in line
+    @Setter(AccessLevel.NONE)
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "longitude")
+    private Double longitude;
+
+    @Setter(AccessLevel.NONE)
+    @JsonIgnore
+    @Column(name = "grid_cell")
+    private Long gridCell;
+
+    //seats of hot events are handed out from memory, see HotEventSeatService
+    @Column(name = "hot")
+    private boolean hot;
+
+    //also bumped by the bulk seat updates, so it changes whenever anything shown about the event does
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    //position of the last change in the feed, every insert and update takes the next value
+    @Generated(event = {EventType.INSERT, EventType.UPDATE}, sql = "nextval('event_change_seq')")
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     public Event(EventCreateDto eventCreateDto){
         this.title = eventCreateDto.title();
         this.location = eventCreateDto.location();
         this.date = eventCreateDto.date();
         this.maxParticipants = eventCreateDto.maxParticipants();
+        this.registeredParticipants = 0;
+        this.setCoordinates(eventCreateDto.latitude(), eventCreateDto.longitude());
+    }
+
+    public void setCoordinates(Double latitude, Double longitude){
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.gridCell = GeoGrid.cellOf(latitude, longitude);
     }
 }
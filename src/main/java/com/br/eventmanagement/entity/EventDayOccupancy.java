@@ -0,0 +1,52 @@
+package com.br.eventmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+//events, seats and registrations of one event day and location, written by OccupancyRollupService
+@Entity
+@Table(name = "event_day_occupancy")
+@IdClass(EventDayOccupancy.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDayOccupancy {
+
+    @Id
+    @Column(name = "event_day")
+    private LocalDate eventDay;
+
+    @Id
+    @Column(name = "location")
+    private String location;
+
+    @Id
+    @Column(name = "slot")
+    private short slot;
+
+    @Column(name = "events")
+    private int events;
+
+    @Column(name = "capacity")
+    private int capacity;
+
+    @Column(name = "registered")
+    private int registered;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate eventDay;
+        private String location;
+        private short slot;
+    }
+}
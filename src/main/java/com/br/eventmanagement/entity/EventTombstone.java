@@ -0,0 +1,38 @@
+package com.br.eventmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//marks an event deleted in the change feed, numbered from the same sequence as event.change_seq
+@Entity
+@Table(name = "event_tombstone")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventTombstone {
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Generated(event = EventType.INSERT, sql = "nextval('event_change_seq')")
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    public EventTombstone(UUID eventId, LocalDateTime deletedAt){
+        this.eventId = eventId;
+        this.deletedAt = deletedAt;
+    }
+}
@@ -6,8 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+//user and event are lazy, list queries load them through this graph (one join) instead of one select per row
 @Entity
-@Table(name = "registration")
+@NamedEntityGraph(name = Registration.WITH_USER_AND_EVENT, attributeNodes = {
+        @NamedAttributeNode("user"), @NamedAttributeNode("event")})
+@Table(name = "registration", uniqueConstraints =
+        @UniqueConstraint(name = "uk_registration_event_user", columnNames = {"event_id", "user_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,15 +19,17 @@ import java.util.UUID;
 @Builder
 public class Registration {
 
+    public static final String WITH_USER_AND_EVENT = "Registration.withUserAndEvent";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
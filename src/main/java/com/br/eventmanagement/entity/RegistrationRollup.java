@@ -0,0 +1,50 @@
+package com.br.eventmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+//registrations and cancellations of an event within one hour, written by OccupancyRollupService
+@Entity
+@Table(name = "registration_rollup")
+@IdClass(RegistrationRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationRollup {
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Id
+    @Column(name = "hour_start")
+    private LocalDateTime hourStart;
+
+    @Id
+    @Column(name = "slot")
+    private short slot;
+
+    @Column(name = "registered")
+    private int registered;
+
+    @Column(name = "cancelled")
+    private int cancelled;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID eventId;
+        private LocalDateTime hourStart;
+        private short slot;
+    }
+}
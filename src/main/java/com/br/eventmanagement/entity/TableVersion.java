@@ -0,0 +1,24 @@
+package com.br.eventmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+//change counter of a whole table, only moves when rows are created or deleted
+@Entity
+@Table(name = "table_version")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableVersion {
+
+    @Id
+    @Column(name = "table_name")
+    private String tableName;
+
+    @Column(name = "version")
+    private long version;
+}
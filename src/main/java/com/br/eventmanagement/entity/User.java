@@ -3,17 +3,18 @@ package com.br.eventmanagement.entity;
 import com.br.eventmanagement.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user") //sized in SecondLevelCacheConfig
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +41,10 @@ public class User implements UserDetails {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    //bumped on every credential change, tokens carrying an older value are refused on refresh
+    @Column(name = "credential_version")
+    private int credentialVersion;
+
     public User(String username, String password, String email ){
         this.username = username;
         this.password = password;
@@ -49,10 +54,7 @@ public class User implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if(this.role == UserRole.ADMIN) return List.of(
-                new SimpleGrantedAuthority("ROLE_ADMIN"),
-                new SimpleGrantedAuthority("ROLE_USER"));
-        else return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        return UserRole.authoritiesOf(this.role);
     }
 
     @Override
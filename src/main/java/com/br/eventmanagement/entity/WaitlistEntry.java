@@ -0,0 +1,39 @@
+package com.br.eventmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "waitlist_entry", uniqueConstraints =
+        @UniqueConstraint(name = "uk_waitlist_event_user", columnNames = {"event_id", "user_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id")
+    private Event event;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public WaitlistEntry(User user, Event event){
+        this.user = user;
+        this.event = event;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,5 @@
+package com.br.eventmanagement.enums;
+
+public enum RegistrationBatchStatus {
+    CREATED, DUPLICATE, UNKNOWN_USER, NO_CAPACITY
+}
@@ -0,0 +1,23 @@
+package com.br.eventmanagement.enums;
+
+import com.br.eventmanagement.exceptions.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+@Getter
+@RequiredArgsConstructor
+public enum RegistrationExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    public static RegistrationExportFormat from(String format) {
+        for (RegistrationExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) return value;
+        }
+        throw new BadRequestException("Unsupported export format, use ndjson or csv");
+    }
+}
@@ -0,0 +1,10 @@
+package com.br.eventmanagement.enums;
+
+public enum RegistrationTicketStatus {
+    PENDING,
+    CREATED,
+    DUPLICATE,
+    UNKNOWN_USER,
+    NO_CAPACITY,
+    FAILED
+}
@@ -1,5 +1,17 @@
 package com.br.eventmanagement.enums;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
 public enum UserRole {
-    ADMIN, PARTICIPANT
+    ADMIN, PARTICIPANT;
+
+    public static List<GrantedAuthority> authoritiesOf(UserRole role) {
+        if(role == ADMIN) return List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_USER"));
+        else return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    }
 }
@@ -0,0 +1,7 @@
+package com.br.eventmanagement.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
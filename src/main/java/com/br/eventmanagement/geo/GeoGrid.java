@@ -0,0 +1,69 @@
+package com.br.eventmanagement.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Fixed grid of 0.1 degree cells (about 11 km of latitude) numbered row by row from the south-west corner.
+ * The cell of a point is a plain bigint, so a B-tree index on it finds the events of a few cells on any database.
+ */
+public final class GeoGrid {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    static final double CELL_DEGREES = 0.1;
+    static final int ROWS = 1800;
+    static final int COLUMNS = 3600;
+
+    //longitude degrees shrink towards the poles, past this latitude the box is computed as if it was here
+    private static final double MAX_SCALED_LATITUDE = 85;
+
+    private GeoGrid() {
+    }
+
+    public static Long cellOf(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) return null;
+        return (long) row(latitude) * COLUMNS + column(longitude);
+    }
+
+    //every cell that overlaps the bounding box of the circle, the box is cut at the antimeridian instead of wrapping
+    public static List<Long> cellsWithin(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double edgeLatitude = Math.min(Math.abs(latitude) + latitudeDelta, MAX_SCALED_LATITUDE);
+        double longitudeDelta = latitudeDelta / Math.cos(Math.toRadians(edgeLatitude));
+
+        int fromRow = row(Math.max(latitude - latitudeDelta, -90));
+        int toRow = row(Math.min(latitude + latitudeDelta, 90));
+        int fromColumn = column(Math.max(longitude - longitudeDelta, -180));
+        int toColumn = column(Math.min(longitude + longitudeDelta, 180));
+
+        List<Long> cells = new ArrayList<>((toRow - fromRow + 1) * (toColumn - fromColumn + 1));
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) cells.add((long) row * COLUMNS + column);
+        }
+        return cells;
+    }
+
+    //squared equirectangular distance in degrees of latitude is longitude scaled by this, close enough to order and cut
+    public static double longitudeScale(double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return cos * cos;
+    }
+
+    public static double haversineKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int row(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90) / CELL_DEGREES), ROWS - 1);
+    }
+
+    private static int column(double longitude) {
+        return Math.min((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS - 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.br.eventmanagement.repositories;
+
+import com.br.eventmanagement.dtos.stats.OccupancyDayDto;
+import com.br.eventmanagement.entity.EventDayOccupancy;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+//native statements name the table they write (HINT_NATIVE_SPACES), without it Hibernate empties the whole second-level cache
+@Repository
+public interface EventDayOccupancyRepository extends JpaRepository<EventDayOccupancy, EventDayOccupancy.Key> {
+
+    @Modifying
+    @Query("""
+        UPDATE EventDayOccupancy o
+        SET o.events = o.events + :events, o.capacity = o.capacity + :capacity, o.registered = o.registered + :registered
+        WHERE o.eventDay = :eventDay AND o.location = :location AND o.slot = :slot
+    """)
+    int add(@Param("eventDay") LocalDate eventDay, @Param("location") String location, @Param("slot") short slot,
+            @Param("events") int events, @Param("capacity") int capacity, @Param("registered") int registered);
+
+    //PostgreSQL only, adds to the row or creates it in one statement
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO event_day_occupancy (event_day, location, slot, events, capacity, registered)
+        VALUES (:eventDay, :location, :slot, :events, :capacity, :registered)
+        ON CONFLICT (event_day, location, slot) DO UPDATE
+        SET events = event_day_occupancy.events + EXCLUDED.events,
+            capacity = event_day_occupancy.capacity + EXCLUDED.capacity,
+            registered = event_day_occupancy.registered + EXCLUDED.registered
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_day_occupancy"))
+    void upsert(@Param("eventDay") LocalDate eventDay, @Param("location") String location, @Param("slot") short slot,
+                @Param("events") int events, @Param("capacity") int capacity, @Param("registered") int registered);
+
+    //range scan on the primary key, days and locations without events anymore are left out
+    @Query("""
+        SELECT new com.br.eventmanagement.dtos.stats.OccupancyDayDto(o.eventDay, o.location, SUM(o.events), SUM(o.capacity), SUM(o.registered))
+        FROM EventDayOccupancy o
+        WHERE o.eventDay >= :from AND o.eventDay < :to
+        GROUP BY o.eventDay, o.location
+        HAVING SUM(o.events) > 0
+        ORDER BY o.eventDay, o.location
+    """)
+    List<OccupancyDayDto> findRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM event_day_occupancy")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_day_occupancy"))
+    int deleteAllRows();
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO event_day_occupancy (event_day, location, slot, events, capacity, registered)
+        SELECT CAST(e.date AS date), e.location, 0, COUNT(*), SUM(e.max_participants), COALESCE(SUM(r.registrations), 0)
+        FROM event e
+        LEFT JOIN (SELECT event_id, COUNT(*) AS registrations FROM registration GROUP BY event_id) r ON r.event_id = e.id
+        GROUP BY CAST(e.date AS date), e.location
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "event_day_occupancy"))
+    int insertFromEvents();
+}
@@ -1,20 +1,58 @@
 package com.br.eventmanagement.repositories;
 
+import com.br.eventmanagement.dtos.event.EventDayCountDto;
+import com.br.eventmanagement.dtos.event.EventPlaceCountDto;
+import com.br.eventmanagement.dtos.event.EventSuggestSourceDto;
+import com.br.eventmanagement.dtos.event.EventTableStampDto;
 import com.br.eventmanagement.entity.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, UUID> {
 
-    @Query("SELECT e FROM Event e WHERE DATE(e.date) = :date")
-    List<Event> findAllByDate(LocalDate date);
+    //half-open ranges on the bare column, so they are range scans on idx_event_date_id (V8)
+    @Query("SELECT e FROM Event e WHERE e.date >= :from AND e.date < :to ORDER BY e.date, e.id")
+    List<Event> findAllInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("""
+        SELECT e FROM Event e
+        WHERE e.date >= :from AND e.date < :to AND (e.date, e.id) > (:date, :id)
+        ORDER BY e.date, e.id
+    """)
+    List<Event> findPageInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                @Param("date") LocalDateTime date, @Param("id") UUID id, Limit limit);
+
+    //days without events are not returned
+    @Query("""
+        SELECT new com.br.eventmanagement.dtos.event.EventDayCountDto(CAST(e.date AS LocalDate), COUNT(e))
+        FROM Event e
+        WHERE e.date >= :from AND e.date < :to
+        GROUP BY CAST(e.date AS LocalDate)
+        ORDER BY CAST(e.date AS LocalDate)
+    """)
+    List<EventDayCountDto> countByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    //the events grouped by day and location without loading them
+    @Query("""
+        SELECT new com.br.eventmanagement.dtos.event.EventPlaceCountDto(CAST(e.date AS LocalDate), e.location, COUNT(e))
+        FROM Event e
+        WHERE e.id IN :ids
+        GROUP BY CAST(e.date AS LocalDate), e.location
+    """)
+    List<EventPlaceCountDto> countByPlace(@Param("ids") Collection<UUID> ids);
 
     @Query("SELECT e FROM Event e WHERE e.registeredParticipants < e.maxParticipants")
     List<Event> findEventsWithAvailability();
@@ -26,6 +64,91 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
     """)
     boolean isAvailableFreeSpot(@Param("eventId") UUID eventId);
 
+    //the seat updates below are native with a query space of their own (SEAT_UPDATES): a JPQL update would empty the
+    //whole event region of the second-level cache, callers evict the rows they update through EntityCacheEvictor
+    String SEAT_UPDATES = "event_seats";
+
+    //the row count tells if the spot was taken, the row stays locked until the transaction ends
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        UPDATE event
+        SET registered_participants = registered_participants + 1, version = version + 1,
+            change_seq = nextval('event_change_seq')
+        WHERE id = :eventId AND registered_participants < max_participants
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEAT_UPDATES))
+    int reserveSpot(@Param("eventId") UUID eventId);
+
+    //all or nothing, EventService.reserveSpots retries with what is left
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        UPDATE event
+        SET registered_participants = registered_participants + :spots, version = version + 1,
+            change_seq = nextval('event_change_seq')
+        WHERE id = :eventId AND registered_participants + :spots <= max_participants
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEAT_UPDATES))
+    int reserveSpots(@Param("eventId") UUID eventId, @Param("spots") int spots);
+
+    @Query("SELECT e.maxParticipants - e.registeredParticipants FROM Event e WHERE e.id = :eventId")
+    Integer findFreeSpots(@Param("eventId") UUID eventId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        UPDATE event
+        SET registered_participants = registered_participants - :spots, version = version + 1,
+            change_seq = nextval('event_change_seq')
+        WHERE id = :eventId
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEAT_UPDATES))
+    int releaseSpots(@Param("eventId") UUID eventId, @Param("spots") int spots);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        UPDATE event
+        SET registered_participants = registered_participants - 1, version = version + 1,
+            change_seq = nextval('event_change_seq')
+        WHERE id IN (:eventIds)
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEAT_UPDATES))
+    int releaseOneSpotOfEach(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+        UPDATE event
+        SET registered_participants = registered_participants + :spots, version = version + 1,
+            change_seq = nextval('event_change_seq')
+        WHERE id = :eventId
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = SEAT_UPDATES))
+    int addRegisteredParticipants(@Param("eventId") UUID eventId, @Param("spots") int spots);
+
+    @Modifying
+    @Query("""
+        UPDATE Event e
+        SET e.registeredParticipants = (SELECT COUNT(r) FROM Registration r WHERE r.event = e), e.version = e.version + 1,
+            e.changeSeq = function('nextval', 'event_change_seq')
+        WHERE e.hot = true
+    """)
+    int syncHotRegisteredParticipants();
+
+    List<Event> findAllByHotTrue();
+
+    //every change bumps a version, so with the table version of event this identifies the whole table state
+    @Query("SELECT new com.br.eventmanagement.dtos.event.EventTableStampDto(COUNT(e), COALESCE(SUM(e.version), 0)) FROM Event e")
+    EventTableStampDto findTableStamp();
+
+    //only the columns the suggestion index needs, it is built from every event
+    @Query("SELECT new com.br.eventmanagement.dtos.event.EventSuggestSourceDto(e.id, e.title, e.location, e.registeredParticipants) FROM Event e")
+    List<EventSuggestSourceDto> findSuggestSources();
+
+    //range scan on idx_event_change_seq (V11)
+    @Query("SELECT e FROM Event e WHERE e.changeSeq > :since ORDER BY e.changeSeq")
+    List<Event> findChangedSince(@Param("since") long since, Limit limit);
+
+    //the highest committed position, read from the end of idx_event_change_seq
+    @Query("SELECT COALESCE(MAX(e.changeSeq), 0) FROM Event e")
+    long findMaxChangeSeq();
 
     @Query("""
     SELECT e FROM Event e
@@ -34,4 +157,86 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
     """)
     List<Event> searchEvents(@Param("title") String title,
                              @Param("location") String location);
-}
\ No newline at end of file
+
+    //index lookups of the grid cells on idx_event_grid_cell (V12), then the box is cut to the circle and sorted
+    @Query("""
+        SELECT e FROM Event e
+        WHERE e.gridCell IN :cells
+          AND (e.latitude - :latitude) * (e.latitude - :latitude)
+              + (e.longitude - :longitude) * (e.longitude - :longitude) * :longitudeScale <= :maxDistance
+        ORDER BY (e.latitude - :latitude) * (e.latitude - :latitude)
+                 + (e.longitude - :longitude) * (e.longitude - :longitude) * :longitudeScale, e.id
+        LIMIT :limit OFFSET :offset
+    """)
+    List<Event> findNearbyInCells(@Param("cells") Collection<Long> cells,
+                                  @Param("latitude") double latitude,
+                                  @Param("longitude") double longitude,
+                                  @Param("longitudeScale") double longitudeScale,
+                                  @Param("maxDistance") double maxDistance,
+                                  @Param("limit") int limit,
+                                  @Param("offset") int offset);
+
+    //PostGIS only (V12): nearest first from the GiST index on the geography of the coordinates
+    @Query(nativeQuery = true, value = """
+        SELECT e.* FROM event e
+        WHERE ST_DWithin(geography(ST_MakePoint(e.longitude, e.latitude)), geography(ST_MakePoint(:longitude, :latitude)), :meters)
+        ORDER BY geography(ST_MakePoint(e.longitude, e.latitude)) <-> geography(ST_MakePoint(:longitude, :latitude)), e.id
+        LIMIT :limit OFFSET :offset
+    """)
+    List<Event> findNearbyWithPostgis(@Param("latitude") double latitude,
+                                      @Param("longitude") double longitude,
+                                      @Param("meters") double meters,
+                                      @Param("limit") int limit,
+                                      @Param("offset") int offset);
+
+    //keyset pages on (date, id), the row comparison seeks straight to the cursor at any depth
+    @Query("SELECT e FROM Event e WHERE (e.date, e.id) > (:date, :id) ORDER BY e.date, e.id")
+    List<Event> findPage(@Param("date") LocalDateTime date, @Param("id") UUID id, Limit limit);
+
+    @Query("""
+        SELECT e FROM Event e
+        WHERE (e.date, e.id) > (:date, :id) AND e.registeredParticipants < e.maxParticipants
+        ORDER BY e.date, e.id
+    """)
+    List<Event> findAvailablePage(@Param("date") LocalDateTime date, @Param("id") UUID id, Limit limit);
+
+    @Query("""
+    SELECT e FROM Event e
+        WHERE (e.date, e.id) > (:date, :id)
+        AND (:title IS NULL OR e.title LIKE %:title%)
+        AND (:location IS NULL OR e.location LIKE %:location%)
+        ORDER BY e.date, e.id
+    """)
+    List<Event> searchEventsPage(@Param("title") String title,
+                                 @Param("location") String location,
+                                 @Param("date") LocalDateTime date,
+                                 @Param("id") UUID id,
+                                 Limit limit);
+
+    //PostgreSQL only (V9): prefix matches on the tsvector plus typo tolerant trigram matches, best score first
+    @Query(nativeQuery = true, value = """
+        SELECT e.* FROM event e
+        WHERE e.search_vector @@ to_tsquery('simple', :terms)
+           OR :text <% e.title
+           OR :text <% e.location
+        ORDER BY ts_rank(e.search_vector, to_tsquery('simple', :terms))
+                 + greatest(word_similarity(:text, e.title), word_similarity(:text, e.location)) DESC,
+                 e.date, e.id
+        LIMIT :limit OFFSET :offset
+    """)
+    List<Event> searchRanked(@Param("text") String text,
+                             @Param("terms") String terms,
+                             @Param("limit") int limit,
+                             @Param("offset") int offset);
+
+    //portable fallback for other databases (H2 in tests), title matches rank above location matches
+    @Query("""
+        SELECT e FROM Event e
+        WHERE lower(e.title) LIKE :pattern OR lower(e.location) LIKE :pattern
+        ORDER BY CASE WHEN lower(e.title) LIKE :pattern THEN 0 ELSE 1 END, e.date, e.id
+        LIMIT :limit OFFSET :offset
+    """)
+    List<Event> searchByPattern(@Param("pattern") String pattern,
+                                @Param("limit") int limit,
+                                @Param("offset") int offset);
+}
@@ -0,0 +1,22 @@
+package com.br.eventmanagement.repositories;
+
+import com.br.eventmanagement.entity.EventTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EventTombstoneRepository extends JpaRepository<EventTombstone, UUID> {
+
+    //range scan on idx_event_tombstone_change_seq (V11)
+    @Query("SELECT t FROM EventTombstone t WHERE t.changeSeq > :since ORDER BY t.changeSeq")
+    List<EventTombstone> findChangedSince(@Param("since") long since, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(t.changeSeq), 0) FROM EventTombstone t")
+    long findMaxChangeSeq();
+}
@@ -1,19 +1,109 @@
 package com.br.eventmanagement.repositories;
 
+import com.br.eventmanagement.dtos.registration.RegistrationExportRow;
+import com.br.eventmanagement.dtos.registration.RegistrationStampDto;
+import com.br.eventmanagement.dtos.registration.RegistrationView;
 import com.br.eventmanagement.entity.Registration;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RegistrationRepository extends JpaRepository<Registration, UUID> {
+    @Override
+    @EntityGraph(Registration.WITH_USER_AND_EVENT)
+    List<Registration> findAll();
+
+    @EntityGraph(Registration.WITH_USER_AND_EVENT)
     List<Registration> findAllByUserId(UUID userId);
+
+    @EntityGraph(Registration.WITH_USER_AND_EVENT)
     List<Registration> findAllByEventId(UUID eventId);
+
+    @EntityGraph(Registration.WITH_USER_AND_EVENT)
     Optional<Registration> findByUserIdAndEventId(UUID userId, UUID eventId);
+
     boolean existsRegistrationByUserIdAndEventId(UUID userId, UUID eventId);
-    void deleteByUserIdAndEventId(UUID userId, UUID eventId);
-    void deleteAllByEventId(UUID eventId);
+    long deleteAllByEventId(UUID eventId);
+
+    @Modifying
+    @Query("DELETE FROM Registration r WHERE r.user.id = :userId AND r.event.id = :eventId")
+    int deleteByUserIdAndEventId(@Param("userId") UUID userId, @Param("eventId") UUID eventId);
+
+    //locks the rows, so nobody else can delete them (and release their spot) before we do
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.event.id FROM Registration r WHERE r.user.id = :userId")
+    List<UUID> lockEventIdsByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM Registration r WHERE r.user.id = :userId AND r.event.id IN :eventIds")
+    int deleteAllByUserIdAndEventIdIn(@Param("userId") UUID userId, @Param("eventIds") Collection<UUID> eventIds);
+
+    @Query("SELECT r.user.id FROM Registration r WHERE r.event.id = :eventId AND r.user.id IN :userIds")
+    Set<UUID> findRegisteredUserIds(@Param("eventId") UUID eventId, @Param("userIds") Collection<UUID> userIds);
+
+    //answered from idx_registration_event_created_at_id without reading the rows
+    @Query("""
+        SELECT new com.br.eventmanagement.dtos.registration.RegistrationStampDto(COUNT(r), MAX(r.createdAt))
+        FROM Registration r
+        WHERE r.event.id = :eventId
+    """)
+    RegistrationStampDto findStampByEventId(@Param("eventId") UUID eventId);
+
+    String SELECT_VIEW = """
+        SELECT new com.br.eventmanagement.dtos.registration.RegistrationView(
+            r.id, u.id, u.username, e.id, e.title, e.date, r.createdAt)
+        FROM Registration r JOIN r.user u JOIN r.event e
+    """;
+
+    @Query(SELECT_VIEW + "WHERE r.id = :id")
+    Optional<RegistrationView> findViewById(@Param("id") UUID id);
+
+    @Query(SELECT_VIEW)
+    List<RegistrationView> findAllViews();
+
+    @Query(SELECT_VIEW + "WHERE u.id = :userId")
+    List<RegistrationView> findAllViewsByUserId(@Param("userId") UUID userId);
+
+    @Query(SELECT_VIEW + "WHERE e.id = :eventId")
+    List<RegistrationView> findAllViewsByEventId(@Param("eventId") UUID eventId);
+
+    //keyset pages on (created_at, id)
+    @Query(SELECT_VIEW + "WHERE (r.createdAt, r.id) > (:createdAt, :id) ORDER BY r.createdAt, r.id")
+    List<RegistrationView> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :userId AND (r.createdAt, r.id) > (:createdAt, :id) ORDER BY r.createdAt, r.id")
+    List<RegistrationView> findPageByUserId(@Param("userId") UUID userId, @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") UUID id, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE e.id = :eventId AND (r.createdAt, r.id) > (:createdAt, :id) ORDER BY r.createdAt, r.id")
+    List<RegistrationView> findPageByEventId(@Param("eventId") UUID eventId, @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") UUID id, Limit limit);
+
+    //forward-only and read in chunks, the caller must close the stream inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new com.br.eventmanagement.dtos.registration.RegistrationExportRow(r.id, u.id, u.username, u.email, r.createdAt)
+        FROM Registration r JOIN r.user u
+        WHERE r.event.id = :eventId
+        ORDER BY r.createdAt, r.id
+    """)
+    Stream<RegistrationExportRow> streamExportRowsByEventId(@Param("eventId") UUID eventId);
 }
@@ -0,0 +1,99 @@
+package com.br.eventmanagement.repositories;
+
+import com.br.eventmanagement.dtos.stats.OccupancyHourDto;
+import com.br.eventmanagement.entity.RegistrationRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+//native statements name the table they write (HINT_NATIVE_SPACES), without it Hibernate empties the whole second-level cache
+@Repository
+public interface RegistrationRollupRepository extends JpaRepository<RegistrationRollup, RegistrationRollup.Key> {
+
+    @Modifying
+    @Query("""
+        UPDATE RegistrationRollup r
+        SET r.registered = r.registered + :registered, r.cancelled = r.cancelled + :cancelled
+        WHERE r.eventId = :eventId AND r.hourStart = :hourStart AND r.slot = :slot
+    """)
+    int add(@Param("eventId") UUID eventId, @Param("hourStart") LocalDateTime hourStart, @Param("slot") short slot,
+            @Param("registered") int registered, @Param("cancelled") int cancelled);
+
+    //PostgreSQL only, adds to the row or creates it in one statement
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO registration_rollup (event_id, hour_start, slot, registered, cancelled)
+        VALUES (:eventId, :hourStart, :slot, :registered, :cancelled)
+        ON CONFLICT (event_id, hour_start, slot) DO UPDATE
+        SET registered = registration_rollup.registered + EXCLUDED.registered,
+            cancelled = registration_rollup.cancelled + EXCLUDED.cancelled
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registration_rollup"))
+    void upsert(@Param("eventId") UUID eventId, @Param("hourStart") LocalDateTime hourStart, @Param("slot") short slot,
+                @Param("registered") int registered, @Param("cancelled") int cancelled);
+
+    //the same change for many events of one hour, every event must already have its row
+    @Modifying
+    @Query("""
+        UPDATE RegistrationRollup r
+        SET r.registered = r.registered + :registered, r.cancelled = r.cancelled + :cancelled
+        WHERE r.eventId IN :eventIds AND r.hourStart = :hourStart AND r.slot = :slot
+    """)
+    int addAll(@Param("eventIds") Collection<UUID> eventIds, @Param("hourStart") LocalDateTime hourStart,
+               @Param("slot") short slot, @Param("registered") int registered, @Param("cancelled") int cancelled);
+
+    //PostgreSQL only, as upsert for many events of one hour
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO registration_rollup (event_id, hour_start, slot, registered, cancelled)
+        SELECT e.id, :hourStart, :slot, :registered, :cancelled FROM event e WHERE e.id IN (:eventIds) ORDER BY e.id
+        ON CONFLICT (event_id, hour_start, slot) DO UPDATE
+        SET registered = registration_rollup.registered + EXCLUDED.registered,
+            cancelled = registration_rollup.cancelled + EXCLUDED.cancelled
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registration_rollup"))
+    void upsertAll(@Param("eventIds") Collection<UUID> eventIds, @Param("hourStart") LocalDateTime hourStart,
+                   @Param("slot") short slot, @Param("registered") int registered, @Param("cancelled") int cancelled);
+
+    @Query("SELECT COALESCE(SUM(r.registered - r.cancelled), 0) FROM RegistrationRollup r WHERE r.eventId = :eventId")
+    long countRegistrations(@Param("eventId") UUID eventId);
+
+    //range scan on the primary key
+    @Query("""
+        SELECT new com.br.eventmanagement.dtos.stats.OccupancyHourDto(r.hourStart, SUM(r.registered), SUM(r.cancelled))
+        FROM RegistrationRollup r
+        WHERE r.eventId = :eventId
+        GROUP BY r.hourStart
+        ORDER BY r.hourStart
+    """)
+    List<OccupancyHourDto> findHours(@Param("eventId") UUID eventId);
+
+    @Modifying
+    @Query("DELETE FROM RegistrationRollup r WHERE r.eventId = :eventId")
+    int deleteAllByEventId(@Param("eventId") UUID eventId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM registration_rollup")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registration_rollup"))
+    int deleteAllRows();
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+        INSERT INTO registration_rollup (event_id, hour_start, slot, registered, cancelled)
+        SELECT event_id, date_trunc('hour', created_at), 0, COUNT(*), 0
+        FROM registration
+        GROUP BY event_id, date_trunc('hour', created_at)
+    """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registration_rollup"))
+    int insertFromRegistrations();
+}
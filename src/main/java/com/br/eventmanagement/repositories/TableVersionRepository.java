@@ -0,0 +1,21 @@
+package com.br.eventmanagement.repositories;
+
+import com.br.eventmanagement.entity.TableVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TableVersionRepository extends JpaRepository<TableVersion, String> {
+
+    @Modifying
+    @Query("UPDATE TableVersion t SET t.version = t.version + 1 WHERE t.tableName = :tableName")
+    int increment(@Param("tableName") String tableName);
+
+    @Query("SELECT t.version FROM TableVersion t WHERE t.tableName = :tableName")
+    Optional<Long> findVersion(@Param("tableName") String tableName);
+}
@@ -0,0 +1,40 @@
+package com.br.eventmanagement.repositories;
+
+import com.br.eventmanagement.entity.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, UUID> {
+
+    //a lock timeout of -2 is SKIP LOCKED, concurrent promotions take the next entries instead of waiting
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT w FROM WaitlistEntry w
+        WHERE w.event.id = :eventId
+        AND NOT EXISTS (SELECT r FROM Registration r WHERE r.event = w.event AND r.user = w.user)
+        ORDER BY w.createdAt, w.id
+    """)
+    List<WaitlistEntry> lockHead(@Param("eventId") UUID eventId, Limit limit);
+
+    @Query("SELECT DISTINCT w.event.id FROM WaitlistEntry w WHERE w.event.id IN :eventIds")
+    Set<UUID> findEventIdsWithEntries(@Param("eventIds") Collection<UUID> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM WaitlistEntry w WHERE w.user.id = :userId AND w.event.id = :eventId")
+    int deleteByUserIdAndEventId(@Param("userId") UUID userId, @Param("eventId") UUID eventId);
+}
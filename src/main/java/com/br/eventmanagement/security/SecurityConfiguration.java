@@ -33,8 +33,11 @@ public class SecurityConfiguration {
                                 .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/swagger-ui/**", "/v3/api-docs/**").permitAll()
                                 .requestMatchers(HttpMethod.POST, "/event/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.POST, "/registration/batch").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.GET, "/registration/event/*/export").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.PATCH, "/event/**").hasRole("ADMIN")
                                 .requestMatchers(HttpMethod.DELETE, "/event/**").hasRole("ADMIN")
+                                .requestMatchers(HttpMethod.POST, "/stats/**").hasRole("ADMIN")
                                 .anyRequest().authenticated()
                 )
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
@@ -25,8 +25,12 @@ public class SecurityFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         var token = this.recoverToken(request);
         if(token != null){
-            var login = tokenService.validateToken(token);
-            UserDetails user = userService.loadUserByUsername(login);
+            //in the stateless principal mode the claims are enough, no need to go to the database
+            UserDetails user = tokenService.isStatelessPrincipal() ? tokenService.recoverPrincipal(token) : null;
+            if(user == null){
+                var login = tokenService.validateToken(token);
+                user = userService.loadUserByUsername(login);
+            }
 
             var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(authentication);
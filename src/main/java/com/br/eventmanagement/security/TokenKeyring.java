@@ -0,0 +1,70 @@
+package com.br.eventmanagement.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Immutable set of signing keys, built once at startup.
+ * Tokens are signed with the active key and carry its id in the "kid" header, any key of the ring can verify,
+ * so a secret can be rotated by adding the new key, making it active and removing the old one after the token lifetime.
+ */
+final class TokenKeyring {
+
+    static final String DEFAULT_KEY_ID = "default";
+
+    private final String activeKeyId;
+    private final Algorithm signer;
+    private final Map<String, JWTVerifier> verifiers;
+
+    private TokenKeyring(String activeKeyId, Algorithm signer, Map<String, JWTVerifier> verifiers) {
+        this.activeKeyId = activeKeyId;
+        this.signer = signer;
+        this.verifiers = verifiers;
+    }
+
+    //additionalKeys format: "kid1:secret1,kid2:secret2", the default secret is always registered as "default"
+    static TokenKeyring of(String defaultSecret, String additionalKeys, String activeKeyId, String issuer) {
+        Map<String, String> secrets = new HashMap<>();
+        secrets.put(DEFAULT_KEY_ID, defaultSecret);
+
+        if (additionalKeys != null && !additionalKeys.isBlank()) {
+            for (String pair : additionalKeys.split(",")) {
+                String[] parts = pair.trim().split(":", 2);
+                if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+                    throw new IllegalStateException("Invalid token key entry, expected kid:secret");
+                }
+                secrets.put(parts[0].trim(), parts[1].trim());
+            }
+        }
+
+        if (!secrets.containsKey(activeKeyId)) {
+            throw new IllegalStateException("Active token key not found: " + activeKeyId);
+        }
+
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        Algorithm signer = null;
+        for (Map.Entry<String, String> entry : secrets.entrySet()) {
+            Algorithm algorithm = Algorithm.HMAC256(entry.getValue());
+            verifiers.put(entry.getKey(), JWT.require(algorithm).withIssuer(issuer).build());
+            if (entry.getKey().equals(activeKeyId)) signer = algorithm;
+        }
+        return new TokenKeyring(activeKeyId, signer, Map.copyOf(verifiers));
+    }
+
+    String activeKeyId() {
+        return activeKeyId;
+    }
+
+    Algorithm signer() {
+        return signer;
+    }
+
+    //tokens issued before the keyring existed have no kid and belong to the default key
+    JWTVerifier verifierFor(String keyId) {
+        return verifiers.get(keyId == null ? DEFAULT_KEY_ID : keyId);
+    }
+}
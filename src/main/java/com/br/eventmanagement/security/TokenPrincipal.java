@@ -0,0 +1,27 @@
+package com.br.eventmanagement.security;
+
+import com.br.eventmanagement.enums.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.UUID;
+
+//principal built only from the verified token claims, used when the stateless principal mode is on
+public record TokenPrincipal(UUID id, String username, UserRole role, int credentialVersion) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return UserRole.authoritiesOf(role);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -1,31 +1,62 @@
 package com.br.eventmanagement.security;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.enums.UserRole;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
+    public static final Duration TOKEN_LIFETIME = Duration.ofHours(2);
+
+    private static final String ISSUER = "EventApi";
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    private static final String CREDENTIAL_VERSION_CLAIM = "cver";
+
     @Value("${api.security.token.secret}")
     private String secret;
 
+    @Value("${api.security.token.keys:}")
+    private String additionalKeys;
+
+    @Value("${api.security.token.active-key:default}")
+    private String activeKeyId;
+
+    @Value("${api.security.token.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    private TokenKeyring keyring;
+
+    @PostConstruct
+    void init(){
+        this.keyring = TokenKeyring.of(secret, additionalKeys, activeKeyId, ISSUER);
+    }
+
     public String generateToken(User user){
         try{
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("EventApi")
+                    .withKeyId(keyring.activeKeyId())
+                    .withIssuer(ISSUER)
                     .withSubject(user.getUsername())
+                    .withClaim(USER_ID_CLAIM, user.getId() == null ? null : user.getId().toString())
+                    .withClaim(ROLE_CLAIM, user.getRole() == null ? null : user.getRole().name())
+                    .withClaim(CREDENTIAL_VERSION_CLAIM, user.getCredentialVersion())
                     .withExpiresAt(generateExpirationDate())
-                    .sign(algorithm);
+                    .sign(keyring.signer());
         } catch(JWTCreationException exception){
             throw new RuntimeException("Error while creating token", exception);
         }
@@ -33,18 +64,40 @@ public class TokenService {
 
     public String validateToken(String token){
         try{
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("EventApi")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            return this.verify(token).getSubject();
         } catch (JWTVerificationException exception){
             return "";
         }
     }
 
+    //returns null when the token is invalid or was issued without the principal claims
+    public TokenPrincipal recoverPrincipal(String token){
+        try{
+            DecodedJWT jwt = this.verify(token);
+            String userId = jwt.getClaim(USER_ID_CLAIM).asString();
+            String role = jwt.getClaim(ROLE_CLAIM).asString();
+            Integer credentialVersion = jwt.getClaim(CREDENTIAL_VERSION_CLAIM).asInt();
+            if(userId == null || role == null || credentialVersion == null) return null;
+
+            return new TokenPrincipal(UUID.fromString(userId), jwt.getSubject(), UserRole.valueOf(role), credentialVersion);
+        } catch (JWTVerificationException | IllegalArgumentException exception){
+            return null;
+        }
+    }
+
+    public boolean isStatelessPrincipal(){
+        return statelessPrincipal;
+    }
+
+    private DecodedJWT verify(String token){
+        DecodedJWT decoded = JWT.decode(token);
+        JWTVerifier verifier = keyring.verifierFor(decoded.getKeyId());
+        if(verifier == null) throw new JWTVerificationException("Unknown token key: " + decoded.getKeyId());
+
+        return verifier.verify(decoded);
+    }
+
     private Instant generateExpirationDate(){
-        return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
+        return LocalDateTime.now().plus(TOKEN_LIFETIME).toInstant(ZoneOffset.of("-03:00"));
     }
 }
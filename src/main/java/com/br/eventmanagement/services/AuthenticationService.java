@@ -32,6 +32,10 @@ public class AuthenticationService {
     }
 
 
+    public String refresh(){
+        return tokenService.generateToken(userService.getCurrentUser());
+    }
+
     public User register(RegisterDto registerDto){
         return userService.register(registerDto);
     }
@@ -0,0 +1,170 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventAvailabilityDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Live seats left of an event for GET /event/{id}/availability/stream.
+ * Committed EventChangedEvents only mark the event dirty, every api.availability-stream.interval-ms the seats left of
+ * the dirty events are read once and handed to their subscribers, so a burst of registrations is one update.
+ * An idle subscriber is an emitter and a few fields, no thread. Sends run on virtual threads, a slow client only
+ * ever has one send in flight and skips to the latest value when it is done.
+ */
+@Service
+public class EventAvailabilityStreamService implements MeterBinder {
+
+    private final EventService eventService;
+    private final HotEventSeatService hotEventSeatService;
+    private final Executor senders;
+
+    private final Map<UUID, Channel> channels = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+
+    @Autowired
+    public EventAvailabilityStreamService(EventService eventService, HotEventSeatService hotEventSeatService) {
+        this(eventService, hotEventSeatService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    EventAvailabilityStreamService(EventService eventService, HotEventSeatService hotEventSeatService, Executor senders) {
+        this.eventService = eventService;
+        this.hotEventSeatService = hotEventSeatService;
+        this.senders = senders;
+    }
+
+    @PreDestroy
+    void stop() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        if (senders instanceof ExecutorService executor) executor.shutdownNow();
+    }
+
+    public SseEmitter subscribe(UUID eventId) {
+        //the timeout is spring.mvc.async.request-timeout, EventSource clients reconnect on their own
+        return this.subscribe(eventId, new SseEmitter());
+    }
+
+    SseEmitter subscribe(UUID eventId, SseEmitter emitter) {
+        int seatsLeft = eventService.seatsLeft(eventId); //unknown events fail before the stream is opened
+
+        Subscriber subscriber = new Subscriber(eventId, emitter);
+        //added inside the map operation, so unsubscribing the last subscriber cannot drop the channel in between
+        channels.compute(eventId, (id, channel) -> {
+            Channel current = channel == null ? new Channel() : channel;
+            current.subscribers.add(subscriber);
+            return current;
+        });
+        emitter.onCompletion(() -> this.unsubscribe(subscriber));
+        emitter.onTimeout(() -> this.unsubscribe(subscriber));
+        emitter.onError(exception -> this.unsubscribe(subscriber));
+
+        subscriber.push(seatsLeft);
+        return emitter;
+    }
+
+    public int subscribers() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changed) {
+        Channel channel = channels.get(changed.eventId());
+        if (channel != null) channel.dirty.set(true);
+    }
+
+    //hot events take seats without a change event until their next flush, their counter is read on every tick instead
+    @Scheduled(fixedDelayString = "${api.availability-stream.interval-ms:500}")
+    public void publish() {
+        channels.forEach((eventId, channel) -> {
+            if (!channel.dirty.getAndSet(false) && !hotEventSeatService.isHot(eventId)) return;
+
+            int seatsLeft;
+            try {
+                seatsLeft = eventService.seatsLeft(eventId);
+            } catch (EntityNotFoundException exception) {
+                channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+                return;
+            }
+            channel.subscribers.forEach(subscriber -> subscriber.push(seatsLeft));
+        });
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.eventId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("event.availability.subscribers", this, EventAvailabilityStreamService::subscribers)
+                .register(registry);
+        FunctionCounter.builder("event.availability.sent", sent, LongAdder::sum)
+                .register(registry);
+    }
+
+    private static final class Channel {
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+    }
+
+    private final class Subscriber {
+        private final UUID eventId;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile int latest;
+        private volatile int last = -1;
+
+        private Subscriber(UUID eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        //latest value wins, nothing is queued behind a send in flight
+        private void push(int seatsLeft) {
+            latest = seatsLeft;
+            if (seatsLeft != last && sending.compareAndSet(false, true)) senders.execute(this::drain);
+        }
+
+        private void drain() {
+            try {
+                int value;
+                while ((value = latest) != last) {
+                    emitter.send(SseEmitter.event().name("availability")
+                            .data(new EventAvailabilityDto(eventId, value), MediaType.APPLICATION_JSON));
+                    last = value;
+                    sent.increment();
+                }
+            } catch (IOException | IllegalStateException exception) {
+                //the client is gone, the emitter callbacks may never run for it
+                unsubscribe(this);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            //a push that came in while the flag was still set
+            if (latest != last && sending.compareAndSet(false, true)) senders.execute(this::drain);
+        }
+    }
+}
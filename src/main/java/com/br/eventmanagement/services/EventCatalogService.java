@@ -0,0 +1,134 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.repositories.EventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Optional read model of all events (api.catalog.enabled), answering GET /event, /event/available and
+ * /event/{id} from memory. Every committed EventChangedEvent marks the snapshot stale and the next refresh tick
+ * rebuilds it from the database, so a burst of registrations costs one rebuild.
+ */
+@Slf4j
+@Service
+public class EventCatalogService implements MeterBinder {
+
+    private static final EventCatalogSnapshot EMPTY = new EventCatalogSnapshot(List.of(), List.of(), Map.of(), null);
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final Duration maxAge;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private volatile EventCatalogSnapshot snapshot = EMPTY;
+    private volatile Timer rebuildTimer;
+
+    public EventCatalogService(EventRepository eventRepository,
+                               @Value("${api.catalog.enabled:false}") boolean enabled,
+                               @Value("${api.catalog.max-age:60s}") Duration maxAge) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.maxAge = maxAge;
+    }
+
+    //false until the first snapshot is built, callers read from the database meanwhile
+    public boolean isServing() {
+        return enabled && snapshot.builtAt() != null;
+    }
+
+    //empty for events created after the last rebuild
+    public Optional<Event> find(UUID eventId) {
+        if (!this.isServing()) return Optional.empty();
+        return Optional.ofNullable(snapshot.byId().get(eventId));
+    }
+
+    public List<Event> listAll() {
+        return snapshot.byDate();
+    }
+
+    public List<Event> listAllAvailable() {
+        return snapshot.availableByDate();
+    }
+
+    public CursorPageDto<Event> listAll(PageQuery page) {
+        return page(snapshot.byDate(), page);
+    }
+
+    public CursorPageDto<Event> listAllAvailable(PageQuery page) {
+        return page(snapshot.availableByDate(), page);
+    }
+
+    //a new snapshot is a new version of every list it serves
+    public String etag() {
+        EventCatalogSnapshot current = snapshot;
+        return "catalog-" + current.builtAt().getEpochSecond() + "." + current.builtAt().getNano() + "-" + current.byDate().size();
+    }
+
+    private static CursorPageDto<Event> page(List<Event> events, PageQuery page) {
+        return CursorPageDto.of(EventCatalogSnapshot.after(events, page.after(), page.limit() + 1), page.limit(),
+                event -> new Cursor(event.getDate(), event.getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changed) {
+        stale.set(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.refresh();
+    }
+
+    //past events are kept, the lists answer the same as the database whether the catalog is on or not
+    @Scheduled(fixedDelayString = "${api.catalog.refresh-interval-ms:500}")
+    public void refresh() {
+        if (!enabled) return;
+        Instant builtAt = snapshot.builtAt();
+        boolean expired = builtAt == null || Duration.between(builtAt, Instant.now()).compareTo(maxAge) > 0;
+        if (!stale.getAndSet(false) && !expired) return;
+
+        try {
+            long start = System.nanoTime();
+            snapshot = EventCatalogSnapshot.of(eventRepository.findAll(), Instant.now());
+            if (rebuildTimer != null) rebuildTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        } catch (RuntimeException exception) {
+            stale.set(true); //try again on the next round
+            log.warn("Could not rebuild the event catalog", exception);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("event.catalog.age", this, service -> {
+                    Instant builtAt = service.snapshot.builtAt();
+                    return builtAt == null ? Double.NaN : Duration.between(builtAt, Instant.now()).toMillis() / 1000.0;
+                })
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("event.catalog.size", this, service -> service.snapshot.byDate().size())
+                .register(registry);
+        rebuildTimer = Timer.builder("event.catalog.rebuild")
+                .register(registry);
+    }
+}
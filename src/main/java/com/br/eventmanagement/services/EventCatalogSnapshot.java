@@ -0,0 +1,41 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.entity.Event;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//immutable, a rebuild replaces the whole snapshot and nothing ever changes one in place
+record EventCatalogSnapshot(List<Event> byDate, List<Event> availableByDate, Map<UUID, Event> byId, Instant builtAt) {
+
+    //same order as the keyset queries, the database compares uuids as unsigned bytes
+    static final Comparator<Event> DATE_ORDER = Comparator.comparing(Event::getDate)
+            .thenComparing(Event::getId, (left, right) -> {
+                int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+            });
+
+    static EventCatalogSnapshot of(List<Event> events, Instant builtAt) {
+        List<Event> byDate = events.stream().sorted(DATE_ORDER).toList();
+        List<Event> availableByDate = byDate.stream()
+                .filter(event -> event.getRegisteredParticipants() < event.getMaxParticipants())
+                .toList();
+        Map<UUID, Event> byId = byDate.stream().collect(Collectors.toUnmodifiableMap(Event::getId, Function.identity()));
+        return new EventCatalogSnapshot(byDate, availableByDate, byId, builtAt);
+    }
+
+    //the rows after the cursor, found by binary search instead of walking the list
+    static List<Event> after(List<Event> events, Cursor cursor, int limit) {
+        Event key = Event.builder().date(cursor.position()).id(cursor.id()).build();
+        int found = Collections.binarySearch(events, key, DATE_ORDER);
+        int from = found >= 0 ? found + 1 : -found - 1;
+        return events.subList(from, Math.min(from + limit, events.size()));
+    }
+}
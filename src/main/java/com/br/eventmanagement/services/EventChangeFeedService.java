@@ -0,0 +1,123 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventChangesDto;
+import com.br.eventmanagement.dtos.pagination.SequenceCursor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.EventTombstone;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.EventTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/*
+ * Changes of the event table in change_seq order. Every insert and update of an event takes the next value of
+ * event_change_seq and deletions leave a tombstone numbered from the same sequence, so a client that keeps the
+ * cursor only reads what changed since its last call. An event changed twice shows up once, at its last change.
+ * Values are taken when the row is written, not at commit, so a lower value can still commit after a higher one was
+ * served. The cursor handed out never passes the highest position that was committed api.change-feed.overlap ago,
+ * every value below it was taken before then. Newer changes are served right away and again on the next call, clients
+ * skip the ones whose change_seq they already have.
+ * Limit: a change is only guaranteed to reach the feed if its transaction commits within the overlap. Event writes are
+ * short, the overlap must stay above the longest one. The position committed at startup counts as settled, so a
+ * write still open on another instance while this one starts is not covered either.
+ */
+@Service
+public class EventChangeFeedService {
+
+    private final EventRepository eventRepository;
+    private final EventTombstoneRepository eventTombstoneRepository;
+    private final long overlapNanos;
+
+    //highest committed position over time, oldest first, only the latest one older than the overlap is kept of those
+    private final Deque<Sample> samples = new ConcurrentLinkedDeque<>();
+
+    public EventChangeFeedService(EventRepository eventRepository,
+                                  EventTombstoneRepository eventTombstoneRepository,
+                                  @Value("${api.change-feed.overlap:30s}") Duration overlap) {
+        this.eventRepository = eventRepository;
+        this.eventTombstoneRepository = eventTombstoneRepository;
+        this.overlapNanos = overlap.toNanos();
+    }
+
+    public EventChangesDto changesSince(String cursor, int limit) {
+        long since = SequenceCursor.decode(cursor).sequence();
+        long settled = this.settledSequence();
+
+        //one more row than the page from each side, together they tell whether there is more
+        List<Event> events = eventRepository.findChangedSince(since, Limit.of(limit + 1));
+        List<EventTombstone> tombstones = eventTombstoneRepository.findChangedSince(since, Limit.of(limit + 1));
+
+        List<Event> changed = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        long last = since;
+        int e = 0, t = 0;
+        while (e + t < limit && (e < events.size() || t < tombstones.size())) {
+            boolean nextIsEvent = t == tombstones.size()
+                    || (e < events.size() && events.get(e).getChangeSeq() < tombstones.get(t).getChangeSeq());
+            if (nextIsEvent) {
+                Event event = events.get(e++);
+                changed.add(event);
+                last = event.getChangeSeq();
+            } else {
+                EventTombstone tombstone = tombstones.get(t++);
+                deleted.add(tombstone.getEventId());
+                last = tombstone.getChangeSeq();
+            }
+        }
+
+        long next = Math.max(since, Math.min(last, settled));
+        //a held back cursor would return the same page again, the rest comes once the page settles
+        boolean hasMore = (e < events.size() || t < tombstones.size()) && next == last;
+        return new EventChangesDto(changed, deleted, new SequenceCursor(next).encode(), hasMore);
+    }
+
+    //without it the cursor would stay put for the first overlap after every start
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        samples.addFirst(new Sample(System.nanoTime() - overlapNanos, this.committedSequence()));
+    }
+
+    @Scheduled(fixedDelayString = "${api.change-feed.sample-interval-ms:1000}")
+    public void sampleSequence() {
+        long committed = this.committedSequence();
+        long now = System.nanoTime();
+        samples.addLast(new Sample(now, committed));
+
+        //samples older than a settled one are never read again
+        while (samples.size() > 1) {
+            Iterator<Sample> oldest = samples.iterator();
+            oldest.next();
+            if (now - oldest.next().takenAt() < overlapNanos) break;
+            samples.pollFirst();
+        }
+    }
+
+    private long committedSequence() {
+        return Math.max(eventRepository.findMaxChangeSeq(), eventTombstoneRepository.findMaxChangeSeq());
+    }
+
+    private long settledSequence() {
+        long now = System.nanoTime();
+        Iterator<Sample> newest = samples.descendingIterator();
+        while (newest.hasNext()) {
+            Sample sample = newest.next();
+            if (now - sample.takenAt() >= overlapNanos) return sample.sequence();
+        }
+        return 0;
+    }
+
+    private record Sample(long takenAt, long sequence) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.br.eventmanagement.services;
+
+import java.util.UUID;
+
+//published whenever an event row (or its registration count) changes
+public record EventChangedEvent(UUID eventId) {
+}
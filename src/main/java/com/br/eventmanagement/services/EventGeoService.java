@@ -0,0 +1,58 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventDistanceDto;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.OffsetCursor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.geo.GeoGrid;
+import com.br.eventmanagement.repositories.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/*
+ * Events within a radius of a point, nearest first.
+ * By default the candidates come from the grid cells around the point (idx_event_grid_cell), which works on any
+ * database. With PostGIS (api.geo.postgis.enabled) the GiST index of V12 answers instead.
+ */
+@Service
+public class EventGeoService {
+
+    private final EventRepository eventRepository;
+    private final boolean postgisEnabled;
+    private final double maxRadiusKm;
+
+    public EventGeoService(EventRepository eventRepository,
+                           @Value("${api.geo.postgis.enabled:false}") boolean postgisEnabled,
+                           @Value("${api.geo.max-radius-km:100}") double maxRadiusKm) {
+        this.eventRepository = eventRepository;
+        this.postgisEnabled = postgisEnabled;
+        this.maxRadiusKm = maxRadiusKm;
+    }
+
+    public CursorPageDto<EventDistanceDto> findNearby(double latitude, double longitude, double radiusKm,
+                                                      String cursor, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestException("Invalid coordinates");
+        }
+        if (radiusKm <= 0 || radiusKm > maxRadiusKm) {
+            throw new BadRequestException("The radius must be between 0 and " + maxRadiusKm + " km");
+        }
+        int offset = OffsetCursor.decode(cursor).offset();
+
+        //one more row than the page, it only tells that there is a next page
+        List<Event> rows = postgisEnabled
+                ? eventRepository.findNearbyWithPostgis(latitude, longitude, radiusKm * 1000, limit + 1, offset)
+                : eventRepository.findNearbyInCells(GeoGrid.cellsWithin(latitude, longitude, radiusKm), latitude, longitude,
+                        GeoGrid.longitudeScale(latitude), Math.pow(radiusKm / GeoGrid.KM_PER_DEGREE, 2), limit + 1, offset);
+
+        List<EventDistanceDto> items = rows.stream()
+                .limit(limit)
+                .map(event -> new EventDistanceDto(event,
+                        GeoGrid.haversineKm(latitude, longitude, event.getLatitude(), event.getLongitude())))
+                .toList();
+        return new CursorPageDto<>(items, rows.size() > limit ? new OffsetCursor(offset + limit).encode() : null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.OffsetCursor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/*
+ * Relevance ranked search over event titles and locations.
+ * On PostgreSQL (api.search.full-text.enabled) it uses the tsvector and trigram indexes of V9, every word also
+ * matches as a prefix and misspelled words still match by similarity. Other databases get a LIKE fallback.
+ */
+@Service
+public class EventSearchService {
+
+    private static final int MAX_TERMS = 8;
+
+    private final EventRepository eventRepository;
+    private final boolean fullTextEnabled;
+
+    public EventSearchService(EventRepository eventRepository,
+                              @Value("${api.search.full-text.enabled:false}") boolean fullTextEnabled) {
+        this.eventRepository = eventRepository;
+        this.fullTextEnabled = fullTextEnabled;
+    }
+
+    public CursorPageDto<Event> search(String text, String cursor, int limit) {
+        List<String> terms = terms(text);
+        int offset = OffsetCursor.decode(cursor).offset();
+
+        //one more row than the page, it only tells that there is a next page
+        List<Event> rows = fullTextEnabled
+                ? eventRepository.searchRanked(String.join(" ", terms), toTsQuery(terms), limit + 1, offset)
+                : eventRepository.searchByPattern("%" + String.join("%", terms) + "%", limit + 1, offset);
+
+        if (rows.size() <= limit) return new CursorPageDto<>(rows, null);
+        return new CursorPageDto<>(rows.subList(0, limit), new OffsetCursor(offset + limit).encode());
+    }
+
+    //only letters and digits reach the queries, so nothing has to be escaped for tsquery or LIKE
+    static List<String> terms(String text) {
+        List<String> terms = Arrays.stream(text == null ? new String[0] : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toList();
+        if (terms.isEmpty()) throw new BadRequestException("The search text must contain letters or digits");
+        return terms;
+    }
+
+    //"spring conf" -> "spring:* & conf:*"
+    static String toTsQuery(List<String> terms) {
+        return terms.stream().map(term -> term + ":*").collect(Collectors.joining(" & "));
+    }
+}
@@ -1,49 +1,233 @@
 package com.br.eventmanagement.services;
 
+import com.br.eventmanagement.cache.EntityCacheEvictor;
+import com.br.eventmanagement.cache.LocalCache;
+import com.br.eventmanagement.datasource.ReplicaLagGuard;
 import com.br.eventmanagement.dtos.event.*;
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
 import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.EventTombstone;
+import com.br.eventmanagement.entity.TableVersion;
+import com.br.eventmanagement.exceptions.BadRequestException;
 import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.EventTombstoneRepository;
+import com.br.eventmanagement.repositories.TableVersionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EventService {
+    private static final String EVENT_TABLE = "event";
+
     private final EventRepository eventRepository;
+    private final HotEventSeatService hotEventSeatService;
+    private final WaitlistService waitlistService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LocalCache<UUID, Event> eventCache;
+    private final TableVersionRepository tableVersionRepository;
+    private final EventTombstoneRepository eventTombstoneRepository;
+    private final EventSuggestService eventSuggestService;
+    private final OccupancyRollupService occupancyRollupService;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final EntityCacheEvictor entityCacheEvictor;
 
+    @Transactional(readOnly = true)
     public List<Event> listAll(){
         return eventRepository.findAll();
     }
 
+    //served from the cache, the returned event is shared and must not be modified, mutations load their own
     public Event getById(UUID eventId){
-        return eventRepository.findById(eventId).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        //right after a change the replica may still return the old row, it is read then but not cached; a read-write
+        //transaction may see its own uncommitted changes, which must not reach other requests
+        Event event = replicaLagGuard.mayLag(eventId) || inReadWriteTransaction() ? eventRepository.findById(eventId).orElse(null)
+                : eventCache.get(eventId, id -> eventRepository.findById(id).orElse(null));
+        if(event == null) throw new EntityNotFoundException("Event not found");
+        return event;
+    }
+
+    //changes whenever any event is created, changed or deleted, the ETag of every event list
+    @Transactional(readOnly = true)
+    public String listEtag(){
+        EventTableStampDto stamp = eventRepository.findTableStamp();
+        long tableVersion = tableVersionRepository.findVersion(EVENT_TABLE).orElse(0L);
+        return tableVersion + "-" + stamp.events() + "-" + stamp.versions();
     }
 
+    @Transactional(readOnly = true)
     public List<Event> findAllByDate(LocalDate date){
-        return eventRepository.findAllByDate(date);
+        return eventRepository.findAllInRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    //from is inclusive and to exclusive, like the rest of the date queries
+    @Transactional(readOnly = true)
+    public CursorPageDto<Event> findAllInRange(LocalDate from, LocalDate to, PageQuery page){
+        if(!to.isAfter(from)) throw new BadRequestException("The end of the range must be after its start");
+        Cursor after = page.after();
+        return CursorPageDto.of(eventRepository.findPageInRange(from.atStartOfDay(), to.atStartOfDay(),
+                        after.position(), after.id(), page.fetchLimit()),
+                page.limit(), EventService::cursorOf);
+    }
+
+    //one entry for every day of the month, days without events count 0
+    @Transactional(readOnly = true)
+    public List<EventDayCountDto> countByDay(YearMonth month){
+        LocalDate first = month.atDay(1);
+        LocalDate next = month.plusMonths(1).atDay(1);
+        Map<LocalDate, Long> counts = eventRepository.countByDay(first.atStartOfDay(), next.atStartOfDay()).stream()
+                .collect(Collectors.toMap(EventDayCountDto::day, EventDayCountDto::events));
+
+        return first.datesUntil(next)
+                .map(day -> new EventDayCountDto(day, counts.getOrDefault(day, 0L)))
+                .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<Event> listAllAvailable(){
         return eventRepository.findEventsWithAvailability();
     }
 
+    @Transactional(readOnly = true)
     public boolean isAvailableFreeSpot(UUID eventId){
+        if(hotEventSeatService.isHot(eventId)) return hotEventSeatService.available(eventId) > 0;
         return eventRepository.isAvailableFreeSpot(eventId);
     }
 
+    //hot events count their seats in memory, the row lags behind until the next flush
+    public int seatsLeft(UUID eventId){
+        if(hotEventSeatService.isHot(eventId)) return hotEventSeatService.available(eventId);
+        Event event = this.getById(eventId);
+        return Math.max(event.getMaxParticipants() - event.getRegisteredParticipants(), 0);
+    }
+
+    @Transactional(readOnly = true)
     public List<Event> searchEvents(String title, String location){
         return eventRepository.searchEvents(title, location);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<Event> listAll(PageQuery page){
+        Cursor after = page.after();
+        return CursorPageDto.of(eventRepository.findPage(after.position(), after.id(), page.fetchLimit()),
+                page.limit(), EventService::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<Event> listAllAvailable(PageQuery page){
+        Cursor after = page.after();
+        return CursorPageDto.of(eventRepository.findAvailablePage(after.position(), after.id(), page.fetchLimit()),
+                page.limit(), EventService::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<Event> searchEvents(String title, String location, PageQuery page){
+        Cursor after = page.after();
+        return CursorPageDto.of(eventRepository.searchEventsPage(title, location, after.position(), after.id(), page.fetchLimit()),
+                page.limit(), EventService::cursorOf);
+    }
+
+    private static Cursor cursorOf(Event event){
+        return new Cursor(event.getDate(), event.getId());
+    }
+
+    @Transactional
+    public void reserveSpot(UUID eventId){
+        if(hotEventSeatService.isHot(eventId)){
+            if(!hotEventSeatService.tryReserve(eventId)){
+                throw new BadRequestException("There is no spot available in this event");
+            }
+            return;
+        }
+        entityCacheEvictor.evict(Event.class, List.of(eventId));
+        if(eventRepository.reserveSpot(eventId) == 0){
+            this.getById(eventId); //nothing was updated, either the event doesn't exist or it is full
+            throw new BadRequestException("There is no spot available in this event");
+        }
+        this.changed(eventId);
+    }
+
+    //reserves as many of the requested spots as possible and returns how many were reserved
+    @Transactional
+    public int reserveSpots(UUID eventId, int spots){
+        if(hotEventSeatService.isHot(eventId)) return hotEventSeatService.tryReserve(eventId, spots);
+
+        int requested = spots;
+        entityCacheEvictor.evict(Event.class, List.of(eventId));
+        while(requested > 0 && eventRepository.reserveSpots(eventId, requested) == 0){
+            Integer freeSpots = eventRepository.findFreeSpots(eventId);
+            if(freeSpots == null) throw new EntityNotFoundException("Event not found");
+            requested = Math.min(requested, freeSpots);
+        }
+        if(requested > 0) this.changed(eventId);
+        return Math.max(requested, 0);
+    }
+
+    @Transactional
+    public void releaseSpots(UUID eventId, int spots){
+        int released = spots - waitlistService.promote(eventId, spots);
+        if(released == 0) return;
+
+        entityCacheEvictor.evict(Event.class, List.of(eventId));
+        eventRepository.releaseSpots(eventId, released);
+        if(hotEventSeatService.isHot(eventId)) hotEventSeatService.release(eventId, released);
+        this.changed(eventId);
+    }
+
+    //one update for all the events, a user holds at most one spot per event
+    @Transactional
+    public void releaseOneSpotOfEach(Collection<UUID> eventIds){
+        if(eventIds.isEmpty()) return;
+
+        Set<UUID> withWaitlist = waitlistService.findEventIdsWithWaitlist(eventIds);
+        List<UUID> released = eventIds.stream()
+                .filter(eventId -> !withWaitlist.contains(eventId) || waitlistService.promote(eventId, 1) == 0)
+                .toList();
+        if(released.isEmpty()) return;
+
+        entityCacheEvictor.evict(Event.class, released);
+        eventRepository.releaseOneSpotOfEach(released);
+        released.stream()
+                .filter(hotEventSeatService::isHot)
+                .forEach(eventId -> hotEventSeatService.release(eventId, 1));
+        released.forEach(this::changed);
+    }
+
+    @Transactional
+    public void resetSpots(UUID eventId){
+        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        event.setRegisteredParticipants(0);
+        if(event.isHot()) hotEventSeatService.reset(eventId);
+        this.changed(eventId);
+    }
+
     @Transactional
     public Event create(EventCreateDto eventCreateDto){
-        return eventRepository.save(new Event(eventCreateDto));
+        checkCoordinates(eventCreateDto.latitude(), eventCreateDto.longitude());
+        Event event = eventRepository.save(new Event(eventCreateDto));
+        eventSuggestService.put(event);
+        occupancyRollupService.eventCreated(event);
+        this.tableChanged();
+        this.changed(event.getId());
+        return event;
     }
 
     @Transactional
@@ -52,36 +236,98 @@ public class EventService {
 
         eventToUpdate.setTitle(updateTitleDto.title());
         eventRepository.save(eventToUpdate);
+        eventSuggestService.put(eventToUpdate);
+        this.changed(id);
     }
     
     @Transactional
     public void updateLocation(UUID id, EventUpdateLocationDto updateLocationDto){
+        checkCoordinates(updateLocationDto.latitude(), updateLocationDto.longitude());
         Event eventToUpdate = eventRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        String previousLocation = eventToUpdate.getLocation();
 
         eventToUpdate.setLocation(updateLocationDto.location());
+        eventToUpdate.setCoordinates(updateLocationDto.latitude(), updateLocationDto.longitude());
         eventRepository.save(eventToUpdate);
+        eventSuggestService.put(eventToUpdate);
+        occupancyRollupService.eventMoved(eventToUpdate, eventToUpdate.getDate(), previousLocation);
+        this.changed(id);
     }
     
     @Transactional
     public void updateDate(UUID id, EventUpdateDateDto updateDateDto){
         Event eventToUpdate = eventRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+        LocalDateTime previousDate = eventToUpdate.getDate();
 
         eventToUpdate.setDate(updateDateDto.date());
         eventRepository.save(eventToUpdate);
+        occupancyRollupService.eventMoved(eventToUpdate, previousDate, eventToUpdate.getLocation());
+        this.changed(id);
     }
 
     @Transactional
     public void updateParticipants(UUID id, EventUpdateParticipantsDto updateParticipantsDto){
         Event eventToUpdate = eventRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Event not found"));
 
+        int capacityDelta = updateParticipantsDto.maxParticipants() - eventToUpdate.getMaxParticipants();
         eventToUpdate.setMaxParticipants(updateParticipantsDto.maxParticipants());
         eventRepository.save(eventToUpdate);
+        occupancyRollupService.capacityChanged(eventToUpdate, capacityDelta);
+
+        //the new seats go to the waitlist first
+        int promoted = waitlistService.promote(id, capacityDelta);
+        if(promoted > 0){
+            entityCacheEvictor.evict(Event.class, List.of(id));
+            eventRepository.addRegisteredParticipants(id, promoted);
+        }
+        if(eventToUpdate.isHot()) hotEventSeatService.resize(id, capacityDelta - promoted);
+        this.changed(id);
+    }
+
+    @Transactional
+    public void updateHot(UUID id, EventUpdateHotDto updateHotDto){
+        Event eventToUpdate = eventRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Event not found"));
+
+        eventToUpdate.setHot(updateHotDto.hot());
+        eventRepository.save(eventToUpdate);
+        hotEventSeatService.markHot(id, updateHotDto.hot());
+        this.changed(id);
     }
 
     @Transactional
     public void delete(UUID id){
-        this.getById(id);
+        occupancyRollupService.eventDeleted(this.getById(id));
         eventRepository.deleteById(id);
+        eventTombstoneRepository.save(new EventTombstone(id, LocalDateTime.now()));
+        eventSuggestService.remove(id);
+        this.tableChanged();
+        this.changed(id);
+    }
+
+    private static void checkCoordinates(Double latitude, Double longitude){
+        if((latitude == null) != (longitude == null)) throw new BadRequestException("Latitude and longitude must be given together");
+    }
+
+    //the row is missing only where the migrations did not run (tests on H2)
+    private void tableChanged(){
+        if(tableVersionRepository.increment(EVENT_TABLE) == 0) tableVersionRepository.save(new TableVersion(EVENT_TABLE, 1));
+    }
+
+    private static boolean inReadWriteTransaction(){
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    //evicted right away and again when the transaction ends, committed or not, in case another request cached the row meanwhile
+    private void changed(UUID eventId){
+        eventCache.invalidate(eventId);
+        eventPublisher.publishEvent(new EventChangedEvent(eventId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent changed){
+        eventCache.invalidate(changed.eventId());
+        replicaLagGuard.changed(changed.eventId());
     }
 
 }
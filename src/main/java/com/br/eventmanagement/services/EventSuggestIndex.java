@@ -0,0 +1,226 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventSuggestionDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Sorted array with one key for every word start of every term, "rock in rio" is found by "rock", "in r" and "rio".
+ * A prefix is a binary search for its range of keys plus a scan of the range. Short prefixes have wide ranges, their
+ * top terms are kept after the first scan. Immutable, a change of the terms or of their popularity publishes a new
+ * index, titles and locations change far less often than they are looked up.
+ */
+final class EventSuggestIndex {
+
+    static final EventSuggestIndex EMPTY = new EventSuggestIndex(new String[0], new Term[0], 0);
+
+    //most popular first, equal ones alphabetically
+    static final Comparator<Term> RANKING = Comparator.comparingLong(Term::popularity).reversed()
+            .thenComparing(Term::normalized);
+
+    //ranges with more keys than this are only scanned once per index
+    private static final int WIDE_RANGE = 256;
+    private static final int KEPT_TOP = 50;
+
+    private final String[] keys;
+    private final Term[] terms;
+    private final long keyBytes;
+    private final Map<String, List<Term>> topOfWideRanges = new ConcurrentHashMap<>();
+
+    private EventSuggestIndex(String[] keys, Term[] terms, long keyBytes) {
+        this.keys = keys;
+        this.terms = terms;
+        this.keyBytes = keyBytes;
+    }
+
+    static EventSuggestIndex of(Collection<Term> terms) {
+        return EMPTY.with(terms, Set.of());
+    }
+
+    //copies the arrays in segments around the positions of the new keys and of the keys of the removed terms
+    EventSuggestIndex with(Collection<Term> added, Set<Term> removed) {
+        long bytes = keyBytes;
+        List<Entry> entries = new ArrayList<>();
+        for (Term term : added) {
+            for (String key : keysOf(term.normalized())) {
+                entries.add(new Entry(key, term));
+                bytes += stringBytes(key);
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+
+        List<Integer> dropped = new ArrayList<>();
+        for (Term term : removed) {
+            for (String key : keysOf(term.normalized())) {
+                int position = this.firstAtLeast(key);
+                while (terms[position] != term) position++; //the same key can belong to a title and to a location
+                dropped.add(position);
+                bytes -= stringBytes(key);
+            }
+        }
+        dropped.sort(null);
+
+        int size = keys.length + entries.size() - dropped.size();
+        String[] mergedKeys = new String[size];
+        Term[] mergedTerms = new Term[size];
+        int source = 0;
+        int target = 0;
+        int nextEntry = 0;
+        int nextDropped = 0;
+        while (source < keys.length || nextEntry < entries.size()) {
+            int insertAt = nextEntry < entries.size() ? this.firstAtLeast(entries.get(nextEntry).key()) : keys.length;
+            int dropAt = nextDropped < dropped.size() ? dropped.get(nextDropped) : keys.length;
+            int stop = Math.min(insertAt, dropAt);
+            System.arraycopy(keys, source, mergedKeys, target, stop - source);
+            System.arraycopy(terms, source, mergedTerms, target, stop - source);
+            target += stop - source;
+            source = stop;
+            if (nextEntry < entries.size() && insertAt == stop) {
+                mergedKeys[target] = entries.get(nextEntry).key();
+                mergedTerms[target++] = entries.get(nextEntry++).term();
+            } else if (nextDropped < dropped.size()) {
+                source++;
+                nextDropped++;
+            }
+        }
+        return new EventSuggestIndex(mergedKeys, mergedTerms, bytes);
+    }
+
+    //same keys, only the popularity of some terms changed, so the kept top terms must go
+    EventSuggestIndex reranked() {
+        return new EventSuggestIndex(keys, terms, keyBytes);
+    }
+
+    //the prefix must already be normalized
+    List<Term> top(String prefix, int limit) {
+        int from = this.firstAtLeast(prefix);
+        int to = this.firstAtLeast(prefix + Character.MAX_VALUE);
+        if (to - from <= WIDE_RANGE || limit > KEPT_TOP) return this.scan(from, to, limit);
+
+        List<Term> top = topOfWideRanges.computeIfAbsent(prefix, key -> this.scan(from, to, KEPT_TOP));
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    //both arrays with compressed references and the key strings
+    long estimatedBytes() {
+        return 2 * (16 + 4L * keys.length) + keyBytes;
+    }
+
+    private List<Term> scan(int from, int to, int limit) {
+        PriorityQueue<Term> best = new PriorityQueue<>(limit + 1, RANKING.reversed()); //the weakest one on top
+        Set<Term> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = from; i < to; i++) {
+            if (best.size() == limit && RANKING.compare(terms[i], best.peek()) >= 0) continue;
+            if (!seen.add(terms[i])) continue; //more than one word of the term starts with the prefix
+            best.add(terms[i]);
+            if (best.size() > limit) best.poll();
+        }
+        List<Term> top = new ArrayList<>(best);
+        top.sort(RANKING);
+        return top;
+    }
+
+    private int firstAtLeast(String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    //lower case, without accents and with a single space between words, so "São  Paulo!" and "sao paulo" are the same term
+    static String normalize(String text) {
+        String decomposed = Normalizer.isNormalized(text, Normalizer.Form.NFD) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean separated = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char character = decomposed.charAt(i);
+            if (Character.getType(character) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(character)) {
+                if (separated && !normalized.isEmpty()) normalized.append(' ');
+                normalized.append(Character.toLowerCase(character));
+                separated = false;
+            } else {
+                separated = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static List<String> keysOf(String normalized) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    //object header and fields plus the byte array, one byte per character for latin-1 text
+    static long stringBytes(String value) {
+        long array = 16 + value.length();
+        return 24 + (array + 7) / 8 * 8;
+    }
+
+    private record Entry(String key, Term term) {
+    }
+
+    //events and popularity only change under the lock of EventSuggestService, lookups read popularity without it
+    static final class Term {
+        private final EventSuggestionDto.Field field;
+        private final String text;
+        private final String normalized;
+        private volatile long popularity;
+        private int events;
+
+        Term(EventSuggestionDto.Field field, String text, String normalized) {
+            this.field = field;
+            this.text = text;
+            this.normalized = normalized;
+        }
+
+        EventSuggestionDto.Field field() {
+            return field;
+        }
+
+        String text() {
+            return text;
+        }
+
+        String normalized() {
+            return normalized;
+        }
+
+        long popularity() {
+            return popularity;
+        }
+
+        //returns how many events still have the term
+        int add(long popularity, int events) {
+            this.popularity += popularity;
+            this.events += events;
+            return this.events;
+        }
+
+        EventSuggestionDto toDto() {
+            return new EventSuggestionDto(text, field, popularity);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventSuggestSourceDto;
+import com.br.eventmanagement.dtos.event.EventSuggestionDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+ * Autocomplete of event titles and locations (GET /event/suggest) from an in-memory prefix index, see EventSuggestIndex.
+ * EventService hands over every created, renamed, moved or deleted event once its transaction commits. Popularity
+ * moves with every registration instead, it is only brought up to date by the periodic rebuild.
+ */
+@Slf4j
+@Service
+public class EventSuggestService implements MeterBinder {
+
+    //rough sizes of the bookkeeping around the index: map node, key and value object of every event and every term
+    private static final long EVENT_BYTES = 32 + 32 + 32;
+    private static final long TERM_BYTES = 32 + 24 + 40;
+
+    private final EventRepository eventRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    //guarded by this, lookups only read the published index
+    private Vocabulary vocabulary = new Vocabulary();
+    private Map<UUID, EventSuggestSourceDto> writesDuringRebuild;
+
+    private volatile EventSuggestIndex index = EventSuggestIndex.EMPTY;
+    private volatile int terms;
+    private volatile long estimatedBytes;
+    private volatile Timer rebuildTimer;
+
+    public EventSuggestService(EventRepository eventRepository,
+                               @Value("${api.suggest.default-limit:10}") int defaultLimit,
+                               @Value("${api.suggest.max-limit:50}") int maxLimit) {
+        this.eventRepository = eventRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public List<EventSuggestionDto> suggest(String prefix, Integer limit) {
+        String normalized = EventSuggestIndex.normalize(prefix);
+        if (normalized.isEmpty()) throw new BadRequestException("The prefix must have at least one letter or digit");
+        return index.top(normalized, PageQuery.size(limit, defaultLimit, maxLimit)).stream()
+                .map(EventSuggestIndex.Term::toDto)
+                .toList();
+    }
+
+    //the title, location and popularity of the event as they are now
+    public void put(Event event) {
+        EventSuggestSourceDto source = new EventSuggestSourceDto(event.getId(), event.getTitle(), event.getLocation(),
+                event.getRegisteredParticipants());
+        afterCommit(() -> this.apply(event.getId(), source));
+    }
+
+    public void remove(UUID eventId) {
+        afterCommit(() -> this.apply(eventId, null));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        this.rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${api.suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${api.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (this) {
+            if (writesDuringRebuild != null) return;
+            writesDuringRebuild = new LinkedHashMap<>();
+        }
+        try {
+            long start = System.nanoTime();
+            Vocabulary rebuilt = new Vocabulary();
+            for (EventSuggestSourceDto source : eventRepository.findSuggestSources()) {
+                rebuilt.update(source.id(), source, new ArrayList<>(), new HashSet<>());
+            }
+            EventSuggestIndex rebuiltIndex = EventSuggestIndex.of(rebuilt.terms.values());
+
+            synchronized (this) {
+                vocabulary = rebuilt;
+                index = rebuiltIndex;
+                //changes committed while the rows were read may be missing from them, they are applied again
+                Map<UUID, EventSuggestSourceDto> writes = writesDuringRebuild;
+                writesDuringRebuild = null;
+                writes.forEach(this::apply);
+                this.published();
+            }
+            if (rebuildTimer != null) rebuildTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            log.info("Built the suggestion index with {} keys for {} terms, about {} KiB", index.size(), terms, estimatedBytes / 1024);
+        } catch (RuntimeException exception) {
+            log.warn("Could not rebuild the suggestion index", exception);
+        } finally {
+            synchronized (this) {
+                writesDuringRebuild = null;
+            }
+        }
+    }
+
+    //a null source removes the event
+    private synchronized void apply(UUID eventId, EventSuggestSourceDto source) {
+        if (writesDuringRebuild != null) writesDuringRebuild.put(eventId, source);
+
+        List<EventSuggestIndex.Term> added = new ArrayList<>();
+        Set<EventSuggestIndex.Term> removed = new HashSet<>();
+        vocabulary.update(eventId, source, added, removed);
+        index = added.isEmpty() && removed.isEmpty() ? index.reranked() : index.with(added, removed);
+        this.published();
+    }
+
+    private void published() {
+        terms = vocabulary.terms.size();
+        estimatedBytes = index.estimatedBytes() + vocabulary.bytes;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("event.suggest.keys", this, service -> service.index.size())
+                .register(registry);
+        Gauge.builder("event.suggest.terms", this, service -> service.terms)
+                .register(registry);
+        Gauge.builder("event.suggest.memory", this, service -> service.estimatedBytes)
+                .description("Estimated heap used by the suggestion index")
+                .baseUnit("bytes")
+                .register(registry);
+        rebuildTimer = Timer.builder("event.suggest.rebuild")
+                .register(registry);
+    }
+
+    private record TermKey(EventSuggestionDto.Field field, String normalized) {
+    }
+
+    private record EventTerms(EventSuggestIndex.Term title, EventSuggestIndex.Term location, long popularity) {
+    }
+
+    //which terms every event contributes to, so a change takes back exactly what the event added before
+    private static final class Vocabulary {
+        private final Map<UUID, EventTerms> byEvent = new HashMap<>();
+        private final Map<TermKey, EventSuggestIndex.Term> terms = new HashMap<>();
+        private long bytes;
+
+        void update(UUID eventId, EventSuggestSourceDto source, List<EventSuggestIndex.Term> added,
+                    Set<EventSuggestIndex.Term> removed) {
+            EventTerms previous = byEvent.remove(eventId);
+            if (previous != null) bytes -= EVENT_BYTES;
+            //the new terms are taken first, an unchanged title or location is then never dropped and added again
+            if (source != null) {
+                long popularity = source.registeredParticipants() == null ? 0 : source.registeredParticipants();
+                byEvent.put(eventId, new EventTerms(this.take(EventSuggestionDto.Field.TITLE, source.title(), popularity, added),
+                        this.take(EventSuggestionDto.Field.LOCATION, source.location(), popularity, added), popularity));
+                bytes += EVENT_BYTES;
+            }
+            if (previous != null) {
+                this.give(previous.title(), previous.popularity(), removed);
+                this.give(previous.location(), previous.popularity(), removed);
+            }
+        }
+
+        private EventSuggestIndex.Term take(EventSuggestionDto.Field field, String text, long popularity,
+                                            List<EventSuggestIndex.Term> added) {
+            if (text == null) return null;
+            String normalized = EventSuggestIndex.normalize(text);
+            if (normalized.isEmpty()) return null;
+
+            EventSuggestIndex.Term term = terms.computeIfAbsent(new TermKey(field, normalized), key -> {
+                EventSuggestIndex.Term created = new EventSuggestIndex.Term(field, text, normalized);
+                added.add(created);
+                bytes += sizeOf(created);
+                return created;
+            });
+            term.add(popularity, 1);
+            return term;
+        }
+
+        private void give(EventSuggestIndex.Term term, long popularity, Set<EventSuggestIndex.Term> removed) {
+            if (term == null || term.add(-popularity, -1) > 0) return;
+            terms.remove(new TermKey(term.field(), term.normalized()));
+            removed.add(term);
+            bytes -= sizeOf(term);
+        }
+
+        private static long sizeOf(EventSuggestIndex.Term term) {
+            return TERM_BYTES + EventSuggestIndex.stringBytes(term.text()) + EventSuggestIndex.stringBytes(term.normalized());
+        }
+    }
+}
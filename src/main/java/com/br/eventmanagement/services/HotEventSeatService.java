@@ -0,0 +1,175 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.cache.EntityCacheEvictor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.repositories.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/*
+ * Seats of events marked as hot are handed out from memory, without touching the event row.
+ * The registration itself is still inserted in the request transaction, only the registered_participants
+ * increments are written behind in periodic batches. Releases keep going straight to the database.
+ */
+@Slf4j
+@Service
+public class HotEventSeatService {
+
+    private final EventRepository eventRepository;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int stripes;
+
+    private final Map<UUID, StripedSeatCounter> counters = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> pendingIncrements = new ConcurrentHashMap<>();
+
+    public HotEventSeatService(EventRepository eventRepository,
+                               EntityCacheEvictor entityCacheEvictor,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${api.hot-events.stripes:16}") int stripes) {
+        this.eventRepository = eventRepository;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //also called from transaction callbacks, where the finished transaction is still bound to the thread
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.stripes = stripes;
+    }
+
+    //rebuilds the counters from the database, registrations are the source of truth after a restart
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        counters.clear();
+        pendingIncrements.clear();
+        transactionTemplate.executeWithoutResult(status -> eventRepository.syncHotRegisteredParticipants());
+        eventRepository.findAllByHotTrue().forEach(this::load);
+        log.info("Loaded seat counters for {} hot events", counters.size());
+    }
+
+    public boolean isHot(UUID eventId) {
+        return counters.containsKey(eventId);
+    }
+
+    public boolean tryReserve(UUID eventId) {
+        return this.tryReserve(eventId, 1) == 1;
+    }
+
+    //takes up to the requested seats and returns how many were taken
+    public int tryReserve(UUID eventId, int seats) {
+        StripedSeatCounter counter = counters.get(eventId);
+        if (counter == null) return 0;
+
+        int acquired = 0;
+        while (acquired < seats && counter.tryAcquire()) acquired++;
+        if (acquired == 0) return 0;
+
+        //the increment only counts once the registrations are committed, a rollback gives the seats back
+        int taken = acquired;
+        afterCompletion(committed -> {
+            if (committed) pendingIncrements.computeIfAbsent(eventId, id -> new AtomicInteger()).addAndGet(taken);
+            else counter.release(taken);
+        });
+        return taken;
+    }
+
+    public void release(UUID eventId, int seats) {
+        afterCompletion(committed -> {
+            StripedSeatCounter counter = counters.get(eventId);
+            if (committed && counter != null) counter.release(seats);
+        });
+    }
+
+    public void resize(UUID eventId, int capacityDelta) {
+        this.release(eventId, capacityDelta);
+    }
+
+    public void reset(UUID eventId) {
+        afterCompletion(committed -> {
+            if (committed && counters.containsKey(eventId)) {
+                pendingIncrements.remove(eventId);
+                eventRepository.findById(eventId).ifPresent(this::load);
+            }
+        });
+    }
+
+    public int available(UUID eventId) {
+        StripedSeatCounter counter = counters.get(eventId);
+        return counter == null ? 0 : counter.available();
+    }
+
+    public void markHot(UUID eventId, boolean hot) {
+        afterCompletion(committed -> {
+            if (!committed) return;
+            if (hot) {
+                eventRepository.findById(eventId).ifPresent(this::load);
+                return;
+            }
+            //the conditional update of the non-hot path checks registered_participants, it must hold every seat
+            //taken from memory; the second flush writes the reservations that committed while the counter was removed
+            this.flush(eventId);
+            counters.remove(eventId);
+            this.flush(eventId);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${api.hot-events.flush-interval-ms:1000}")
+    public void flush() {
+        pendingIncrements.keySet().forEach(this::flush);
+    }
+
+    private void flush(UUID eventId) {
+        AtomicInteger pending = pendingIncrements.get(eventId);
+        if (pending == null) return;
+        int increment = pending.getAndSet(0);
+        if (increment == 0) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityCacheEvictor.evict(Event.class, List.of(eventId));
+                eventRepository.addRegisteredParticipants(eventId, increment);
+                eventPublisher.publishEvent(new EventChangedEvent(eventId));
+            });
+        } catch (RuntimeException exception) {
+            pending.addAndGet(increment); //try again on the next round
+            log.warn("Could not flush {} registrations of event {}", increment, eventId, exception);
+        }
+    }
+
+    private void load(Event event) {
+        AtomicInteger pending = pendingIncrements.get(event.getId());
+        int seatsLeft = event.getMaxParticipants() - event.getRegisteredParticipants() - (pending == null ? 0 : pending.get());
+        counters.put(event.getId(), new StripedSeatCounter(Math.max(seatsLeft, 0), stripes));
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
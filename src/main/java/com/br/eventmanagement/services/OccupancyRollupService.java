@@ -0,0 +1,343 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventPlaceCountDto;
+import com.br.eventmanagement.dtos.stats.OccupancyDayDto;
+import com.br.eventmanagement.dtos.stats.OccupancyHourDto;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventDayOccupancyRepository;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.RegistrationRollupRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/*
+ * Keeps the occupancy rollups (V13) up to date: registrations per event and hour, and events, seats and registrations
+ * per event day and location. The changes of a transaction are collected and written right before it commits, one
+ * update per row in a fixed order, so the rollup rows are locked last and never in an order that could deadlock.
+ * Every update goes to a random one of a few slots of its row, so registrations of the same event don't queue on it.
+ * On PostgreSQL (api.stats.on-conflict.enabled) a missing row is created by the same statement, elsewhere it is
+ * inserted after the update found nothing, and updated again if another transaction inserted it first.
+ */
+@Slf4j
+@Service
+public class OccupancyRollupService {
+
+    private static final String INSERT_HOUR = """
+        INSERT INTO registration_rollup (event_id, hour_start, slot, registered, cancelled) VALUES (?, ?, ?, ?, ?)
+    """;
+    //the rows missing for a change of many events, created empty and then updated like the others
+    private static final String INSERT_MISSING_HOURS = """
+        INSERT INTO registration_rollup (event_id, hour_start, slot, registered, cancelled)
+        SELECT e.id, :hourStart, :slot, 0, 0 FROM event e
+        WHERE e.id IN (:eventIds) AND NOT EXISTS (
+            SELECT 1 FROM registration_rollup r WHERE r.event_id = e.id AND r.hour_start = :hourStart AND r.slot = :slot)
+    """;
+    private static final String INSERT_DAY = """
+        INSERT INTO event_day_occupancy (event_day, location, slot, events, capacity, registered) VALUES (?, ?, ?, ?, ?, ?)
+    """;
+    private static final int WRITE_CHUNK_SIZE = 1000;
+
+    private final RegistrationRollupRepository registrationRollupRepository;
+    private final EventDayOccupancyRepository eventDayOccupancyRepository;
+    private final EventRepository eventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean onConflictEnabled;
+    private final int slots;
+    private final int maxDays;
+
+    public OccupancyRollupService(RegistrationRollupRepository registrationRollupRepository,
+                                  EventDayOccupancyRepository eventDayOccupancyRepository,
+                                  EventRepository eventRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${api.stats.on-conflict.enabled:false}") boolean onConflictEnabled,
+                                  @Value("${api.stats.rollup-slots:8}") int slots,
+                                  @Value("${api.stats.max-days:366}") int maxDays) {
+        this.registrationRollupRepository = registrationRollupRepository;
+        this.eventDayOccupancyRepository = eventDayOccupancyRepository;
+        this.eventRepository = eventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.onConflictEnabled = onConflictEnabled;
+        this.slots = slots;
+        this.maxDays = maxDays;
+    }
+
+    //from is inclusive and to exclusive, like the date range of the events
+    public List<OccupancyDayDto> findByDay(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) throw new BadRequestException("The end of the range must be after its start");
+        if (ChronoUnit.DAYS.between(from, to) > maxDays) throw new BadRequestException("The range must be at most " + maxDays + " days");
+        return eventDayOccupancyRepository.findRange(from, to);
+    }
+
+    public List<OccupancyHourDto> findByHour(UUID eventId) {
+        if (!eventRepository.existsById(eventId)) throw new EntityNotFoundException("Event not found");
+
+        long registrations = 0;
+        List<OccupancyHourDto> hours = new ArrayList<>();
+        for (OccupancyHourDto hour : registrationRollupRepository.findHours(eventId)) {
+            registrations += hour.registered() - hour.cancelled();
+            hours.add(new OccupancyHourDto(hour.hour(), hour.registered(), hour.cancelled(), registrations));
+        }
+        return hours;
+    }
+
+    public void registered(Event event, int registrations) {
+        this.changeRegistrations(event, registrations, 0);
+    }
+
+    public void cancelled(Event event, int registrations) {
+        this.changeRegistrations(event, 0, registrations);
+    }
+
+    //one registration of every event, as EventService.releaseOneSpotOfEach; the events are not loaded
+    public void cancelledOneOfEach(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) return;
+        List<EventPlaceCountDto> places = eventRepository.countByPlace(eventIds);
+        LocalDateTime hourStart = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        this.change(pending -> {
+            eventIds.forEach(eventId -> pending.hour(eventId, hourStart).add(0, 1, 0));
+            places.forEach(place -> pending.day(place.day(), place.location()).add(0, 0, (int) -place.events()));
+        });
+    }
+
+    public void eventCreated(Event event) {
+        this.change(pending -> pending.day(dayOf(event), event.getLocation()).add(1, event.getMaxParticipants(), 0));
+    }
+
+    //call before the event is deleted, its registrations are still counted then
+    public void eventDeleted(Event event) {
+        this.change(pending -> {
+            int registrations = this.countRegistrations(event.getId(), pending);
+            pending.day(dayOf(event), event.getLocation()).add(-1, -event.getMaxParticipants(), -registrations);
+            pending.hours.keySet().removeIf(key -> key.eventId().equals(event.getId()));
+            pending.deletedEvents.add(event.getId());
+        });
+    }
+
+    //the event already has its new date or location, the previous ones are given
+    public void eventMoved(Event event, LocalDateTime previousDate, String previousLocation) {
+        LocalDate previousDay = previousDate.toLocalDate();
+        if (previousDay.equals(dayOf(event)) && Objects.equals(previousLocation, event.getLocation())) return;
+
+        this.change(pending -> {
+            int registrations = this.countRegistrations(event.getId(), pending);
+            pending.day(previousDay, previousLocation).add(-1, -event.getMaxParticipants(), -registrations);
+            pending.day(dayOf(event), event.getLocation()).add(1, event.getMaxParticipants(), registrations);
+        });
+    }
+
+    public void capacityChanged(Event event, int capacityDelta) {
+        if (capacityDelta == 0) return;
+        this.change(pending -> pending.day(dayOf(event), event.getLocation()).add(0, capacityDelta, 0));
+    }
+
+    //backfill and repair, recomputes both rollups from the rows; cancellations before the rebuild are lost
+    @Transactional
+    public void rebuild() {
+        registrationRollupRepository.deleteAllRows();
+        eventDayOccupancyRepository.deleteAllRows();
+        int hours = registrationRollupRepository.insertFromRegistrations();
+        int days = eventDayOccupancyRepository.insertFromEvents();
+        log.info("Rebuilt the occupancy rollups with {} event hours and {} event days", hours, days);
+    }
+
+    private void changeRegistrations(Event event, int registered, int cancelled) {
+        if (registered == 0 && cancelled == 0) return;
+        this.change(pending -> {
+            pending.hour(event.getId(), LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)).add(registered, cancelled, 0);
+            pending.day(dayOf(event), event.getLocation()).add(0, 0, registered - cancelled);
+        });
+    }
+
+    private int countRegistrations(UUID eventId, Pending pending) {
+        int pendingRegistrations = pending.hours.entrySet().stream()
+                .filter(entry -> entry.getKey().eventId().equals(eventId))
+                .mapToInt(entry -> entry.getValue().first - entry.getValue().second)
+                .sum();
+        return (int) registrationRollupRepository.countRegistrations(eventId) + pendingRegistrations;
+    }
+
+    //collected for the transaction and written before it commits, outside of one the change is written right away
+    private void change(Consumer<Pending> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Pending immediate = new Pending();
+            change.accept(immediate);
+            transactionTemplate.executeWithoutResult(status -> this.write(immediate));
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OccupancyRollupService.this);
+                }
+            });
+            pending = created;
+        }
+        change.accept(pending);
+    }
+
+    private void write(Pending pending) {
+        pending.deletedEvents.forEach(registrationRollupRepository::deleteAllByEventId);
+        //the same change of many events in one hour, as the cancellations of deleteAllByUserId, is written per chunk
+        Map<HourChange, List<UUID>> hourChanges = new LinkedHashMap<>();
+        pending.hours.forEach((key, delta) -> {
+            if (delta.isZero()) return;
+            hourChanges.computeIfAbsent(new HourChange(key.hourStart(), delta.first, delta.second), change -> new ArrayList<>())
+                    .add(key.eventId());
+        });
+        hourChanges.forEach((change, eventIds) -> {
+            for (int from = 0; from < eventIds.size(); from += WRITE_CHUNK_SIZE) {
+                this.writeHours(change, eventIds.subList(from, Math.min(from + WRITE_CHUNK_SIZE, eventIds.size())));
+            }
+        });
+        pending.days.forEach((key, delta) -> {
+            if (delta.isZero()) return;
+            short slot = this.slot();
+            if (onConflictEnabled) {
+                eventDayOccupancyRepository.upsert(key.day(), key.location(), slot, delta.first, delta.second, delta.third);
+                return;
+            }
+            this.updateOrInsert(() -> eventDayOccupancyRepository.add(key.day(), key.location(), slot, delta.first, delta.second, delta.third),
+                    INSERT_DAY, key.day(), key.location(), slot, delta.first, delta.second, delta.third);
+        });
+        pending.clear();
+    }
+
+    private void writeHours(HourChange change, List<UUID> eventIds) {
+        short slot = this.slot();
+        if (eventIds.size() == 1) {
+            UUID eventId = eventIds.getFirst();
+            if (onConflictEnabled) {
+                registrationRollupRepository.upsert(eventId, change.hourStart(), slot, change.registered(), change.cancelled());
+                return;
+            }
+            this.updateOrInsert(() -> registrationRollupRepository.add(eventId, change.hourStart(), slot, change.registered(), change.cancelled()),
+                    INSERT_HOUR, eventId, change.hourStart(), slot, change.registered(), change.cancelled());
+            return;
+        }
+        if (onConflictEnabled) {
+            registrationRollupRepository.upsertAll(eventIds, change.hourStart(), slot, change.registered(), change.cancelled());
+            return;
+        }
+        MapSqlParameterSource missing = new MapSqlParameterSource("eventIds", eventIds)
+                .addValue("hourStart", change.hourStart())
+                .addValue("slot", slot);
+        try {
+            namedParameterJdbcTemplate.update(INSERT_MISSING_HOURS, missing);
+        } catch (DuplicateKeyException exception) {
+            //one of the rows was inserted by another transaction meanwhile, it is seen now
+            namedParameterJdbcTemplate.update(INSERT_MISSING_HOURS, missing);
+        }
+        registrationRollupRepository.addAll(eventIds, change.hourStart(), slot, change.registered(), change.cancelled());
+    }
+
+    //the insert goes through JdbcTemplate on the connection of the transaction, a duplicate key fails the statement only
+    private void updateOrInsert(IntSupplier update, String insert, Object... row) {
+        if (update.getAsInt() > 0) return;
+        try {
+            jdbcTemplate.update(insert, row);
+        } catch (DuplicateKeyException exception) {
+            //inserted by another transaction meanwhile
+            update.getAsInt();
+        }
+    }
+
+    private short slot() {
+        return (short) ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    private static LocalDate dayOf(Event event) {
+        return event.getDate().toLocalDate();
+    }
+
+    private record HourKey(UUID eventId, LocalDateTime hourStart) {
+    }
+
+    private record HourChange(LocalDateTime hourStart, int registered, int cancelled) {
+    }
+
+    private record DayKey(LocalDate day, String location) {
+    }
+
+    private static final class Delta {
+        private int first;
+        private int second;
+        private int third;
+
+        void add(int first, int second, int third) {
+            this.first += first;
+            this.second += second;
+            this.third += third;
+        }
+
+        boolean isZero() {
+            return first == 0 && second == 0 && third == 0;
+        }
+    }
+
+    //sorted, every transaction locks the rollup rows in the same order
+    private static final class Pending {
+        private final Map<HourKey, Delta> hours = new TreeMap<>(Comparator.comparing(HourKey::eventId)
+                .thenComparing(HourKey::hourStart));
+        private final Map<DayKey, Delta> days = new TreeMap<>(Comparator.comparing(DayKey::day)
+                .thenComparing(DayKey::location, Comparator.nullsFirst(Comparator.naturalOrder())));
+        private final Set<UUID> deletedEvents = new TreeSet<>();
+
+        Delta hour(UUID eventId, LocalDateTime hourStart) {
+            return hours.computeIfAbsent(new HourKey(eventId, hourStart), key -> new Delta());
+        }
+
+        Delta day(LocalDate day, String location) {
+            return days.computeIfAbsent(new DayKey(day, location), key -> new Delta());
+        }
+
+        void clear() {
+            hours.clear();
+            days.clear();
+            deletedEvents.clear();
+        }
+    }
+}
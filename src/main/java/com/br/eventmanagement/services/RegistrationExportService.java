@@ -0,0 +1,87 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.registration.RegistrationExportRow;
+import com.br.eventmanagement.enums.RegistrationExportFormat;
+import com.br.eventmanagement.repositories.RegistrationRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/*
+ * Writes the registrations of an event straight from a forward-only result set to the response.
+ * Rows are flat projections read with a JDBC fetch size, so memory stays flat whatever the size of the event.
+ */
+@Service
+public class RegistrationExportService {
+    private static final String CSV_HEADER = "registrationId,userId,username,email,createdAt\n";
+
+    private final RegistrationRepository registrationRepository;
+    private final EventService eventService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public RegistrationExportService(RegistrationRepository registrationRepository,
+                                     EventService eventService,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.registrationRepository = registrationRepository;
+        this.eventService = eventService;
+        this.objectMapper = objectMapper;
+        //the cursor only streams inside a transaction, Postgres ignores the fetch size in autocommit mode
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportByEventId(UUID eventId, RegistrationExportFormat format) {
+        //checked before anything is written, the status can't change once the body started
+        eventService.getById(eventId);
+        return outputStream -> this.write(eventId, format, outputStream);
+    }
+
+    void write(UUID eventId, RegistrationExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<RegistrationExportRow> rows = registrationRepository.streamExportRowsByEventId(eventId)) {
+                    if (format == RegistrationExportFormat.CSV) writer.write(CSV_HEADER);
+                    for (RegistrationExportRow row : (Iterable<RegistrationExportRow>) rows::iterator) {
+                        writer.write(format == RegistrationExportFormat.CSV ? this.toCsv(row) : this.toJson(row));
+                    }
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+        writer.flush();
+    }
+
+    private String toJson(RegistrationExportRow row) {
+        return objectMapper.writeValueAsString(row) + "\n";
+    }
+
+    private String toCsv(RegistrationExportRow row) {
+        return String.join(",",
+                row.registrationId().toString(),
+                row.userId().toString(),
+                csvField(row.username()),
+                csvField(row.email()),
+                row.createdAt().toString()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
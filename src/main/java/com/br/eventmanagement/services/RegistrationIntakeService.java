@@ -0,0 +1,179 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.cache.LocalCache;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
+import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationTicketDto;
+import com.br.eventmanagement.enums.RegistrationTicketStatus;
+import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
+import com.br.eventmanagement.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ * Optional asynchronous intake for POST /registration (api.registration.async.enabled).
+ * Requests wait in a bounded queue and a worker drains it in micro-batches: every event of a batch is handled by
+ * RegistrationService.createBatch on its own virtual thread, that is one transaction and one seat reservation per event.
+ * Outcomes are kept as tickets for a while, clients read them from GET /registration/ticket/{id}. Pending tickets are
+ * never evicted, there are at most as many as the queue and the batch in progress hold; only finished ones are dropped
+ * when the store is full.
+ */
+@Slf4j
+@Service
+public class RegistrationIntakeService implements MeterBinder {
+
+    private final RegistrationService registrationService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final BlockingQueue<RegistrationTicketDto> queue;
+    private final Map<UUID, RegistrationTicketDto> pending = new ConcurrentHashMap<>();
+    private final LocalCache<UUID, RegistrationTicketDto> tickets;
+
+    private final LongAdder rejected = new LongAdder();
+    private volatile DistributionSummary batchSizes;
+    private Thread worker;
+
+    public RegistrationIntakeService(RegistrationService registrationService,
+                                     @Value("${api.registration.async.enabled:false}") boolean enabled,
+                                     @Value("${api.registration.async.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${api.registration.async.max-batch-size:500}") int maxBatchSize,
+                                     @Value("${api.registration.async.ticket-ttl:10m}") Duration ticketTtl) {
+        this.registrationService = registrationService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        //finished tickets still waiting to be read
+        this.tickets = new LocalCache<>("registration-tickets", queueCapacity * 10, ticketTtl);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        worker = Thread.ofVirtual().name("registration-intake").start(this::drainForever);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (worker != null) worker.interrupt();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RegistrationTicketDto submit(RegistrationCreateDto createDto) {
+        RegistrationTicketDto ticket = new RegistrationTicketDto(UUID.randomUUID(), createDto.userId(),
+                createDto.eventId(), RegistrationTicketStatus.PENDING, null, null);
+        pending.put(ticket.ticketId(), ticket);
+
+        if (!queue.offer(ticket)) {
+            pending.remove(ticket.ticketId());
+            rejected.increment();
+            throw new TooManyRequestsException("Too many registrations in progress, try again later");
+        }
+        return ticket;
+    }
+
+    public RegistrationTicketDto getTicket(UUID ticketId) {
+        RegistrationTicketDto ticket = pending.get(ticketId);
+        if (ticket == null) ticket = tickets.getIfPresent(ticketId);
+        if (ticket == null) throw new EntityNotFoundException("Ticket not found");
+        return ticket;
+    }
+
+    private void drainForever() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<RegistrationTicketDto> batch = new ArrayList<>();
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+                this.process(batch);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException exception) {
+                log.error("Registration intake batch failed", exception);
+            }
+        }
+    }
+
+    void process(List<RegistrationTicketDto> batch) {
+        if (batchSizes != null) batchSizes.record(batch.size());
+
+        Map<UUID, List<RegistrationTicketDto>> byEvent = batch.stream()
+                .collect(Collectors.groupingBy(RegistrationTicketDto::eventId, LinkedHashMap::new, Collectors.toList()));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            byEvent.forEach((eventId, eventTickets) -> executor.submit(() -> this.processEvent(eventId, eventTickets)));
+        }
+    }
+
+    private void processEvent(UUID eventId, List<RegistrationTicketDto> eventTickets) {
+        List<UUID> userIds = eventTickets.stream().map(RegistrationTicketDto::userId).toList();
+        Map<UUID, RegistrationBatchResultDto> results;
+        try {
+            results = registrationService.createBatch(new RegistrationBatchCreateDto(eventId, userIds)).stream()
+                    .collect(Collectors.toMap(RegistrationBatchResultDto::userId, Function.identity()));
+        } catch (EntityNotFoundException | EntityAlreadyExistsException exception) {
+            eventTickets.forEach(ticket -> this.complete(ticket.complete(RegistrationTicketStatus.FAILED, null, exception.getMessage())));
+            return;
+        } catch (RuntimeException exception) {
+            log.warn("Could not register {} users to event {}", userIds.size(), eventId, exception);
+            eventTickets.forEach(ticket -> this.complete(ticket.complete(RegistrationTicketStatus.FAILED, null,
+                    "Could not process the registration, try again")));
+            return;
+        }
+
+        //the same user queued twice only gets the result once, the later tickets repeat how the first one ended
+        Map<UUID, RegistrationTicketDto> answered = new HashMap<>();
+        for (RegistrationTicketDto ticket : eventTickets) {
+            RegistrationTicketDto first = answered.get(ticket.userId());
+            if (first == null) {
+                RegistrationBatchResultDto result = results.get(ticket.userId());
+                RegistrationTicketDto done = ticket.complete(RegistrationTicketStatus.valueOf(result.status().name()), result.registrationId(), null);
+                answered.put(ticket.userId(), done);
+                this.complete(done);
+            } else if (first.status() == RegistrationTicketStatus.CREATED) {
+                this.complete(ticket.complete(RegistrationTicketStatus.DUPLICATE, null, "This user is already registered"));
+            } else {
+                this.complete(ticket.complete(first.status(), null, first.message()));
+            }
+        }
+    }
+
+    //stored as finished before it stops being pending, so a poll in between still finds it
+    private void complete(RegistrationTicketDto ticket) {
+        tickets.put(ticket.ticketId(), ticket);
+        pending.remove(ticket.ticketId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("registration.intake.queue.depth", queue, Collection::size)
+                .register(registry);
+        FunctionCounter.builder("registration.intake.rejected", rejected, LongAdder::sum)
+                .register(registry);
+        batchSizes = DistributionSummary.builder("registration.intake.batch.size")
+                .register(registry);
+        tickets.bindTo(registry);
+    }
+}
@@ -1,94 +1,222 @@
 package com.br.eventmanagement.services;
 
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
 import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationStampDto;
+import com.br.eventmanagement.dtos.registration.RegistrationView;
 import com.br.eventmanagement.entity.Event;
 import com.br.eventmanagement.entity.Registration;
 import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.entity.WaitlistEntry;
+import com.br.eventmanagement.enums.RegistrationBatchStatus;
 import com.br.eventmanagement.exceptions.BadRequestException;
 import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
 import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.WaitlistEntryRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class RegistrationService {
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     private final RegistrationRepository registrationRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
     private final EventService eventService;
     private final UserService userService;
+    private final OccupancyRollupService occupancyRollupService;
 
+    @Transactional(readOnly = true)
     public Registration getById(UUID registrationId){
         return registrationRepository.findById(registrationId)
                 .orElseThrow(() -> new EntityNotFoundException("Registration not found"));
     }
 
-    public List<Registration> listAll(){
-        return registrationRepository.findAll();
+    @Transactional(readOnly = true)
+    public RegistrationView getViewById(UUID registrationId){
+        return registrationRepository.findViewById(registrationId)
+                .orElseThrow(() -> new EntityNotFoundException("Registration not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public List<RegistrationView> listAll(){
+        return registrationRepository.findAllViews();
     }
 
-    public List<Registration> findAllByUserId(UUID userId){
+    @Transactional(readOnly = true)
+    public List<RegistrationView> findAllByUserId(UUID userId){
         userService.getById(userId);
-        return registrationRepository.findAllByUserId(userId);
+        return registrationRepository.findAllViewsByUserId(userId);
     }
 
-    public List<Registration> findAllByEventId(UUID eventId){
+    @Transactional(readOnly = true)
+    public List<RegistrationView> findAllByEventId(UUID eventId){
         eventService.getById(eventId);
-        return registrationRepository.findAllByEventId(eventId);
+        return registrationRepository.findAllViewsByEventId(eventId);
+    }
+
+    //seat updates bump the event version, count and newest registration also cover hot events and promotions
+    @Transactional(readOnly = true)
+    public String registrationsEtag(UUID eventId){
+        Event event = eventService.getById(eventId);
+        RegistrationStampDto stamp = registrationRepository.findStampByEventId(eventId);
+        return eventId + "-" + event.getVersion() + "-" + stamp.registrations() + "-" + stamp.lastCreatedAt();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<RegistrationView> listAll(PageQuery page){
+        Cursor after = page.after();
+        return CursorPageDto.of(registrationRepository.findPage(after.position(), after.id(), page.fetchLimit()),
+                page.limit(), RegistrationService::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<RegistrationView> findAllByUserId(UUID userId, PageQuery page){
+        userService.getById(userId);
+        Cursor after = page.after();
+        return CursorPageDto.of(registrationRepository.findPageByUserId(userId, after.position(), after.id(), page.fetchLimit()),
+                page.limit(), RegistrationService::cursorOf);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<RegistrationView> findAllByEventId(UUID eventId, PageQuery page){
+        eventService.getById(eventId);
+        Cursor after = page.after();
+        return CursorPageDto.of(registrationRepository.findPageByEventId(eventId, after.position(), after.id(), page.fetchLimit()),
+                page.limit(), RegistrationService::cursorOf);
+    }
+
+    private static Cursor cursorOf(RegistrationView registration){
+        return new Cursor(registration.createdAt(), registration.id());
     }
 
     @Transactional
     public Registration create(RegistrationCreateDto createDto){
-        if(registrationRepository.existsRegistrationByUserIdAndEventId(createDto.userId(), createDto.eventId())){
+        //one conditional update claims the spot, the unique (event_id, user_id) constraint catches duplicates
+        eventService.reserveSpot(createDto.eventId());
+
+        User user = userService.getById(createDto.userId());
+        Event event = eventService.getById(createDto.eventId());
+        Registration registration;
+        try {
+            registration = registrationRepository.saveAndFlush(new Registration(user, event));
+        } catch (DataIntegrityViolationException exception){
             throw new EntityAlreadyExistsException("This user is already registered");
         }
+        occupancyRollupService.registered(event, 1);
+        return registration;
+    }
 
-        if(!eventService.isAvailableFreeSpot(createDto.eventId())){
-            throw new BadRequestException("There is no spot available in this event");
+    @Transactional
+    public List<RegistrationBatchResultDto> createBatch(RegistrationBatchCreateDto batchDto){
+        Event event = eventService.getById(batchDto.eventId());
+        List<UUID> userIds = batchDto.userIds().stream().distinct().toList();
+
+        Map<UUID, User> users = userService.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Set<UUID> alreadyRegistered = registrationRepository.findRegisteredUserIds(event.getId(), userIds);
+        List<UUID> candidates = userIds.stream()
+                .filter(userId -> users.containsKey(userId) && !alreadyRegistered.contains(userId))
+                .toList();
+
+        //one reservation for the whole batch, the first candidates get the spots when there aren't enough
+        int reserved = candidates.isEmpty() ? 0 : eventService.reserveSpots(event.getId(), candidates.size());
+        List<Registration> registrations = candidates.subList(0, reserved).stream()
+                .map(userId -> new Registration(users.get(userId), event))
+                .toList();
+        Map<UUID, UUID> registrationIds;
+        try {
+            registrationIds = registrationRepository.saveAllAndFlush(registrations).stream()
+                    .collect(Collectors.toMap(registration -> registration.getUser().getId(), Registration::getId));
+        } catch (DataIntegrityViolationException exception){
+            throw new EntityAlreadyExistsException("A user of this batch was registered concurrently, try again");
+        }
+        occupancyRollupService.registered(event, registrationIds.size());
+
+        return userIds.stream().map(userId -> {
+            if(!users.containsKey(userId)) return new RegistrationBatchResultDto(userId, RegistrationBatchStatus.UNKNOWN_USER, null);
+            if(alreadyRegistered.contains(userId)) return new RegistrationBatchResultDto(userId, RegistrationBatchStatus.DUPLICATE, null);
+            if(!registrationIds.containsKey(userId)) return new RegistrationBatchResultDto(userId, RegistrationBatchStatus.NO_CAPACITY, null);
+            return new RegistrationBatchResultDto(userId, RegistrationBatchStatus.CREATED, registrationIds.get(userId));
+        }).toList();
+    }
+
+    //the entry is promoted to a registration by EventService.releaseSpots once a seat frees up
+    @Transactional
+    public WaitlistEntry joinWaitlist(RegistrationCreateDto createDto){
+        if(eventService.isAvailableFreeSpot(createDto.eventId())){
+            throw new BadRequestException("There are spots available in this event, register instead");
+        }
+        if(registrationRepository.existsRegistrationByUserIdAndEventId(createDto.userId(), createDto.eventId())){
+            throw new EntityAlreadyExistsException("This user is already registered");
         }
 
-        Event event = eventService.getById(createDto.eventId());
-        event.setRegisteredParticipants(event.getRegisteredParticipants() + 1);
         User user = userService.getById(createDto.userId());
-        return registrationRepository.save(new Registration(user, event));
+        Event event = eventService.getById(createDto.eventId());
+        try {
+            return waitlistEntryRepository.saveAndFlush(new WaitlistEntry(user, event));
+        } catch (DataIntegrityViolationException exception){
+            throw new EntityAlreadyExistsException("This user is already on the waitlist");
+        }
+    }
 
+    @Transactional
+    public void leaveWaitlist(UUID userId, UUID eventId){
+        if(waitlistEntryRepository.deleteByUserIdAndEventId(userId, eventId) == 0){
+            throw new EntityNotFoundException("This user is not on the waitlist of this event");
+        }
     }
 
     @Transactional
     public void deleteByUserIdAndEventId(UUID userId, UUID eventId){
-        Registration registration = registrationRepository.findByUserIdAndEventId(userId, eventId)
-                .orElseThrow(() -> new EntityNotFoundException("There is no registration of this user to this event"));
-
-        registrationRepository.delete(registration);
+        if(registrationRepository.deleteByUserIdAndEventId(userId, eventId) == 0){
+            throw new EntityNotFoundException("There is no registration of this user to this event");
+        }
+        eventService.releaseSpots(eventId, 1);
+        occupancyRollupService.cancelled(eventService.getById(eventId), 1);
     }
 
     @Transactional
     public void deleteAllByUserId(UUID userId){
-        List<Registration> allByUserId = this.findAllByUserId(userId);
-        if(allByUserId.isEmpty()) return; //just to return if is empty, but the 'for' already does it (better to read)
+        userService.getById(userId);
 
-        for(Registration currentRegister : allByUserId){
-            registrationRepository.delete(currentRegister);
-            currentRegister.getEvent().setRegisteredParticipants
-                    (currentRegister.getEvent().getRegisteredParticipants() - 1);
+        //only the locked rows are deleted, a registration created meanwhile keeps its spot
+        List<UUID> eventIds = registrationRepository.lockEventIdsByUserId(userId);
+        for(int from = 0; from < eventIds.size(); from += DELETE_CHUNK_SIZE){
+            List<UUID> chunk = eventIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, eventIds.size()));
+            registrationRepository.deleteAllByUserIdAndEventIdIn(userId, chunk);
+            eventService.releaseOneSpotOfEach(chunk);
+            occupancyRollupService.cancelledOneOfEach(chunk);
         }
     }
 
     @Transactional
     public void deleteAllByEventId(UUID eventId){
-        Event event = eventService.getById(eventId);
-        registrationRepository.deleteAllByEventId(eventId);
-        event.setRegisteredParticipants(0);
+        eventService.resetSpots(eventId);
+        long deleted = registrationRepository.deleteAllByEventId(eventId);
+        occupancyRollupService.cancelled(eventService.getById(eventId), (int) deleted);
     }
 
     @Transactional
     public void deleteById(UUID registrationId){
         Registration registration = this.getById(registrationId);
-        registration.getEvent().setRegisteredParticipants(registration.getEvent().getRegisteredParticipants() - 1);
         registrationRepository.delete(registration);
+        eventService.releaseSpots(registration.getEvent().getId(), 1);
+        occupancyRollupService.cancelled(registration.getEvent(), 1);
     }
 }
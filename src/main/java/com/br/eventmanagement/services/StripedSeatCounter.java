@@ -0,0 +1,74 @@
+package com.br.eventmanagement.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Seats left of one event split across several stripes, so concurrent requests CAS on different cache lines
+ * instead of all fighting for one counter. A request starts on a random stripe and moves on when it is empty.
+ */
+final class StripedSeatCounter {
+
+    private final AtomicInteger[] stripes;
+    private final AtomicInteger debt = new AtomicInteger();
+
+    StripedSeatCounter(int seats, int stripeCount) {
+        this.stripes = new AtomicInteger[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicInteger(seats / stripeCount + (i < seats % stripeCount ? 1 : 0));
+        }
+    }
+
+    boolean tryAcquire() {
+        int start = ThreadLocalRandom.current().nextInt(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            AtomicInteger stripe = stripes[(start + i) % stripes.length];
+            int current = stripe.get();
+            while (current > 0) {
+                if (stripe.compareAndSet(current, current - 1)) return true;
+                current = stripe.get();
+            }
+        }
+        return false;
+    }
+
+    //also used with negative values when the capacity shrinks
+    void release(int seats) {
+        if (seats < 0) {
+            this.take(-seats);
+            return;
+        }
+        int left = seats;
+        //seats a shrink could not take, because they were already handed out, are paid back first
+        while (left > 0) {
+            int owed = debt.get();
+            if (owed == 0) break;
+            int paid = Math.min(owed, left);
+            if (debt.compareAndSet(owed, owed - paid)) left -= paid;
+        }
+        if (left > 0) stripes[ThreadLocalRandom.current().nextInt(stripes.length)].addAndGet(left);
+    }
+
+    //takes the seats from every stripe in turn, one stripe alone may not hold them and the others would keep handing out
+    private void take(int seats) {
+        int left = seats;
+        for (int i = 0; i < stripes.length && left > 0; i++) {
+            AtomicInteger stripe = stripes[i];
+            int current = stripe.get();
+            while (left > 0 && current > 0) {
+                int taken = Math.min(current, left);
+                if (stripe.compareAndSet(current, current - taken)) left -= taken;
+                current = stripe.get();
+            }
+        }
+        if (left > 0) debt.addAndGet(left);
+    }
+
+    int available() {
+        int total = -debt.get();
+        for (AtomicInteger stripe : stripes) {
+            total += stripe.get();
+        }
+        return Math.max(total, 0);
+    }
+}
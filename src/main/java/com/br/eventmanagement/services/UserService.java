@@ -1,5 +1,6 @@
 package com.br.eventmanagement.services;
 
+import com.br.eventmanagement.cache.LocalCache;
 import com.br.eventmanagement.dtos.authentication.ChangePasswordDto;
 import com.br.eventmanagement.dtos.authentication.RegisterDto;
 import com.br.eventmanagement.entity.User;
@@ -7,8 +8,10 @@ import com.br.eventmanagement.enums.UserRole;
 import com.br.eventmanagement.exceptions.BadRequestException;
 import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
 import com.br.eventmanagement.repositories.UserRepository;
+import com.br.eventmanagement.security.TokenPrincipal;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,7 +20,11 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -26,10 +33,11 @@ public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LocalCache<String, UserDetails> principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserDetails user = userRepository.findByUsername(username);
+        UserDetails user = principalCache.get(username, userRepository::findByUsername);
         if (user == null) {
             throw new UsernameNotFoundException("User not found: " + username);
         }
@@ -40,6 +48,10 @@ public class UserService implements UserDetailsService {
         return userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("User not found"));
     }
 
+    public List<User> findAllById(Collection<UUID> ids){
+        return userRepository.findAllById(ids);
+    }
+
     @Transactional
     public User register(RegisterDto registerDto){
         if(userRepository.findByUsername(registerDto.username())!= null) {
@@ -55,19 +67,44 @@ public class UserService implements UserDetailsService {
 
     @Transactional
     public void changePassword(ChangePasswordDto changePasswordDto){
-        User currentUser = this.getCurrentUser();
+        //the principal may be the shared cached one, the change goes to a row loaded in this transaction
+        User currentUser = this.getById(this.getCurrentUser().getId());
 
         if(passwordEncoder.matches(changePasswordDto.oldPassword(), currentUser.getPassword())){
             currentUser.setPassword(passwordEncoder.encode(changePasswordDto.newPassword()));
+            currentUser.setCredentialVersion(currentUser.getCredentialVersion() + 1);
             userRepository.save(currentUser);
+            this.evictPrincipal(currentUser.getUsername());
             return;
         }
         throw new BadRequestException("Error while verifying the passwords");
     }
 
+    //must be called by anything that changes the credentials or the role of a user; evicted once the change is
+    //committed, a login in between would otherwise cache the old password and credential version again
+    public void evictPrincipal(String username){
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            principalCache.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                principalCache.invalidate(username);
+            }
+        });
+    }
+
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        if (authentication != null && authentication.getPrincipal() instanceof TokenPrincipal tokenPrincipal) {
+            User user = this.getById(tokenPrincipal.id());
+            if (user.getCredentialVersion() != tokenPrincipal.credentialVersion()) {
+                throw new CredentialsExpiredException("The credentials of this token are outdated");
+            }
+            return user;
+        }
         if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
             return (User) userDetails;
         }
@@ -0,0 +1,47 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.entity.Registration;
+import com.br.eventmanagement.entity.WaitlistEntry;
+import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.WaitlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+ * Hands freed seats straight to the head of the event's waitlist.
+ * The seat changes hands inside the transaction that freed it, so the counters of the event don't move.
+ */
+@Service
+@RequiredArgsConstructor
+public class WaitlistService {
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final RegistrationRepository registrationRepository;
+    private final OccupancyRollupService occupancyRollupService;
+
+    //returns how many of the seats were given away, the caller releases the rest
+    @Transactional
+    public int promote(UUID eventId, int seats){
+        if(seats <= 0) return 0;
+
+        List<WaitlistEntry> head = waitlistEntryRepository.lockHead(eventId, Limit.of(seats));
+        if(head.isEmpty()) return 0;
+
+        registrationRepository.saveAll(head.stream()
+                .map(entry -> new Registration(entry.getUser(), entry.getEvent()))
+                .toList());
+        waitlistEntryRepository.deleteAllInBatch(head);
+        occupancyRollupService.registered(head.getFirst().getEvent(), head.size());
+        return head.size();
+    }
+
+    public Set<UUID> findEventIdsWithWaitlist(Collection<UUID> eventIds){
+        return waitlistEntryRepository.findEventIdsWithEntries(eventIds);
+    }
+}
@@ -0,0 +1,10 @@
+-- per row version, bumped by every entity update and by the seat updates in EventRepository
+alter table event add column version bigint not null default 0;
+
+-- bumped when rows are created or deleted, a change no row version can show
+create table table_version (
+    table_name varchar(50) primary key,
+    version bigint not null
+);
+
+insert into table_version (table_name, version) values ('event', 0);
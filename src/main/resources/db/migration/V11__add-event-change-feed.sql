@@ -0,0 +1,18 @@
+-- position of the last change of each event in the change feed (GET /event/changes)
+create sequence event_change_seq;
+
+alter table event add column change_seq bigint;
+update event set change_seq = nextval('event_change_seq');
+alter table event alter column change_seq set not null;
+alter table event alter column change_seq set default nextval('event_change_seq');
+
+create unique index idx_event_change_seq on event (change_seq);
+
+-- deleted events stay in the feed, numbered from the same sequence
+create table event_tombstone (
+    event_id uuid primary key,
+    change_seq bigint not null default nextval('event_change_seq'),
+    deleted_at timestamp not null
+);
+
+create unique index idx_event_tombstone_change_seq on event_tombstone (change_seq);
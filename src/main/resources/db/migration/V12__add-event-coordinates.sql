@@ -0,0 +1,17 @@
+alter table event add column latitude double precision;
+alter table event add column longitude double precision;
+
+-- 0.1 degree cell of the coordinates numbered row by row (GeoGrid), null without coordinates
+alter table event add column grid_cell bigint;
+
+create index idx_event_grid_cell on event (grid_cell);
+
+-- where PostGIS is installed, api.geo.postgis.enabled answers GET /event/nearby from this index instead;
+-- installing it needs a superuser, so CREATE EXTENSION is left to the DBA (see README)
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'postgis') then
+        create index idx_event_geography on event using gist (geography(ST_MakePoint(longitude, latitude)));
+    end if;
+end
+$$;
@@ -0,0 +1,34 @@
+-- registrations and cancellations of every event per hour (GET /stats/occupancy/{eventId})
+-- every key is spread over a few slots, so concurrent registrations of one event don't queue on a single row
+create table registration_rollup (
+    event_id uuid not null,
+    hour_start timestamp not null,
+    slot smallint not null,
+    registered integer not null default 0,
+    cancelled integer not null default 0,
+    primary key (event_id, hour_start, slot),
+    foreign key (event_id) references event(id) on delete cascade
+);
+
+-- events, seats and registrations per event day and location (GET /stats/occupancy), same slots
+create table event_day_occupancy (
+    event_day date not null,
+    location text not null,
+    slot smallint not null,
+    events integer not null default 0,
+    capacity integer not null default 0,
+    registered integer not null default 0,
+    primary key (event_day, location, slot)
+);
+
+-- backfill, the registrations deleted before this migration are not known anymore
+insert into registration_rollup (event_id, hour_start, slot, registered, cancelled)
+select event_id, date_trunc('hour', created_at), 0, count(*), 0
+from registration
+group by event_id, date_trunc('hour', created_at);
+
+insert into event_day_occupancy (event_day, location, slot, events, capacity, registered)
+select cast(e.date as date), e.location, 0, count(*), sum(e.max_participants), coalesce(sum(r.registrations), 0)
+from event e
+left join (select event_id, count(*) as registrations from registration group by event_id) r on r.event_id = e.id
+group by cast(e.date as date), e.location;
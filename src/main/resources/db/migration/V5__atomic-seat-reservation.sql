@@ -0,0 +1,14 @@
+-- keep the oldest registration when the same user was registered twice to the same event
+delete from registration r
+    using registration d
+    where r.event_id = d.event_id
+      and r.user_id = d.user_id
+      and (r.created_at, r.id) > (d.created_at, d.id);
+
+alter table registration add constraint uk_registration_event_user unique (event_id, user_id);
+
+-- the counter was not maintained by every delete path, rebuild it from the registrations
+update event set registered_participants = (select count(*) from registration r where r.event_id = event.id);
+
+alter table event alter column registered_participants set default 0;
+alter table event alter column registered_participants set not null;
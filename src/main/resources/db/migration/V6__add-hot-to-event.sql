@@ -0,0 +1 @@
+alter table event add column hot boolean not null default false;
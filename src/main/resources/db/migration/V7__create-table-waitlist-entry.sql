@@ -0,0 +1,12 @@
+create table waitlist_entry(
+    id uuid primary key,
+    event_id uuid not null,
+    user_id uuid not null,
+    created_at timestamp not null,
+    foreign key (event_id) references event(id) on delete cascade,
+    foreign key (user_id) references users(id) on delete cascade,
+    constraint uk_waitlist_event_user unique (event_id, user_id)
+);
+
+--the head of every queue is read in arrival order
+create index idx_waitlist_event_created_at on waitlist_entry(event_id, created_at, id);
@@ -0,0 +1,5 @@
+-- every keyset page is an index range scan starting right after the cursor
+create index idx_event_date_id on event(date, id);
+create index idx_registration_created_at_id on registration(created_at, id);
+create index idx_registration_user_created_at_id on registration(user_id, created_at, id);
+create index idx_registration_event_created_at_id on registration(event_id, created_at, id);
@@ -0,0 +1,14 @@
+-- ranked search behind /event/filter?q=, see EventRepository.searchRanked
+create extension if not exists pg_trgm;
+
+-- 'simple' keeps words as they are, titles and locations mix languages and place names
+alter table event add column search_vector tsvector generated always as (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(location, '')), 'B')
+) stored;
+
+create index idx_event_search_vector on event using gin(search_vector);
+
+-- typo tolerant matching (<%), these also serve the LIKE '%...%' filters
+create index idx_event_title_trgm on event using gin(title gin_trgm_ops);
+create index idx_event_location_trgm on event using gin(location gin_trgm_ops);
@@ -0,0 +1,108 @@
+package com.br.eventmanagement.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LocalCache Unit Tests")
+class LocalCacheTest {
+
+    @Test
+    @DisplayName("get() - Should call the loader only once while the entry is alive")
+    void get_shouldCallLoaderOnlyOnceWhileEntryIsAlive(){
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("allison", key -> "value-" + loads.incrementAndGet());
+        String result = cache.get("allison", key -> "value-" + loads.incrementAndGet());
+
+        assertEquals("value-1", result);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio());
+    }
+
+    @Test
+    @DisplayName("get() - Should add the time spent in the loader to the load time")
+    void get_shouldAddTimeSpentInLoaderToLoadTime(){
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, Duration.ofMinutes(1));
+
+        cache.get("allison", key -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return "value";
+        });
+        cache.get("allison", key -> "other");
+
+        assertTrue(cache.getTotalLoadTime().toMillis() >= 20);
+    }
+
+    @Test
+    @DisplayName("getIfPresent() - Should return null when the entry is missing or expired")
+    void getIfPresent_shouldReturnNullWhenEntryIsMissingOrExpired(){
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, Duration.ofMinutes(1));
+        LocalCache<String, String> expired = new LocalCache<>("test", 10, Duration.ZERO);
+        cache.put("allison", "value");
+        expired.put("allison", "value");
+
+        assertEquals("value", cache.getIfPresent("allison"));
+        assertNull(cache.getIfPresent("marques"));
+        assertNull(expired.getIfPresent("allison"));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("get() - Should load again when the entry is expired")
+    void get_shouldLoadAgainWhenEntryIsExpired(){
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("allison", key -> "value-" + loads.incrementAndGet());
+        String result = cache.get("allison", key -> "value-" + loads.incrementAndGet());
+
+        assertEquals("value-2", result);
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("get() - Should not cache null values")
+    void get_shouldNotCacheNullValues(){
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, Duration.ofMinutes(1));
+
+        assertNull(cache.get("unknown", key -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("put() - Should never grow past the maximum size")
+    void put_shouldNeverGrowPastMaximumSize(){
+        LocalCache<Integer, Integer> cache = new LocalCache<>("test", 100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(900, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("invalidate() - Should remove the entry and count the eviction")
+    void invalidate_shouldRemoveEntryAndCountEviction(){
+        LocalCache<String, String> cache = new LocalCache<>("test", 10, Duration.ofMinutes(1));
+        cache.put("allison", "value");
+
+        cache.invalidate("allison");
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+}
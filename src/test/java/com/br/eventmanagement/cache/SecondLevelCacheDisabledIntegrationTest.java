@@ -0,0 +1,33 @@
+package com.br.eventmanagement.cache;
+
+import com.br.eventmanagement.config.SecondLevelCacheConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "api.second-level-cache.enabled=false")
+@ActiveProfiles("test")
+@Import(SecondLevelCacheConfig.class)
+@DisplayName("Second-level cache disabled Integration Tests")
+class SecondLevelCacheDisabledIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Should create no cache region when the second-level cache is turned off")
+    void shouldCreateNoCacheRegionWhenSecondLevelCacheIsTurnedOff(){
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        assertFalse(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertFalse(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled());
+        assertTrue(sessionFactory.getCache().getCacheRegionNames().isEmpty());
+    }
+}
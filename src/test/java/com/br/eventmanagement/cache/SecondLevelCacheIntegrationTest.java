@@ -0,0 +1,151 @@
+package com.br.eventmanagement.cache;
+
+import com.br.eventmanagement.config.CacheConfig;
+import com.br.eventmanagement.config.SecondLevelCacheConfig;
+import com.br.eventmanagement.datasource.ReplicaLagGuard;
+import com.br.eventmanagement.dtos.event.EventCreateDto;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.RegistrationRollupRepository;
+import com.br.eventmanagement.repositories.UserRepository;
+import com.br.eventmanagement.services.EventService;
+import com.br.eventmanagement.services.EventSuggestService;
+import com.br.eventmanagement.services.HotEventSeatService;
+import com.br.eventmanagement.services.OccupancyRollupService;
+import com.br.eventmanagement.services.WaitlistService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.br.eventmanagement.repositories.SqlStatementCounter.assertStatements;
+import static org.junit.jupiter.api.Assertions.*;
+
+//every repository call runs in a session of its own, so only the second-level cache can spare the select
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SecondLevelCacheConfig.class, EntityCacheEvictor.class, EventService.class, HotEventSeatService.class,
+        WaitlistService.class, EventSuggestService.class, OccupancyRollupService.class, ReplicaLagGuard.class,
+        CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Second-level cache Integration Tests")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrationRollupRepository registrationRollupRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Event event;
+    private Event otherEvent;
+
+    @BeforeEach
+    void setUp(){
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LocalDateTime date = LocalDateTime.now().plusDays(10);
+        event = eventService.create(new EventCreateDto("Flash sale", "Sao Paulo, Brazil", date, 100, null, null));
+        otherEvent = eventService.create(new EventCreateDto("Book fair", "Recife, Brazil", date, 50, null, null));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown(){
+        registrationRollupRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("findById() - Should load the event from the second-level cache, where its insert put it")
+    void findById_shouldLoadEventFromSecondLevelCacheWhereItsInsertPutIt(){
+        Event cached = assertStatements(0, () -> eventRepository.findById(event.getId()).orElseThrow());
+
+        assertEquals("Flash sale", cached.getTitle());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("event").getHitCount());
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - Should evict only the event whose seats were updated")
+    void reserveSpot_shouldEvictOnlyEventWhoseSeatsWereUpdated(){
+        eventService.reserveSpot(event.getId());
+
+        Event updated = assertStatements(1, () -> eventRepository.findById(event.getId()).orElseThrow());
+        assertEquals(1, updated.getRegisteredParticipants());
+        assertStatements(0, () -> eventRepository.findById(otherEvent.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - Should read the seats from the database while the update is not committed")
+    void reserveSpot_shouldReadSeatsFromDatabaseWhileUpdateIsNotCommitted(){
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventService.reserveSpot(event.getId());
+            //another transaction, it must neither get the cached row nor put back the one it reads
+            Event concurrent = CompletableFuture.supplyAsync(() ->
+                    assertStatements(1, () -> eventRepository.findById(event.getId()).orElseThrow())).join();
+            assertEquals(0, concurrent.getRegisteredParticipants());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+    }
+
+    @Test
+    @DisplayName("deleteAllRows() - Should keep the cached events when a native statement writes another table")
+    void deleteAllRows_shouldKeepCachedEventsWhenNativeStatementWritesAnotherTable(){
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> registrationRollupRepository.deleteAllRows());
+
+        assertStatements(0, () -> eventRepository.findById(event.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("findByUsername() - Should answer from the query cache until the users table changes")
+    void findByUsername_shouldAnswerFromQueryCacheUntilUsersTableChanges(){
+        userRepository.save(new User("allison", "password", "allison@gmail.com"));
+        userRepository.findByUsername("allison");
+
+        assertStatements(0, () -> userRepository.findByUsername("allison"));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        userRepository.save(new User("marques", "password", "marques@gmail.com"));
+        assertStatements(1, () -> userRepository.findByUsername("allison"));
+    }
+
+    @Test
+    @DisplayName("findById() - Should miss on an event that is not cached yet")
+    void findById_shouldMissOnEventThatIsNotCachedYet(){
+        eventRepository.findById(UUID.randomUUID());
+
+        assertEquals(1, statistics.getDomainDataRegionStatistics("event").getMissCount());
+        assertEquals(0, statistics.getDomainDataRegionStatistics("event").getHitCount());
+    }
+}
@@ -65,6 +65,16 @@ class AuthenticationControllerTest {
                 .andExpect(jsonPath("$.token").value("token-jwt"));
     }
 
+    @Test
+    @DisplayName("refresh() - should return a new token when successful")
+    void refresh_shouldReturnNewTokenWhenSuccessful() throws Exception {
+        when(authenticationService.refresh()).thenReturn("refreshed-token-jwt");
+
+        mockMvc.perform(post("/auth/refresh"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("refreshed-token-jwt"));
+    }
+
     @Test
     @DisplayName("register() - should make register when successful")
     void register_shouldMakeRegisterWhenSuccessful() throws Exception {
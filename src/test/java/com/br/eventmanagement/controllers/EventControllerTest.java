@@ -1,9 +1,18 @@
 package com.br.eventmanagement.controllers;
 
 import com.br.eventmanagement.dtos.event.*;
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
 import com.br.eventmanagement.entity.Event;
 import com.br.eventmanagement.security.TokenService;
+import com.br.eventmanagement.services.EventAvailabilityStreamService;
+import com.br.eventmanagement.services.EventCatalogService;
+import com.br.eventmanagement.services.EventChangeFeedService;
+import com.br.eventmanagement.services.EventGeoService;
+import com.br.eventmanagement.services.EventSearchService;
 import com.br.eventmanagement.services.EventService;
+import com.br.eventmanagement.services.EventSuggestService;
 import com.br.eventmanagement.services.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,13 +21,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +53,24 @@ class EventControllerTest {
     @MockitoBean
     private EventService eventService;
 
+    @MockitoBean
+    private EventSearchService eventSearchService;
+
+    @MockitoBean
+    private EventCatalogService eventCatalogService;
+
+    @MockitoBean
+    private EventChangeFeedService eventChangeFeedService;
+
+    @MockitoBean
+    private EventAvailabilityStreamService eventAvailabilityStreamService;
+
+    @MockitoBean
+    private EventGeoService eventGeoService;
+
+    @MockitoBean
+    private EventSuggestService eventSuggestService;
+
     @MockitoBean
     private TokenService tokenService;
 
@@ -82,6 +114,29 @@ class EventControllerTest {
                 .andExpect(content().json(expectedJson));
     }
 
+    @Test
+    @DisplayName("listAll() - should return a page with its continuation token when a limit is given")
+    void listAll_shouldReturnPageWithContinuationTokenWhenLimitIsGiven() throws Exception {
+        String nextCursor = new Cursor(event.getDate(), event.getId()).encode();
+        when(eventService.listAll(any(PageQuery.class))).thenReturn(new CursorPageDto<>(List.of(event), nextCursor));
+
+        mockMvc.perform(get("/event").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(event.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value(nextCursor));
+
+        verify(eventService, times(1)).listAll(new PageQuery(Cursor.START, 1));
+    }
+
+    @Test
+    @DisplayName("listAll() - should return 400 when the cursor is invalid")
+    void listAll_shouldReturn400WhenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/event").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
+    }
+
     @Test
     @DisplayName("getById() - should get event by id when successful")
     void getById_shouldGetEventByIdWhenSuccessful() throws Exception {
@@ -94,6 +149,33 @@ class EventControllerTest {
                 .andExpect(content().json(expectedJson));
     }
 
+    @Test
+    @DisplayName("getById() - should return the version of the event as ETag and 304 when it still matches")
+    void getById_shouldReturn304WhenETagStillMatches() throws Exception {
+        event.setVersion(4L);
+        when(eventService.getById(event.getId())).thenReturn(event);
+        String etag = "\"" + event.getId() + "-4\"";
+
+        mockMvc.perform(get("/event/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        mockMvc.perform(get("/event/{id}", event.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("listAll() - should return 304 without reading the events when the ETag matches")
+    void listAll_shouldReturn304WithoutReadingEventsWhenETagMatches() throws Exception {
+        when(eventService.listEtag()).thenReturn("1-2-3");
+
+        mockMvc.perform(get("/event").header(HttpHeaders.IF_NONE_MATCH, "\"1-2-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(eventService, never()).listAll();
+    }
+
     @Test
     @DisplayName("getById() - should return 404 when event by id is not found")
     void getById_shouldReturn404WhenEventByIdIsNotFound() throws Exception {
@@ -103,6 +185,31 @@ class EventControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("getById() - should answer from the catalog without the database when it has the event")
+    void getById_shouldAnswerFromCatalogWhenItHasTheEvent() throws Exception{
+        when(eventCatalogService.find(event.getId())).thenReturn(Optional.of(event));
+
+        mockMvc.perform(get("/event/{id}", event.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(event)));
+
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    @DisplayName("listAll() - should answer from the catalog when it is serving")
+    void listAll_shouldAnswerFromCatalogWhenItIsServing() throws Exception{
+        when(eventCatalogService.isServing()).thenReturn(true);
+        when(eventCatalogService.listAll()).thenReturn(List.of(event, event2));
+
+        mockMvc.perform(get("/event"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(event, event2))));
+
+        verifyNoInteractions(eventService);
+    }
+
     @Test
     @DisplayName("findAllByDate() - should find all events by date when successful")
     void findAllByDate_shouldFindAllEventsByDateWhenSuccessful() throws Exception{
@@ -116,6 +223,91 @@ class EventControllerTest {
                 .andExpect(content().json(expectedJson));
     }
 
+    @Test
+    @DisplayName("findAllInRange() - should return a page of the events in the range when successful")
+    void findAllInRange_shouldReturnPageOfEventsInRangeWhenSuccessful() throws Exception{
+        LocalDate from = LocalDate.of(2026, 5, 1);
+        LocalDate to = LocalDate.of(2026, 6, 1);
+        when(eventService.findAllInRange(from, to, new PageQuery(Cursor.START, 50)))
+                .thenReturn(new CursorPageDto<>(List.of(event), null));
+
+        mockMvc.perform(get("/event/range").param("from", "2026-05-01").param("to", "2026-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(event.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("countByDay() - should return the event count of every day of the month when successful")
+    void countByDay_shouldReturnEventCountOfEveryDayOfMonthWhenSuccessful() throws Exception{
+        when(eventService.countByDay(YearMonth.of(2026, 5)))
+                .thenReturn(List.of(new EventDayCountDto(LocalDate.of(2026, 5, 1), 0),
+                        new EventDayCountDto(LocalDate.of(2026, 5, 2), 4)));
+
+        mockMvc.perform(get("/event/calendar").param("month", "2026-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].day").value("2026-05-02"))
+                .andExpect(jsonPath("$[1].events").value(4));
+    }
+
+    @Test
+    @DisplayName("changes() - should return the events changed and deleted since the cursor")
+    void changes_shouldReturnEventsChangedAndDeletedSinceCursor() throws Exception{
+        UUID deletedId = UUID.randomUUID();
+        when(eventChangeFeedService.changesSince("MTA", 50))
+                .thenReturn(new EventChangesDto(List.of(event), List.of(deletedId), "MTI", false));
+
+        mockMvc.perform(get("/event/changes").param("since", "MTA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed[0].id").value(event.getId().toString()))
+                .andExpect(jsonPath("$.deleted[0]").value(deletedId.toString()))
+                .andExpect(jsonPath("$.cursor").value("MTI"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("streamAvailability() - should open an event stream for the event")
+    void streamAvailability_shouldOpenEventStreamForEvent() throws Exception{
+        when(eventAvailabilityStreamService.subscribe(event.getId())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/event/{id}/availability/stream", event.getId()).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("streamAvailability() - should return 404 when the event is not found")
+    void streamAvailability_shouldReturn404WhenEventIsNotFound() throws Exception{
+        when(eventAvailabilityStreamService.subscribe(event.getId())).thenThrow(new EntityNotFoundException("Event not found"));
+
+        mockMvc.perform(get("/event/{id}/availability/stream", event.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("findNearby() - should return the events around the point with their distance")
+    void findNearby_shouldReturnEventsAroundPointWithTheirDistance() throws Exception{
+        when(eventGeoService.findNearby(-23.55, -46.63, 10, null, 50))
+                .thenReturn(new CursorPageDto<>(List.of(new EventDistanceDto(event, 1.5)), null));
+
+        mockMvc.perform(get("/event/nearby").param("lat", "-23.55").param("lon", "-46.63").param("radiusKm", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].event.id").value(event.getId().toString()))
+                .andExpect(jsonPath("$.items[0].distanceKm").value(1.5));
+    }
+
+    @Test
+    @DisplayName("suggest() - should return the suggestions for the prefix when successful")
+    void suggest_shouldReturnSuggestionsForPrefixWhenSuccessful() throws Exception {
+        when(eventSuggestService.suggest("gam", 5))
+                .thenReturn(List.of(new EventSuggestionDto("Game meeting", EventSuggestionDto.Field.TITLE, 50)));
+
+        mockMvc.perform(get("/event/suggest").param("prefix", "gam").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text").value("Game meeting"))
+                .andExpect(jsonPath("$[0].field").value("TITLE"))
+                .andExpect(jsonPath("$[0].popularity").value(50));
+    }
+
     @Test
     @DisplayName("isAvailableFreeSpot() - should verify if the spot is available when successful")
     void isAvailableFreeSpot_shouldVerifyIfTheSpotIsAvailableWhenSuccessful() throws Exception {
@@ -154,6 +346,21 @@ class EventControllerTest {
                 .andExpect(content().json(expectedJson));
     }
 
+    @Test
+    @DisplayName("searchEvents() - should run the ranked search when q is given")
+    void searchEvents_shouldRunRankedSearchWhenQIsGiven() throws Exception  {
+        when(eventSearchService.search("game meting", null, 20)).thenReturn(new CursorPageDto<>(List.of(event), "MjA"));
+
+        mockMvc.perform(get("/event/filter")
+                .param("q", "game meting")
+                .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(event.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").value("MjA"));
+
+        verifyNoInteractions(eventService);
+    }
+
     @Test
     @DisplayName("create() - should create a event when successful")
     void create_shouldCreateEventWhenSuccessful() throws Exception {
@@ -205,7 +412,7 @@ class EventControllerTest {
     @Test
     @DisplayName("updateLocation() - should update location when successful")
     void updateLocation_shouldUpdateLocationWhenSuccessful() throws Exception {
-        EventUpdateLocationDto eventUpdateLocationDto = new EventUpdateLocationDto("new location");
+        EventUpdateLocationDto eventUpdateLocationDto = new EventUpdateLocationDto("new location", null, null);
 
         doNothing().when(eventService).updateLocation(any(UUID.class), any(EventUpdateLocationDto.class));
 
@@ -218,7 +425,7 @@ class EventControllerTest {
     @Test
     @DisplayName("updateLocation() - should return 404 when event to update location is not found")
     void updateLocation_shouldReturn404WhenEventIsNotFound() throws Exception  {
-        EventUpdateLocationDto eventUpdateLocationDto = new EventUpdateLocationDto("new location");
+        EventUpdateLocationDto eventUpdateLocationDto = new EventUpdateLocationDto("new location", null, null);
 
         doThrow(new EntityNotFoundException("Event not found"))
                 .when(eventService).updateLocation(any(UUID.class), any(EventUpdateLocationDto.class));
@@ -1,13 +1,27 @@
 package com.br.eventmanagement.controllers;
 
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
 import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationTicketDto;
+import com.br.eventmanagement.dtos.registration.RegistrationView;
 import com.br.eventmanagement.entity.Event;
 import com.br.eventmanagement.entity.Registration;
 import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.entity.WaitlistEntry;
+import com.br.eventmanagement.enums.RegistrationBatchStatus;
+import com.br.eventmanagement.enums.RegistrationExportFormat;
+import com.br.eventmanagement.enums.RegistrationTicketStatus;
 import com.br.eventmanagement.enums.UserRole;
 import com.br.eventmanagement.exceptions.BadRequestException;
 import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
+import com.br.eventmanagement.exceptions.TooManyRequestsException;
 import com.br.eventmanagement.security.TokenService;
+import com.br.eventmanagement.services.RegistrationExportService;
+import com.br.eventmanagement.services.RegistrationIntakeService;
 import com.br.eventmanagement.services.RegistrationService;
 import com.br.eventmanagement.services.UserService;
 import jakarta.persistence.EntityNotFoundException;
@@ -17,9 +31,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
@@ -40,6 +56,12 @@ class RegistrationControllerTest {
     @MockitoBean
     private RegistrationService registrationService;
 
+    @MockitoBean
+    private RegistrationIntakeService registrationIntakeService;
+
+    @MockitoBean
+    private RegistrationExportService registrationExportService;
+
     //these two mocks are just to avoid security problems
     @MockitoBean
     private TokenService tokenService;
@@ -100,9 +122,10 @@ class RegistrationControllerTest {
     @Test
     @DisplayName("getById() - should getById a registration when successful")
     void getById_shouldGetByIdRegistrationWhenSuccessful() throws Exception{
-        String expectedJson = objectMapper.writeValueAsString(registration);
+        RegistrationView view = RegistrationView.from(registration);
+        String expectedJson = objectMapper.writeValueAsString(view);
 
-        when(registrationService.getById(registration.getId())).thenReturn(registration);
+        when(registrationService.getViewById(registration.getId())).thenReturn(view);
 
         mockMvc.perform(get("/registration/{id}", registration.getId() ))
                 .andExpect(status().isOk())
@@ -113,7 +136,7 @@ class RegistrationControllerTest {
     @DisplayName("getById() - should return 404 when a registration is not found")
     void getById_shouldReturn404WhenRegistrationIsNotFound() throws Exception{
         doThrow(new EntityNotFoundException("Registration not found"))
-                .when(registrationService).getById(registration.getId());
+                .when(registrationService).getViewById(registration.getId());
 
         mockMvc.perform(get("/registration/{id}", registration.getId() ))
                 .andExpect(status().isNotFound());
@@ -122,7 +145,7 @@ class RegistrationControllerTest {
     @Test
     @DisplayName("listAll() - should list all registrations when successful")
     void listAll_shouldListAllRegistrationsWhenSuccessful() throws Exception{
-        List<Registration> output = List.of(registration, registration2);
+        List<RegistrationView> output = List.of(RegistrationView.from(registration), RegistrationView.from(registration2));
         String expectedJson = objectMapper.writeValueAsString(output);
 
         when(registrationService.listAll()).thenReturn(output);
@@ -135,7 +158,7 @@ class RegistrationControllerTest {
     @Test
     @DisplayName("findAllByUserId() - should find all registrations by user id when successful")
     void findAllByUserId_shouldFindAllRegistrationByUserIdWhenSuccessful() throws Exception{
-        List<Registration> output = List.of(registration, registration2);
+        List<RegistrationView> output = List.of(RegistrationView.from(registration), RegistrationView.from(registration2));
         String expectedJson = objectMapper.writeValueAsString(output);
 
         when(registrationService.findAllByUserId(user.getId())).thenReturn(output);
@@ -145,10 +168,58 @@ class RegistrationControllerTest {
                 .andExpect(content().json(expectedJson));
     }
 
+    @Test
+    @DisplayName("findAllByUserId() - should return a page of registrations when a cursor is given")
+    void findAllByUserId_shouldReturnPageOfRegistrationsWhenCursorIsGiven() throws Exception{
+        Cursor cursor = new Cursor(registration.getCreatedAt(), registration.getId());
+        when(registrationService.findAllByUserId(user.getId(), new PageQuery(cursor, 50)))
+                .thenReturn(new CursorPageDto<>(List.of(RegistrationView.from(registration2)), null));
+
+        mockMvc.perform(get("/registration/user/{id}", user.getId()).param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(registration2.getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    @DisplayName("exportByEventId() - should stream the registrations as CSV when successful")
+    void exportByEventId_shouldStreamRegistrationsAsCsvWhenSuccessful() throws Exception{
+        when(registrationExportService.exportByEventId(event.getId(), RegistrationExportFormat.CSV))
+                .thenReturn(outputStream -> outputStream.write("registrationId,userId\n".getBytes()));
+
+        MvcResult result = mockMvc.perform(get("/registration/event/{id}/export", event.getId()).param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("registrationId,userId\n"));
+    }
+
+    @Test
+    @DisplayName("exportByEventId() - should return 400 when the format is not supported")
+    void exportByEventId_shouldReturn400WhenFormatIsNotSupported() throws Exception{
+        mockMvc.perform(get("/registration/event/{id}/export", event.getId()).param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(registrationExportService);
+    }
+
+    @Test
+    @DisplayName("exportByEventId() - should return 404 when the event is not found")
+    void exportByEventId_shouldReturn404WhenEventIsNotFound() throws Exception{
+        when(registrationExportService.exportByEventId(event.getId(), RegistrationExportFormat.NDJSON))
+                .thenThrow(new EntityNotFoundException("Event not found"));
+
+        mockMvc.perform(get("/registration/event/{id}/export", event.getId()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("findAllByEventId() - should find all registrations by event id when successful")
     void findAllByEventId_shouldFindAllRegistrationsByEventIdWhenSuccessful() throws Exception{
-        List<Registration> output = List.of(registration, registration2);
+        List<RegistrationView> output = List.of(RegistrationView.from(registration), RegistrationView.from(registration2));
         String expectedJson = objectMapper.writeValueAsString(output);
 
         when(registrationService.findAllByEventId(event.getId())).thenReturn(output);
@@ -158,6 +229,18 @@ class RegistrationControllerTest {
                 .andExpect(content().json(expectedJson));
     }
 
+    @Test
+    @DisplayName("findAllByEventId() - should return 304 without reading the registrations when the ETag matches")
+    void findAllByEventId_shouldReturn304WhenETagMatches() throws Exception{
+        when(registrationService.registrationsEtag(event.getId())).thenReturn("stamp-1");
+
+        mockMvc.perform(get("/registration/event/{id}", event.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"stamp-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"stamp-1\""));
+
+        verify(registrationService, never()).findAllByEventId(event.getId());
+    }
+
 
     @Test
     @DisplayName("create() - should create a registration when successful")
@@ -172,21 +255,100 @@ class RegistrationControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(registration.getId().toString()))
 
-                .andExpect(jsonPath("$.user.id").value(registration.getUser().getId().toString()))
-                .andExpect(jsonPath("$.user.username").value(registration.getUser().getUsername()))
-                .andExpect(jsonPath("$.user.email").value(registration.getUser().getEmail()))
+                .andExpect(jsonPath("$.userId").value(registration.getUser().getId().toString()))
+                .andExpect(jsonPath("$.username").value(registration.getUser().getUsername()))
+                .andExpect(jsonPath("$.eventId").value(registration.getEvent().getId().toString()))
+                .andExpect(jsonPath("$.eventTitle").value(registration.getEvent().getTitle()))
+                //the user and event entities are not serialized anymore
+                .andExpect(jsonPath("$.user").doesNotExist())
+                .andExpect(jsonPath("$.event").doesNotExist())
+                .andExpect(jsonPath("$.createdAt").value(registration.getCreatedAt().toString()));
 
-                .andExpect(jsonPath("$.event.id").value(registration.getEvent().getId().toString()))
-                .andExpect(jsonPath("$.event.title").value(registration.getEvent().getTitle()))
-                .andExpect(jsonPath("$.event.location").value(registration.getEvent().getLocation()))
-                .andExpect(jsonPath("$.event.maxParticipants").value(registration.getEvent()
-                        .getMaxParticipants().toString()))
-                .andExpect(jsonPath("$.event.registeredParticipants").value(registration.getEvent()
-                        .getRegisteredParticipants().toString()))
+    }
 
+    @Test
+    @DisplayName("create() - should return 202 with a ticket when the async intake is enabled")
+    void create_shouldReturn202WithTicketWhenAsyncIntakeIsEnabled() throws Exception {
+        RegistrationTicketDto ticket = new RegistrationTicketDto(UUID.randomUUID(), user.getId(), event.getId(),
+                RegistrationTicketStatus.PENDING, null, null);
+        when(registrationIntakeService.isEnabled()).thenReturn(true);
+        when(registrationIntakeService.submit(registrationDto)).thenReturn(ticket);
 
-                .andExpect(jsonPath("$.createdAt").value(registration.getCreatedAt().toString()));
+        mockMvc.perform(
+                        post("/registration")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(registrationDto))
+                )
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/registration/ticket/" + ticket.ticketId()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
 
+        verifyNoInteractions(registrationService);
+    }
+
+    @Test
+    @DisplayName("create() - should return 429 when the async intake queue is full")
+    void create_shouldReturn429WhenAsyncIntakeQueueIsFull() throws Exception {
+        when(registrationIntakeService.isEnabled()).thenReturn(true);
+        when(registrationIntakeService.submit(registrationDto))
+                .thenThrow(new TooManyRequestsException("Too many registrations in progress, try again later"));
+
+        mockMvc.perform(
+                        post("/registration")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(registrationDto))
+                )
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("getTicket() - should return the ticket when it exists")
+    void getTicket_shouldReturnTicketWhenItExists() throws Exception {
+        UUID registrationId = UUID.randomUUID();
+        RegistrationTicketDto ticket = new RegistrationTicketDto(UUID.randomUUID(), user.getId(), event.getId(),
+                RegistrationTicketStatus.CREATED, registrationId, null);
+        when(registrationIntakeService.getTicket(ticket.ticketId())).thenReturn(ticket);
+
+        mockMvc.perform(get("/registration/ticket/{id}", ticket.ticketId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CREATED"))
+                .andExpect(jsonPath("$.registrationId").value(registrationId.toString()));
+    }
+
+    @Test
+    @DisplayName("createBatch() - should return the result of every user when successful")
+    void createBatch_shouldReturnResultOfEveryUserWhenSuccessful() throws Exception {
+        RegistrationBatchCreateDto batchDto = new RegistrationBatchCreateDto(event.getId(), List.of(user.getId()));
+        List<RegistrationBatchResultDto> output = List.of(
+                new RegistrationBatchResultDto(user.getId(), RegistrationBatchStatus.CREATED, registration.getId()));
+
+        when(registrationService.createBatch(batchDto)).thenReturn(output);
+
+        mockMvc.perform(
+                        post("/registration/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batchDto))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value(user.getId().toString()))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].registrationId").value(registration.getId().toString()));
+    }
+
+    @Test
+    @DisplayName("createBatch() - should return 400 when the user list is empty")
+    void createBatch_shouldReturn400WhenUserListIsEmpty() throws Exception {
+        RegistrationBatchCreateDto batchDto = new RegistrationBatchCreateDto(event.getId(), List.of());
+
+        mockMvc.perform(
+                        post("/registration/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batchDto))
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(registrationService);
     }
 
     @Test
@@ -250,6 +412,37 @@ class RegistrationControllerTest {
 
     }
 
+    @Test
+    @DisplayName("joinWaitlist() - should put the user on the waitlist when successful")
+    void joinWaitlist_shouldPutUserOnWaitlistWhenSuccessful() throws Exception{
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .event(event)
+                .build();
+        when(registrationService.joinWaitlist(registrationDto)).thenReturn(entry);
+
+        mockMvc.perform(
+                        post("/registration/waitlist")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(registrationDto))
+                )
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(entry.getId().toString()))
+                .andExpect(jsonPath("$.userId").value(user.getId().toString()))
+                .andExpect(jsonPath("$.eventId").value(event.getId().toString()));
+    }
+
+    @Test
+    @DisplayName("leaveWaitlist() - should return 404 when the user is not on the waitlist")
+    void leaveWaitlist_shouldReturn404WhenUserIsNotOnWaitlist() throws Exception{
+        doThrow(new EntityNotFoundException("This user is not on the waitlist of this event")).when(registrationService)
+                .leaveWaitlist(user.getId(), event.getId());
+
+        mockMvc.perform(delete("/registration/waitlist/user/{userId}/event/{eventId}", user.getId(), event.getId()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("deleteAllByUserId() - should delete all registrations by user id when successful")
     void deleteAllByUserId_shouldDeleteAllRegistrationsByUserIdWhenSuccessful() throws Exception{
@@ -0,0 +1,101 @@
+package com.br.eventmanagement.controllers;
+
+import com.br.eventmanagement.dtos.stats.OccupancyDayDto;
+import com.br.eventmanagement.dtos.stats.OccupancyHourDto;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.security.TokenService;
+import com.br.eventmanagement.services.OccupancyRollupService;
+import com.br.eventmanagement.services.UserService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StatsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class StatsControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OccupancyRollupService occupancyRollupService;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    @DisplayName("findOccupancyByDay() - should return the occupancy of every day and location when successful")
+    void findOccupancyByDay_shouldReturnOccupancyOfEveryDayAndLocationWhenSuccessful() throws Exception {
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 4, 1);
+        when(occupancyRollupService.findByDay(from, to))
+                .thenReturn(List.of(new OccupancyDayDto(LocalDate.of(2026, 3, 15), "Sao Paulo", 2, 200, 50)));
+
+        mockMvc.perform(get("/stats/occupancy").param("from", "2026-03-01").param("to", "2026-04-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].day").value("2026-03-15"))
+                .andExpect(jsonPath("$[0].location").value("Sao Paulo"))
+                .andExpect(jsonPath("$[0].events").value(2))
+                .andExpect(jsonPath("$[0].occupancy").value(0.25));
+    }
+
+    @Test
+    @DisplayName("findOccupancyByDay() - should return 400 when the range is invalid")
+    void findOccupancyByDay_shouldReturn400WhenRangeIsInvalid() throws Exception {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        when(occupancyRollupService.findByDay(day, day)).thenThrow(new BadRequestException("The end of the range must be after its start"));
+
+        mockMvc.perform(get("/stats/occupancy").param("from", "2026-03-01").param("to", "2026-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("findOccupancyByHour() - should return the hourly registrations of the event when successful")
+    void findOccupancyByHour_shouldReturnHourlyRegistrationsOfEventWhenSuccessful() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(occupancyRollupService.findByHour(eventId))
+                .thenReturn(List.of(new OccupancyHourDto(LocalDateTime.of(2026, 3, 1, 10, 0), 5, 1, 4)));
+
+        mockMvc.perform(get("/stats/occupancy/{eventId}", eventId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].registered").value(5))
+                .andExpect(jsonPath("$[0].cancelled").value(1))
+                .andExpect(jsonPath("$[0].registrations").value(4));
+    }
+
+    @Test
+    @DisplayName("findOccupancyByHour() - should return 404 when the event is not found")
+    void findOccupancyByHour_shouldReturn404WhenEventIsNotFound() throws Exception {
+        UUID eventId = UUID.randomUUID();
+        when(occupancyRollupService.findByHour(eventId)).thenThrow(new EntityNotFoundException("Event not found"));
+
+        mockMvc.perform(get("/stats/occupancy/{eventId}", eventId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("rebuildOccupancy() - should rebuild the rollups and return 204")
+    void rebuildOccupancy_shouldRebuildRollupsAndReturn204() throws Exception {
+        mockMvc.perform(post("/stats/occupancy/rebuild"))
+                .andExpect(status().isNoContent());
+
+        verify(occupancyRollupService, times(1)).rebuild();
+    }
+}
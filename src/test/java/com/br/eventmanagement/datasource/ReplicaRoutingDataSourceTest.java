@@ -0,0 +1,182 @@
+package com.br.eventmanagement.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+//two separate H2 databases stand in for the primary and the replica, each one answers with its own name
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private final UUID eventId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown(){
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should send read-only transactions to the replica and everything else to the primary")
+    void shouldSendReadOnlyTransactionsToReplicaAndEverythingElseToPrimary(){
+        Routing routing = new Routing(new ReplicaLagGuard(true, Duration.ofMinutes(1)));
+
+        assertEquals("replica", routing.read(true));
+        assertEquals("primary", routing.read(false));
+        assertEquals("primary", routing.jdbcTemplate.queryForObject("SELECT name FROM source", String.class));
+    }
+
+    @Test
+    @DisplayName("Should read from the primary after a committed write of the same user only")
+    void shouldReadFromPrimaryAfterCommittedWriteOfSameUserOnly(){
+        ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(true, Duration.ofMinutes(1));
+        Routing routing = new Routing(replicaLagGuard);
+
+        this.signIn("allison");
+        assertFalse(replicaLagGuard.mayLag(eventId));
+        routing.write();
+
+        assertEquals("primary", routing.read(true));
+        assertTrue(replicaLagGuard.mayLag(eventId));
+        this.signIn("marques");
+        assertEquals("replica", routing.read(true));
+        assertFalse(replicaLagGuard.mayLag(eventId));
+    }
+
+    @Test
+    @DisplayName("Should keep reading from the replica after a rolled back write")
+    void shouldKeepReadingFromReplicaAfterRolledBackWrite(){
+        Routing routing = new Routing(new ReplicaLagGuard(true, Duration.ofMinutes(1)));
+        this.signIn("allison");
+
+        routing.transaction(false).executeWithoutResult(status -> {
+            routing.jdbcTemplate.update("UPDATE source SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", routing.read(true));
+    }
+
+    @Test
+    @DisplayName("Should go back to the replica once the lag has passed")
+    void shouldGoBackToReplicaOnceLagHasPassed() throws Exception {
+        ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(true, Duration.ofMillis(50));
+        Routing routing = new Routing(replicaLagGuard);
+        this.signIn("allison");
+        routing.write();
+        replicaLagGuard.changed(eventId);
+
+        Thread.sleep(100);
+
+        assertEquals("replica", routing.read(true));
+        assertFalse(replicaLagGuard.mayLag(eventId));
+    }
+
+    @Test
+    @DisplayName("Should keep every changed row on the primary until the lag has passed, however many there are")
+    void shouldKeepEveryChangedRowOnPrimaryUntilLagHasPassed(){
+        ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(true, Duration.ofMinutes(1));
+        List<UUID> eventIds = Stream.generate(UUID::randomUUID).limit(200_000).toList();
+
+        eventIds.forEach(replicaLagGuard::changed);
+
+        assertTrue(eventIds.stream().allMatch(replicaLagGuard::mayLag));
+    }
+
+    @Test
+    @DisplayName("Should never report a lag while the replica is disabled")
+    void shouldNeverReportLagWhileReplicaIsDisabled(){
+        ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(false, Duration.ofMinutes(1));
+        Routing routing = new Routing(replicaLagGuard);
+        this.signIn("allison");
+        routing.write();
+        replicaLagGuard.changed(eventId);
+
+        assertEquals("primary", routing.read(true));
+        assertFalse(replicaLagGuard.mayLag(eventId));
+    }
+
+    @Test
+    @DisplayName("Should keep what is read from the replica out of the second-level cache")
+    void shouldKeepWhatIsReadFromReplicaOutOfSecondLevelCache(){
+        Routing routing = new Routing(new ReplicaLagGuard(true, Duration.ofMinutes(1)));
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(session.isOpen()).thenReturn(true);
+
+        TransactionSynchronizationManager.bindResource("entityManagerFactory", new EntityManagerHolder(entityManager));
+        try {
+            assertEquals("replica", routing.read(true));
+        } finally {
+            TransactionSynchronizationManager.unbindResource("entityManagerFactory");
+        }
+
+        InOrder inOrder = inOrder(session);
+        inOrder.verify(session).setCacheMode(CacheMode.GET);
+        inOrder.verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    private void signIn(String username){
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+
+    //wired like DataSourceConfig, with a plain JDBC transaction manager instead of JPA
+    private static final class Routing {
+        private final DataSourceTransactionManager transactionManager;
+        private final JdbcTemplate jdbcTemplate;
+
+        Routing(ReplicaLagGuard replicaLagGuard) {
+            ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(database("primary"), database("replica"), replicaLagGuard);
+            routing.initialize();
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            this.transactionManager = new DataSourceTransactionManager(dataSource);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        String read(boolean readOnly) {
+            return this.transaction(readOnly).execute(status -> jdbcTemplate.queryForObject("SELECT name FROM source", String.class));
+        }
+
+        void write() {
+            this.transaction(false).executeWithoutResult(status -> jdbcTemplate.update("UPDATE source SET name = name"));
+        }
+
+        TransactionTemplate transaction(boolean readOnly) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate;
+        }
+
+        private static DataSource database(String name) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+            JdbcTemplate database = new JdbcTemplate(dataSource);
+            database.execute("CREATE TABLE source (name VARCHAR(16))");
+            database.update("INSERT INTO source (name) VALUES (?)", name);
+            return dataSource;
+        }
+    }
+}
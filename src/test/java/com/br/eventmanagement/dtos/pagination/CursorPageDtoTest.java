@@ -0,0 +1,57 @@
+package com.br.eventmanagement.dtos.pagination;
+
+import com.br.eventmanagement.exceptions.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cursor pagination Unit Tests")
+class CursorPageDtoTest {
+
+    @Test
+    @DisplayName("decode() - Should read back the position an encoded cursor was made of")
+    void decode_shouldReadBackEncodedPosition(){
+        Cursor cursor = new Cursor(LocalDateTime.of(2026, 5, 10, 21, 0, 0, 123_456_789), UUID.randomUUID());
+
+        assertEquals(cursor, Cursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("decode() - Should start from the beginning when there is no cursor")
+    void decode_shouldStartFromBeginningWhenThereIsNoCursor(){
+        assertEquals(Cursor.START, Cursor.decode(null));
+    }
+
+    @Test
+    @DisplayName("decode() - Should throw BadRequestException when the cursor was tampered with")
+    void decode_shouldThrowBadRequestExceptionWhenCursorWasTamperedWith(){
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("of() - Should only hand out a next cursor when there are more rows than the page")
+    void of_shouldOnlyHandOutNextCursorWhenThereAreMoreRows(){
+        Cursor second = new Cursor(LocalDateTime.of(2026, 1, 2, 0, 0), UUID.randomUUID());
+        List<Cursor> rows = List.of(new Cursor(LocalDateTime.of(2026, 1, 1, 0, 0), UUID.randomUUID()), second,
+                new Cursor(LocalDateTime.of(2026, 1, 3, 0, 0), UUID.randomUUID()));
+
+        CursorPageDto<Cursor> page = CursorPageDto.of(rows, 2, row -> row);
+        CursorPageDto<Cursor> lastPage = CursorPageDto.of(rows, 3, row -> row);
+
+        assertEquals(rows.subList(0, 2), page.items());
+        assertEquals(second.encode(), page.nextCursor());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    @DisplayName("PageQuery.of() - Should cap the page size")
+    void pageQueryOf_shouldCapPageSize(){
+        assertEquals(500, PageQuery.of(null, 10_000, 50, 500).limit());
+        assertEquals(50, PageQuery.of(null, 0, 50, 500).limit());
+    }
+}
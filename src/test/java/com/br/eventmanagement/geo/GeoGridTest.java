@@ -0,0 +1,43 @@
+package com.br.eventmanagement.geo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("GeoGrid Unit Tests")
+class GeoGridTest {
+
+    @Test
+    @DisplayName("cellOf() - Should put points of the same 0.1 degree square in the same cell")
+    void cellOf_shouldPutPointsOfSameSquareInSameCell(){
+        assertEquals(GeoGrid.cellOf(-23.551, -46.633), GeoGrid.cellOf(-23.559, -46.639));
+        assertNotEquals(GeoGrid.cellOf(-23.551, -46.633), GeoGrid.cellOf(-23.449, -46.633));
+        assertEquals(0L, GeoGrid.cellOf(-90.0, -180.0));
+        assertEquals((long) GeoGrid.ROWS * GeoGrid.COLUMNS - 1, GeoGrid.cellOf(90.0, 180.0));
+        assertNull(GeoGrid.cellOf(null, -46.633));
+    }
+
+    @Test
+    @DisplayName("cellsWithin() - Should cover the cell of every point inside the radius")
+    void cellsWithin_shouldCoverCellOfEveryPointInsideRadius(){
+        List<Long> cells = GeoGrid.cellsWithin(60.0, 10.0, 25);
+
+        for (int bearing = 0; bearing < 360; bearing += 15) {
+            double latitude = 60.0 + 24.9 / GeoGrid.KM_PER_DEGREE * Math.cos(Math.toRadians(bearing));
+            double longitude = 10.0 + 24.9 / (GeoGrid.KM_PER_DEGREE * Math.cos(Math.toRadians(latitude))) * Math.sin(Math.toRadians(bearing));
+            assertTrue(GeoGrid.haversineKm(60.0, 10.0, latitude, longitude) < 25);
+            assertTrue(cells.contains(GeoGrid.cellOf(latitude, longitude)), "bearing " + bearing);
+        }
+    }
+
+    @Test
+    @DisplayName("haversineKm() - Should measure the great circle distance")
+    void haversineKm_shouldMeasureGreatCircleDistance(){
+        //Sao Paulo to Rio de Janeiro
+        assertEquals(361, GeoGrid.haversineKm(-23.5505, -46.6333, -22.9068, -43.1729), 2);
+        assertEquals(0, GeoGrid.haversineKm(10, 10, 10, 10));
+    }
+}
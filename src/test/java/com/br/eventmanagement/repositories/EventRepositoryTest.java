@@ -1,16 +1,26 @@
 package com.br.eventmanagement.repositories;
 
+import com.br.eventmanagement.dtos.event.EventDayCountDto;
+import com.br.eventmanagement.dtos.event.EventSuggestSourceDto;
+import com.br.eventmanagement.dtos.event.EventTableStampDto;
+import com.br.eventmanagement.dtos.pagination.Cursor;
 import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.EventTombstone;
+import com.br.eventmanagement.geo.GeoGrid;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -21,6 +31,12 @@ class EventRepositoryTest {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Event eventBeachParty;
     private Event eventBirthDay;
     private Event eventMeeting;
@@ -72,6 +88,78 @@ class EventRepositoryTest {
 
     }
 
+    @Test
+    @DisplayName("findPage() - should walk every event once in (date, id) order when successful")
+    void findPage_shouldWalkEveryEventOnceInDateAndIdOrderWhenSuccessful(){
+        eventRepository.saveAll(List.of(eventMeeting, eventBeachParty, eventBirthDay));
+
+        List<Event> firstPage = eventRepository.findPage(Cursor.START.position(), Cursor.START.id(), Limit.of(2));
+        Event last = firstPage.getLast();
+        List<Event> secondPage = eventRepository.findPage(last.getDate(), last.getId(), Limit.of(2));
+
+        assertEquals(List.of(eventBeachParty, eventBirthDay), firstPage);
+        assertEquals(List.of(eventMeeting), secondPage);
+    }
+
+    @Test
+    @DisplayName("findAvailablePage() - should only page through events with availability when successful")
+    void findAvailablePage_shouldOnlyPageThroughEventsWithAvailabilityWhenSuccessful(){
+        eventRepository.saveAll(List.of(eventMeeting, eventBeachParty, eventBirthDay));
+
+        List<Event> result = eventRepository.findAvailablePage(eventBeachParty.getDate(), eventBeachParty.getId(), Limit.of(10));
+
+        assertEquals(List.of(eventBirthDay), result);
+    }
+
+    @Test
+    @DisplayName("searchByPattern() - should rank title matches above location matches and page them")
+    void searchByPattern_shouldRankTitleMatchesAboveLocationMatchesAndPageThem(){
+        Event saoPauloMeetup = Event.builder()
+                .title("Sao Paulo meetup")
+                .location("Online")
+                .date(LocalDateTime.of(2026, 12, 1, 19, 0))
+                .maxParticipants(30)
+                .registeredParticipants(0)
+                .build();
+        eventRepository.saveAll(List.of(eventBeachParty, eventBirthDay, eventMeeting, saoPauloMeetup));
+
+        List<Event> firstPage = eventRepository.searchByPattern("%paulo%", 1, 0);
+        List<Event> secondPage = eventRepository.searchByPattern("%paulo%", 1, 1);
+
+        assertEquals(List.of(saoPauloMeetup), firstPage);
+        assertEquals(List.of(eventBirthDay), secondPage);
+        assertTrue(eventRepository.searchByPattern("%paulo%", 10, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("findAllInRange() - should include the start of the range and exclude its end")
+    void findAllInRange_shouldIncludeStartAndExcludeEnd(){
+        eventRepository.saveAll(List.of(eventMeeting, eventBeachParty, eventBirthDay));
+
+        List<Event> result = eventRepository.findAllInRange(eventBeachParty.getDate(), eventMeeting.getDate());
+
+        assertEquals(List.of(eventBeachParty, eventBirthDay), result);
+    }
+
+    @Test
+    @DisplayName("countByDay() - should count events per day in one aggregate query")
+    void countByDay_shouldCountEventsPerDay(){
+        Event secondBeachParty = Event.builder()
+                .title("Beach party after")
+                .location("Rio de Janeiro, copacabana")
+                .date(LocalDateTime.of(2026, 5, 10, 23, 30))
+                .maxParticipants(100)
+                .registeredParticipants(0)
+                .build();
+        eventRepository.saveAll(List.of(eventMeeting, eventBeachParty, eventBirthDay, secondBeachParty));
+
+        List<EventDayCountDto> result = eventRepository.countByDay(LocalDateTime.of(2026, 5, 1, 0, 0),
+                LocalDateTime.of(2026, 9, 1, 0, 0));
+
+        assertEquals(List.of(new EventDayCountDto(LocalDate.of(2026, 5, 10), 2),
+                new EventDayCountDto(LocalDate.of(2026, 8, 23), 1)), result);
+    }
+
     @Test
     @DisplayName("isAvailableFreeSpot() - should return true when the spot is available")
     void isAvailableFreeSpot_shouldReturnTrueWhenTheSpotIsAvailable(){
@@ -107,4 +195,103 @@ class EventRepositoryTest {
         assertEquals(result.getFirst(), eventBirthDay);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("reserveSpot() - should increment the participants only while there is a free spot")
+    void reserveSpot_shouldIncrementParticipantsOnlyWhileThereIsFreeSpot(){
+        eventMeeting.setRegisteredParticipants(14);
+        eventRepository.save(eventMeeting);
+
+        assertEquals(1, eventRepository.reserveSpot(eventMeeting.getId()));
+        assertEquals(0, eventRepository.reserveSpot(eventMeeting.getId()));
+
+        assertFalse(eventRepository.isAvailableFreeSpot(eventMeeting.getId()));
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - should bump the version of the event and the stamp of the table")
+    void reserveSpot_shouldBumpVersionOfEventAndStampOfTable(){
+        eventRepository.save(eventBirthDay);
+        eventRepository.save(eventMeeting);
+        EventTableStampDto before = eventRepository.findTableStamp();
+
+        eventRepository.reserveSpot(eventBirthDay.getId());
+
+        EventTableStampDto after = eventRepository.findTableStamp();
+        assertEquals(2, after.events());
+        assertEquals(before.versions() + 1, after.versions());
+    }
+
+    @Test
+    @DisplayName("findSuggestSources() - should return the title, location and registrations of every event")
+    void findSuggestSources_shouldReturnTitleLocationAndRegistrationsOfEveryEvent(){
+        eventRepository.save(eventBirthDay);
+        eventRepository.save(eventMeeting);
+
+        List<EventSuggestSourceDto> sources = eventRepository.findSuggestSources();
+
+        assertEquals(2, sources.size());
+        assertTrue(sources.contains(new EventSuggestSourceDto(eventBirthDay.getId(), eventBirthDay.getTitle(),
+                eventBirthDay.getLocation(), eventBirthDay.getRegisteredParticipants())));
+    }
+
+    @Test
+    @DisplayName("findChangedSince() - should return inserted and updated events after the sequence, in change order")
+    void findChangedSince_shouldReturnInsertedAndUpdatedEventsAfterSequenceInChangeOrder(){
+        eventRepository.saveAndFlush(eventBirthDay);
+        eventRepository.saveAndFlush(eventMeeting);
+        long since = eventMeeting.getChangeSeq();
+
+        assertTrue(eventBirthDay.getChangeSeq() < since);
+        assertTrue(eventRepository.findChangedSince(since, Limit.of(10)).isEmpty());
+
+        eventRepository.reserveSpot(eventBirthDay.getId());
+        entityManager.clear();
+
+        List<Event> result = eventRepository.findChangedSince(since, Limit.of(10));
+        assertEquals(1, result.size());
+        assertEquals(eventBirthDay.getId(), result.getFirst().getId());
+        assertTrue(result.getFirst().getChangeSeq() > since);
+    }
+
+    @Test
+    @DisplayName("save() - should move an updated event to the end of the change feed")
+    void save_shouldMoveUpdatedEventToEndOfChangeFeed(){
+        eventRepository.saveAndFlush(eventMeeting);
+        eventRepository.saveAndFlush(eventBirthDay);
+        long since = eventBirthDay.getChangeSeq();
+
+        eventMeeting.setTitle("Meeting moved");
+        eventRepository.saveAndFlush(eventMeeting);
+
+        assertTrue(eventMeeting.getChangeSeq() > since);
+        assertEquals(List.of(eventMeeting), eventRepository.findChangedSince(since, Limit.of(10)));
+    }
+
+    @Test
+    @DisplayName("findChangedSince() - should number tombstones from the same sequence as the events")
+    void findChangedSince_shouldNumberTombstonesFromSameSequenceAsEvents(){
+        eventRepository.saveAndFlush(eventMeeting);
+        EventTombstone tombstone = eventTombstoneRepository.saveAndFlush(new EventTombstone(UUID.randomUUID(), LocalDateTime.now()));
+
+        assertTrue(tombstone.getChangeSeq() > eventMeeting.getChangeSeq());
+        assertEquals(List.of(tombstone), eventTombstoneRepository.findChangedSince(eventMeeting.getChangeSeq(), Limit.of(10)));
+    }
+
+    @Test
+    @DisplayName("findNearbyInCells() - should return the events inside the radius, nearest first")
+    void findNearbyInCells_shouldReturnEventsInsideRadiusNearestFirst(){
+        eventBeachParty.setCoordinates(-22.9711, -43.1822); //Copacabana
+        eventBirthDay.setCoordinates(-22.9519, -43.2105); //Cristo Redentor, about 3.5 km away
+        eventMeeting.setCoordinates(-8.0476, -34.8770); //Recife
+        eventRepository.saveAll(List.of(eventBeachParty, eventBirthDay, eventMeeting));
+        double latitude = -22.9700, longitude = -43.1850, radiusKm = 10;
+
+        List<Event> result = eventRepository.findNearbyInCells(GeoGrid.cellsWithin(latitude, longitude, radiusKm),
+                latitude, longitude, GeoGrid.longitudeScale(latitude), Math.pow(radiusKm / GeoGrid.KM_PER_DEGREE, 2), 10, 0);
+
+        assertEquals(List.of(eventBeachParty, eventBirthDay), result);
+        assertEquals(List.of(eventBirthDay), eventRepository.findNearbyInCells(GeoGrid.cellsWithin(latitude, longitude, radiusKm),
+                latitude, longitude, GeoGrid.longitudeScale(latitude), Math.pow(radiusKm / GeoGrid.KM_PER_DEGREE, 2), 10, 1));
+    }
+
+}
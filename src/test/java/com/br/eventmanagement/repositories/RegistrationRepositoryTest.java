@@ -0,0 +1,120 @@
+package com.br.eventmanagement.repositories;
+
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.Registration;
+import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.br.eventmanagement.repositories.SqlStatementCounter.assertStatements;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class RegistrationRepositoryTest {
+
+    private static final int USERS = 20;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private List<User> users;
+    private List<Event> events;
+
+    //every user registered to both events, then a cold persistence context so nothing is served from memory
+    @BeforeEach
+    void setUp(){
+        users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("user-" + i, "password", "user-" + i + "@gmail.com");
+            user.setRole(UserRole.PARTICIPANT);
+            entityManager.persist(user);
+            users.add(user);
+        }
+        events = List.of(this.persistEvent("Beach party"), this.persistEvent("Meeting"));
+        users.forEach(user -> events.forEach(event -> entityManager.persist(new Registration(user, event))));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findAllByEventId() - should load registrations with their users and events in one statement")
+    void findAllByEventId_shouldLoadUsersAndEventsInOneStatement(){
+        List<String> usernames = assertStatements(1, () -> this.touch(
+                registrationRepository.findAllByEventId(events.getFirst().getId())));
+
+        assertEquals(USERS, usernames.size());
+    }
+
+    @Test
+    @DisplayName("findAllByUserId() - should load registrations with their users and events in one statement")
+    void findAllByUserId_shouldLoadUsersAndEventsInOneStatement(){
+        List<String> usernames = assertStatements(1, () -> this.touch(
+                registrationRepository.findAllByUserId(users.getFirst().getId())));
+
+        assertEquals(2, usernames.size());
+    }
+
+    @Test
+    @DisplayName("findAll() - should load registrations with their users and events in one statement")
+    void findAll_shouldLoadUsersAndEventsInOneStatement(){
+        List<String> usernames = assertStatements(1, () -> this.touch(registrationRepository.findAll()));
+
+        assertEquals(USERS * 2, usernames.size());
+    }
+
+    @Test
+    @DisplayName("findByUserIdAndEventId() - should load the registration with its user and event in one statement")
+    void findByUserIdAndEventId_shouldLoadUserAndEventInOneStatement(){
+        Registration result = assertStatements(1, () -> {
+            Registration registration = registrationRepository
+                    .findByUserIdAndEventId(users.getFirst().getId(), events.getFirst().getId()).orElseThrow();
+            this.touch(List.of(registration));
+            return registration;
+        });
+
+        assertEquals(users.getFirst().getId(), result.getUser().getId());
+    }
+
+    @Test
+    @DisplayName("batch fetching - should load the associations of a query without fetch plan in batches, not per row")
+    void batchFetching_shouldLoadAssociationsOfQueryWithoutFetchPlanInBatches(){
+        //1 for the registrations, 1 batch for the 20 users and 1 for the 2 events
+        List<String> usernames = assertStatements(3, () -> this.touch(entityManager
+                .createQuery("SELECT r FROM Registration r", Registration.class)
+                .getResultList()));
+
+        assertEquals(USERS * 2, usernames.size());
+    }
+
+    private List<String> touch(List<Registration> registrations){
+        return registrations.stream()
+                .map(registration -> registration.getUser().getUsername() + "@" + registration.getEvent().getTitle())
+                .toList();
+    }
+
+    private Event persistEvent(String title){
+        Event event = Event.builder()
+                .title(title)
+                .location("Sao Paulo, Brazil")
+                .date(LocalDateTime.now().plusDays(10))
+                .maxParticipants(100)
+                .registeredParticipants(USERS)
+                .build();
+        entityManager.persist(event);
+        return event;
+    }
+}
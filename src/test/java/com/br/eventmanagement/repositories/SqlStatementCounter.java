@@ -0,0 +1,36 @@
+package com.br.eventmanagement.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * Records every SQL statement Hibernate prepares on the current thread.
+ * Registered for the test profile in application-test.properties, tests wrap a repository call with
+ * assertStatements to pin how many statements it may run, so a fetch plan that regresses to N+1 fails the build.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static <T> T assertStatements(int expected, Supplier<T> call) {
+        STATEMENTS.get().clear();
+        T result = call.get();
+        List<String> statements = List.copyOf(STATEMENTS.get());
+        STATEMENTS.remove();
+
+        if (statements.size() != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but " + statements.size()
+                    + " were executed:\n" + String.join("\n", statements));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package com.br.eventmanagement.security;
+
+import com.auth0.jwt.JWT;
+import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenService Unit Tests")
+class TokenServiceTest {
+
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp(){
+        tokenService = newTokenService("my-super-secret-key", "", "default");
+
+        user = User.builder()
+                .id(UUID.fromString("fa7970df-eaed-4bfc-a970-638017ee8f6a"))
+                .username("allison")
+                .email("allison@gmail.com")
+                .password("allison1234")
+                .role(UserRole.ADMIN)
+                .credentialVersion(4)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("validateToken() - Should return the subject when the token is valid")
+    void validateToken_shouldReturnSubjectWhenTokenIsValid(){
+        String token = tokenService.generateToken(user);
+
+        assertEquals("allison", tokenService.validateToken(token));
+    }
+
+    @Test
+    @DisplayName("validateToken() - Should return empty when the token is invalid")
+    void validateToken_shouldReturnEmptyWhenTokenIsInvalid(){
+        assertEquals("", tokenService.validateToken("not-a-token"));
+    }
+
+    @Test
+    @DisplayName("recoverPrincipal() - Should build the principal from the token claims")
+    void recoverPrincipal_shouldBuildPrincipalFromTokenClaims(){
+        String token = tokenService.generateToken(user);
+
+        TokenPrincipal principal = tokenService.recoverPrincipal(token);
+
+        assertNotNull(principal);
+        assertEquals(user.getId(), principal.id());
+        assertEquals("allison", principal.getUsername());
+        assertEquals(UserRole.ADMIN, principal.role());
+        assertEquals(4, principal.credentialVersion());
+        assertEquals(user.getAuthorities(), principal.getAuthorities());
+    }
+
+    @Test
+    @DisplayName("recoverPrincipal() - Should return null when the token is signed with another secret")
+    void recoverPrincipal_shouldReturnNullWhenTokenIsSignedWithAnotherSecret(){
+        String token = newTokenService("another-secret", "", "default").generateToken(user);
+
+        assertNull(tokenService.recoverPrincipal(token));
+    }
+
+    @Test
+    @DisplayName("validateToken() - Should accept tokens of the previous key after a rotation")
+    void validateToken_shouldAcceptTokensOfPreviousKeyAfterRotation(){
+        TokenService beforeRotation = newTokenService("my-super-secret-key", "2025-10:old-secret", "2025-10");
+        TokenService afterRotation = newTokenService("my-super-secret-key", "2025-10:old-secret,2025-11:new-secret", "2025-11");
+
+        String oldToken = beforeRotation.generateToken(user);
+        String newToken = afterRotation.generateToken(user);
+
+        assertEquals("2025-10", JWT.decode(oldToken).getKeyId());
+        assertEquals("2025-11", JWT.decode(newToken).getKeyId());
+        assertEquals("allison", afterRotation.validateToken(oldToken));
+        assertEquals("allison", afterRotation.validateToken(newToken));
+        assertEquals("", beforeRotation.validateToken(newToken));
+    }
+
+    @Test
+    @DisplayName("init() - Should throw IllegalStateException when the active key is not configured")
+    void init_shouldThrowIllegalStateExceptionWhenActiveKeyIsNotConfigured(){
+        assertThrows(IllegalStateException.class, () -> newTokenService("my-super-secret-key", "", "missing"));
+    }
+
+    private TokenService newTokenService(String secret, String additionalKeys, String activeKeyId){
+        TokenService service = new TokenService();
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "additionalKeys", additionalKeys);
+        ReflectionTestUtils.setField(service, "activeKeyId", activeKeyId);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,125 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventAvailabilityDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventAvailabilityStreamService Unit Tests")
+class EventAvailabilityStreamServiceTest {
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private HotEventSeatService hotEventSeatService;
+
+    private EventAvailabilityStreamService streamService;
+
+    private final UUID eventId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(){
+        //sends run on the calling thread, so every assertion sees them
+        streamService = new EventAvailabilityStreamService(eventService, hotEventSeatService, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("subscribe() - Should send the current seats left right away")
+    void subscribe_shouldSendCurrentSeatsLeftRightAway(){
+        when(eventService.seatsLeft(eventId)).thenReturn(12);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        streamService.subscribe(eventId, emitter);
+
+        assertEquals(List.of(new EventAvailabilityDto(eventId, 12)), emitter.sent);
+        assertEquals(1, streamService.subscribers());
+    }
+
+    @Test
+    @DisplayName("subscribe() - Should not open a stream when the event doesn't exist")
+    void subscribe_shouldNotOpenStreamWhenEventDoesNotExist(){
+        when(eventService.seatsLeft(eventId)).thenThrow(new EntityNotFoundException("Event not found"));
+
+        assertThrows(EntityNotFoundException.class, () -> streamService.subscribe(eventId, new RecordingEmitter()));
+        assertEquals(0, streamService.subscribers());
+    }
+
+    @Test
+    @DisplayName("publish() - Should send one update with the latest value for many changes between two ticks")
+    void publish_shouldCoalesceManyChangesIntoOneUpdate(){
+        when(eventService.seatsLeft(eventId)).thenReturn(12, 9);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        streamService.subscribe(eventId, first);
+        streamService.subscribe(eventId, second);
+        clearInvocations(eventService);
+        when(eventService.seatsLeft(eventId)).thenReturn(9);
+
+        for (int i = 0; i < 3; i++) streamService.onEventChanged(new EventChangedEvent(eventId));
+        streamService.publish();
+        streamService.publish();
+
+        verify(eventService, times(1)).seatsLeft(eventId);
+        assertEquals(List.of(new EventAvailabilityDto(eventId, 12), new EventAvailabilityDto(eventId, 9)), first.sent);
+        assertEquals(List.of(new EventAvailabilityDto(eventId, 9)), second.sent);
+    }
+
+    @Test
+    @DisplayName("publish() - Should read the counter of hot events on every tick without a change event")
+    void publish_shouldReadCounterOfHotEventsOnEveryTick(){
+        when(eventService.seatsLeft(eventId)).thenReturn(5, 4);
+        when(hotEventSeatService.isHot(eventId)).thenReturn(true);
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.subscribe(eventId, emitter);
+
+        streamService.publish();
+
+        assertEquals(List.of(new EventAvailabilityDto(eventId, 5), new EventAvailabilityDto(eventId, 4)), emitter.sent);
+    }
+
+    @Test
+    @DisplayName("publish() - Should drop subscribers whose connection is gone")
+    void publish_shouldDropSubscribersWhoseConnectionIsGone(){
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        streamService.bindTo(meterRegistry);
+        when(eventService.seatsLeft(eventId)).thenReturn(5);
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.broken = true;
+
+        streamService.subscribe(eventId, emitter);
+
+        assertEquals(0, streamService.subscribers());
+        assertEquals(0, meterRegistry.get("event.availability.subscribers").gauge().value());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) throw new IOException("Broken pipe");
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(EventAvailabilityDto.class::isInstance)
+                    .forEach(sent::add);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.repositories.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventCatalogService Unit Tests")
+class EventCatalogServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventCatalogService eventCatalogService;
+
+    private Event concert;
+    private Event fullMeeting;
+    private Event party;
+
+    @BeforeEach
+    void setUp(){
+        eventCatalogService = new EventCatalogService(eventRepository, true, Duration.ofMinutes(1));
+        LocalDateTime date = LocalDateTime.now().plusDays(1);
+        concert = Event.builder().id(UUID.randomUUID()).title("Concert").date(date.plusHours(1))
+                .maxParticipants(10).registeredParticipants(0).build();
+        fullMeeting = Event.builder().id(UUID.randomUUID()).title("Meeting").date(date.plusHours(2))
+                .maxParticipants(10).registeredParticipants(10).build();
+        party = Event.builder().id(UUID.randomUUID()).title("Party").date(date.plusHours(3))
+                .maxParticipants(10).registeredParticipants(5).build();
+    }
+
+    @Test
+    @DisplayName("refresh() - Should serve the events sorted by date and indexed by id once the snapshot is built")
+    void refresh_shouldServeEventsSortedByDateAndIndexedById(){
+        when(eventRepository.findAll()).thenReturn(List.of(party, concert, fullMeeting));
+        assertFalse(eventCatalogService.isServing());
+
+        eventCatalogService.refresh();
+
+        assertTrue(eventCatalogService.isServing());
+        assertEquals(List.of(concert, fullMeeting, party), eventCatalogService.listAll());
+        assertEquals(List.of(concert, party), eventCatalogService.listAllAvailable());
+        assertEquals(party, eventCatalogService.find(party.getId()).orElseThrow());
+        assertTrue(eventCatalogService.find(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("listAll() - Should list past events like the database does")
+    void listAll_shouldListPastEventsLikeDatabaseDoes(){
+        Event past = Event.builder().id(UUID.randomUUID()).title("Past").date(LocalDateTime.now().minusDays(1))
+                .maxParticipants(10).registeredParticipants(0).build();
+        when(eventRepository.findAll()).thenReturn(List.of(concert, past));
+
+        eventCatalogService.refresh();
+
+        assertEquals(List.of(past, concert), eventCatalogService.listAll());
+        assertEquals(List.of(past, concert), eventCatalogService.listAllAvailable());
+        assertEquals(past, eventCatalogService.find(past.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("listAll() - Should page through the snapshot from the cursor on")
+    void listAll_shouldPageThroughSnapshotFromCursor(){
+        when(eventRepository.findAll()).thenReturn(List.of(party, concert, fullMeeting));
+        eventCatalogService.refresh();
+
+        CursorPageDto<Event> firstPage = eventCatalogService.listAll(new PageQuery(Cursor.START, 2));
+        CursorPageDto<Event> secondPage = eventCatalogService.listAll(new PageQuery(Cursor.decode(firstPage.nextCursor()), 2));
+
+        assertEquals(List.of(concert, fullMeeting), firstPage.items());
+        assertEquals(List.of(party), secondPage.items());
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    @DisplayName("refresh() - Should only rebuild after a change was committed")
+    void refresh_shouldOnlyRebuildAfterChange(){
+        when(eventRepository.findAll())
+                .thenReturn(List.of(concert))
+                .thenReturn(List.of(concert, party));
+        eventCatalogService.refresh();
+
+        eventCatalogService.refresh();
+        verify(eventRepository, times(1)).findAll();
+
+        eventCatalogService.onEventChanged(new EventChangedEvent(party.getId()));
+        eventCatalogService.onEventChanged(new EventChangedEvent(concert.getId()));
+        eventCatalogService.refresh();
+
+        verify(eventRepository, times(2)).findAll();
+        assertEquals(List.of(concert, party), eventCatalogService.listAll());
+    }
+
+    @Test
+    @DisplayName("refresh() - Should keep serving the old snapshot when the rebuild fails")
+    void refresh_shouldKeepServingOldSnapshotWhenRebuildFails(){
+        when(eventRepository.findAll())
+                .thenReturn(List.of(concert))
+                .thenThrow(new IllegalStateException("connection refused"));
+        eventCatalogService.refresh();
+        eventCatalogService.onEventChanged(new EventChangedEvent(concert.getId()));
+
+        eventCatalogService.refresh();
+
+        assertEquals(List.of(concert), eventCatalogService.listAll());
+    }
+
+    @Test
+    @DisplayName("isServing() - Should never serve nor touch the database when the catalog is disabled")
+    void isServing_shouldNeverServeWhenCatalogIsDisabled(){
+        EventCatalogService disabled = new EventCatalogService(eventRepository, false, Duration.ofMinutes(1));
+
+        disabled.refresh();
+
+        assertFalse(disabled.isServing());
+        assertTrue(disabled.find(concert.getId()).isEmpty());
+        verifyNoInteractions(eventRepository);
+    }
+}
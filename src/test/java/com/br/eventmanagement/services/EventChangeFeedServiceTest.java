@@ -0,0 +1,152 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventChangesDto;
+import com.br.eventmanagement.dtos.pagination.SequenceCursor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.EventTombstone;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.EventTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventChangeFeedService Unit Tests")
+class EventChangeFeedServiceTest {
+
+    private EventChangeFeedService eventChangeFeedService;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    private final Event created = Event.builder().id(UUID.randomUUID()).title("Created").changeSeq(11L).build();
+    private final Event updated = Event.builder().id(UUID.randomUUID()).title("Updated").changeSeq(13L).build();
+    private final EventTombstone tombstone = new EventTombstone(UUID.randomUUID(), 12L, LocalDateTime.now());
+
+    @BeforeEach
+    void setUp(){
+        //every sample is settled as soon as it is taken
+        eventChangeFeedService = new EventChangeFeedService(eventRepository, eventTombstoneRepository, Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("changesSince() - Should merge changed and deleted events in sequence order up to the limit")
+    void changesSince_shouldMergeChangedAndDeletedEventsInSequenceOrderUpToLimit(){
+        when(eventRepository.findMaxChangeSeq()).thenReturn(13L);
+        when(eventTombstoneRepository.findMaxChangeSeq()).thenReturn(12L);
+        eventChangeFeedService.sampleSequence();
+        String since = new SequenceCursor(10).encode();
+        when(eventRepository.findChangedSince(10, Limit.of(3))).thenReturn(List.of(created, updated));
+        when(eventTombstoneRepository.findChangedSince(10, Limit.of(3))).thenReturn(List.of(tombstone));
+
+        EventChangesDto result = eventChangeFeedService.changesSince(since, 2);
+
+        assertEquals(List.of(created), result.changed());
+        assertEquals(List.of(tombstone.getEventId()), result.deleted());
+        assertEquals(12, SequenceCursor.decode(result.cursor()).sequence());
+        assertTrue(result.hasMore());
+    }
+
+    @Test
+    @DisplayName("changesSince() - Should keep the cursor where it was when nothing changed")
+    void changesSince_shouldKeepCursorWhenNothingChanged(){
+        String since = new SequenceCursor(13).encode();
+        when(eventRepository.findChangedSince(13, Limit.of(51))).thenReturn(List.of());
+        when(eventTombstoneRepository.findChangedSince(13, Limit.of(51))).thenReturn(List.of());
+
+        EventChangesDto result = eventChangeFeedService.changesSince(since, 50);
+
+        assertTrue(result.changed().isEmpty());
+        assertTrue(result.deleted().isEmpty());
+        assertEquals(since, result.cursor());
+        assertFalse(result.hasMore());
+    }
+
+    @Test
+    @DisplayName("changesSince() - Should throw BadRequestException when the cursor is invalid")
+    void changesSince_shouldThrowBadRequestExceptionWhenCursorIsInvalid(){
+        assertThrows(BadRequestException.class, () -> eventChangeFeedService.changesSince("not-a-cursor", 50));
+        verify(eventRepository, never()).findChangedSince(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("changesSince() - Should serve again a change whose lower sequence committed after a higher one was served")
+    void changesSince_shouldServeAgainChangeWhoseLowerSequenceCommittedAfterHigherOne(){
+        EventChangeFeedService withOverlap =
+                new EventChangeFeedService(eventRepository, eventTombstoneRepository, Duration.ofMinutes(1));
+        Event slow = Event.builder().id(UUID.randomUUID()).title("Slow").changeSeq(10L).build();
+        Event fast = Event.builder().id(UUID.randomUUID()).title("Fast").changeSeq(11L).build();
+        //10 is taken first but its transaction is still open when 11 commits
+        when(eventRepository.findMaxChangeSeq()).thenReturn(11L);
+        withOverlap.sampleSequence();
+        when(eventRepository.findChangedSince(9, Limit.of(51))).thenReturn(List.of(fast)).thenReturn(List.of(slow, fast));
+
+        EventChangesDto first = withOverlap.changesSince(new SequenceCursor(9).encode(), 50);
+        //10 commits now
+        EventChangesDto second = withOverlap.changesSince(first.cursor(), 50);
+
+        assertEquals(List.of(fast), first.changed());
+        assertEquals(9, SequenceCursor.decode(first.cursor()).sequence());
+        assertEquals(List.of(slow, fast), second.changed());
+    }
+
+    @Test
+    @DisplayName("changesSince() - Should hold the cursor back at the last settled sequence and report no more yet")
+    void changesSince_shouldHoldCursorBackAtLastSettledSequence(){
+        when(eventRepository.findMaxChangeSeq()).thenReturn(11L);
+        eventChangeFeedService.sampleSequence();
+        when(eventRepository.findChangedSince(10, Limit.of(2))).thenReturn(List.of(created, updated));
+        when(eventTombstoneRepository.findChangedSince(10, Limit.of(2))).thenReturn(List.of(tombstone));
+
+        EventChangesDto result = eventChangeFeedService.changesSince(new SequenceCursor(10).encode(), 1);
+
+        assertEquals(List.of(created), result.changed());
+        assertEquals(11, SequenceCursor.decode(result.cursor()).sequence());
+        assertTrue(result.hasMore());
+
+        when(eventRepository.findChangedSince(11, Limit.of(3))).thenReturn(List.of(updated));
+        when(eventTombstoneRepository.findChangedSince(11, Limit.of(3))).thenReturn(List.of(tombstone));
+        EventChangesDto held = eventChangeFeedService.changesSince(result.cursor(), 2);
+
+        assertEquals(List.of(updated), held.changed());
+        assertEquals(List.of(tombstone.getEventId()), held.deleted());
+        assertEquals(11, SequenceCursor.decode(held.cursor()).sequence());
+        assertFalse(held.hasMore());
+    }
+
+    @Test
+    @DisplayName("changesSince() - Should move the cursor right after startup up to what was committed then")
+    void changesSince_shouldMoveCursorRightAfterStartup(){
+        EventChangeFeedService withOverlap =
+                new EventChangeFeedService(eventRepository, eventTombstoneRepository, Duration.ofMinutes(1));
+        when(eventRepository.findMaxChangeSeq()).thenReturn(13L);
+        when(eventTombstoneRepository.findMaxChangeSeq()).thenReturn(12L);
+        withOverlap.start();
+        when(eventRepository.findChangedSince(0, Limit.of(3))).thenReturn(List.of(created, updated));
+        when(eventTombstoneRepository.findChangedSince(0, Limit.of(3))).thenReturn(List.of(tombstone));
+
+        EventChangesDto result = withOverlap.changesSince(null, 2);
+
+        assertEquals(List.of(created), result.changed());
+        assertEquals(12, SequenceCursor.decode(result.cursor()).sequence());
+        assertTrue(result.hasMore());
+    }
+}
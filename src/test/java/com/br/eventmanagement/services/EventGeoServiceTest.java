@@ -0,0 +1,77 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventDistanceDto;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.OffsetCursor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.geo.GeoGrid;
+import com.br.eventmanagement.repositories.EventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventGeoService Unit Tests")
+class EventGeoServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private final Event near = event(-23.551, -46.634);
+    private final Event farther = event(-23.600, -46.700);
+
+    @Test
+    @DisplayName("findNearby() - Should look up the grid cells around the point and add the distance")
+    void findNearby_shouldLookUpGridCellsAroundPointAndAddDistance(){
+        EventGeoService eventGeoService = new EventGeoService(eventRepository, false, 100);
+        when(eventRepository.findNearbyInCells(eq(GeoGrid.cellsWithin(-23.55, -46.63, 10)), eq(-23.55), eq(-46.63),
+                anyDouble(), anyDouble(), eq(2), eq(0))).thenReturn(List.of(near, farther));
+
+        CursorPageDto<EventDistanceDto> result = eventGeoService.findNearby(-23.55, -46.63, 10, null, 1);
+
+        assertEquals(1, result.items().size());
+        assertEquals(near, result.items().getFirst().event());
+        assertEquals(GeoGrid.haversineKm(-23.55, -46.63, -23.551, -46.634), result.items().getFirst().distanceKm());
+        assertEquals(1, OffsetCursor.decode(result.nextCursor()).offset());
+        verify(eventRepository, never()).findNearbyWithPostgis(anyDouble(), anyDouble(), anyDouble(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("findNearby() - Should ask PostGIS with the radius in meters when it is enabled")
+    void findNearby_shouldAskPostgisWithRadiusInMetersWhenItIsEnabled(){
+        EventGeoService eventGeoService = new EventGeoService(eventRepository, true, 100);
+        when(eventRepository.findNearbyWithPostgis(-23.55, -46.63, 10_000, 51, 0)).thenReturn(List.of(near));
+
+        CursorPageDto<EventDistanceDto> result = eventGeoService.findNearby(-23.55, -46.63, 10, null, 50);
+
+        assertEquals(List.of(near), result.items().stream().map(EventDistanceDto::event).toList());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("findNearby() - Should throw BadRequestException when the radius or the coordinates are out of range")
+    void findNearby_shouldThrowBadRequestExceptionWhenRadiusOrCoordinatesAreOutOfRange(){
+        EventGeoService eventGeoService = new EventGeoService(eventRepository, false, 100);
+
+        assertThrows(BadRequestException.class, () -> eventGeoService.findNearby(-23.55, -46.63, 150, null, 50));
+        assertThrows(BadRequestException.class, () -> eventGeoService.findNearby(-23.55, -46.63, 0, null, 50));
+        assertThrows(BadRequestException.class, () -> eventGeoService.findNearby(91, -46.63, 10, null, 50));
+        verifyNoInteractions(eventRepository);
+    }
+
+    private static Event event(double latitude, double longitude){
+        Event event = Event.builder().id(UUID.randomUUID()).title("Event").build();
+        event.setCoordinates(latitude, longitude);
+        return event;
+    }
+}
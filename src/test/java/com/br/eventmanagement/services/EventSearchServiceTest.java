@@ -0,0 +1,67 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.OffsetCursor;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventSearchService Unit Tests")
+class EventSearchServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private final Event first = Event.builder().id(UUID.randomUUID()).title("Spring conference").build();
+    private final Event second = Event.builder().id(UUID.randomUUID()).title("Spring meetup").build();
+
+    @Test
+    @DisplayName("search() - Should match every word as a prefix on the full text index when it is enabled")
+    void search_shouldMatchEveryWordAsPrefixWhenFullTextIsEnabled(){
+        EventSearchService eventSearchService = new EventSearchService(eventRepository, true);
+        when(eventRepository.searchRanked("spring conf", "spring:* & conf:*", 2, 0)).thenReturn(List.of(first));
+
+        CursorPageDto<Event> result = eventSearchService.search("Spring, conf!", null, 1);
+
+        assertEquals(List.of(first), result.items());
+        assertNull(result.nextCursor());
+        verify(eventRepository, never()).searchByPattern(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("search() - Should fall back to a LIKE pattern and hand out the next offset when there are more rows")
+    void search_shouldFallBackToLikePatternAndHandOutNextOffset(){
+        EventSearchService eventSearchService = new EventSearchService(eventRepository, false);
+        String cursor = new OffsetCursor(10).encode();
+        when(eventRepository.searchByPattern("%spring%", 2, 10)).thenReturn(List.of(first, second));
+
+        CursorPageDto<Event> result = eventSearchService.search("spring", cursor, 1);
+
+        assertEquals(List.of(first), result.items());
+        assertEquals(11, OffsetCursor.decode(result.nextCursor()).offset());
+    }
+
+    @Test
+    @DisplayName("search() - Should throw BadRequestException when the text has no letters or digits")
+    void search_shouldThrowBadRequestExceptionWhenTextHasNoWords(){
+        EventSearchService eventSearchService = new EventSearchService(eventRepository, true);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> eventSearchService.search(" %_& ", null, 10));
+
+        assertEquals("The search text must contain letters or digits", exception.getMessage());
+        verifyNoInteractions(eventRepository);
+    }
+}
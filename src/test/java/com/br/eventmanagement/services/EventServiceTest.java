@@ -1,8 +1,19 @@
 package com.br.eventmanagement.services;
 
+import com.br.eventmanagement.cache.EntityCacheEvictor;
+import com.br.eventmanagement.cache.LocalCache;
+import com.br.eventmanagement.datasource.ReplicaLagGuard;
 import com.br.eventmanagement.dtos.event.*;
+import com.br.eventmanagement.dtos.pagination.Cursor;
+import com.br.eventmanagement.dtos.pagination.CursorPageDto;
+import com.br.eventmanagement.dtos.pagination.PageQuery;
 import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.TableVersion;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.geo.GeoGrid;
 import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.EventTombstoneRepository;
+import com.br.eventmanagement.repositories.TableVersionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,15 +21,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +55,39 @@ class EventServiceTest {
     @InjectMocks
     private EventService eventService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private LocalCache<UUID, Event> eventCache = new LocalCache<>("events", 100, Duration.ofMinutes(1));
+
     @Mock
     private EventRepository eventRepository;
 
+    @Mock
+    private HotEventSeatService hotEventSeatService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private TableVersionRepository tableVersionRepository;
+
+    @Mock
+    private EventTombstoneRepository eventTombstoneRepository;
+
+    @Mock
+    private EventSuggestService eventSuggestService;
+
+    @Mock
+    private OccupancyRollupService occupancyRollupService;
+
+    @Mock
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Mock
+    private EntityCacheEvictor entityCacheEvictor;
+
     private Event event;
     private Event event2;
 
@@ -75,6 +125,19 @@ class EventServiceTest {
         assertEquals(event2, result.getLast());
     }
 
+    @Test
+    @DisplayName("listAll() - Should return a page and the cursor of its last event when there are more events")
+    void listAll_shouldReturnPageAndCursorOfLastEventWhenThereAreMoreEvents(){
+        PageQuery page = new PageQuery(Cursor.START, 1);
+        when(eventRepository.findPage(Cursor.START.position(), Cursor.START.id(), Limit.of(2)))
+                .thenReturn(List.of(event, event2));
+
+        CursorPageDto<Event> result = eventService.listAll(page);
+
+        assertEquals(List.of(event), result.items());
+        assertEquals(new Cursor(event.getDate(), event.getId()), Cursor.decode(result.nextCursor()));
+    }
+
     @Test
     @DisplayName("getById() - Should return event by id when successful")
     void getById_shouldReturnEventByIdWhenSuccessful(){
@@ -87,6 +150,75 @@ class EventServiceTest {
         verify(eventRepository, times(1)).findById(event.getId());
     }
 
+    @Test
+    @DisplayName("getById() - Should answer repeated calls from the cache")
+    void getById_shouldAnswerRepeatedCallsFromCache(){
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        eventService.getById(event.getId());
+        Event result = eventService.getById(event.getId());
+
+        assertEquals(event, result);
+        verify(eventRepository, times(1)).findById(event.getId());
+        assertEquals(1, eventCache.getHits());
+    }
+
+    @Test
+    @DisplayName("getById() - Should load the event again after it was changed")
+    void getById_shouldLoadEventAgainAfterItWasChanged(){
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        eventService.getById(event.getId());
+
+        eventService.updateLocation(event.getId(), new EventUpdateLocationDto("Lisbon, Portugal", null, null));
+        eventService.getById(event.getId());
+
+        //one load before the update, one inside it and one after it
+        verify(eventRepository, times(3)).findById(event.getId());
+    }
+
+    @Test
+    @DisplayName("getById() - Should neither read nor fill the cache while the replica may lag behind the event")
+    void getById_shouldBypassCacheWhileReplicaMayLag(){
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(replicaLagGuard.mayLag(event.getId())).thenReturn(true);
+
+        eventService.getById(event.getId());
+        eventService.getById(event.getId());
+
+        verify(eventRepository, times(2)).findById(event.getId());
+        assertEquals(0, eventCache.size());
+    }
+
+    @Test
+    @DisplayName("getById() - Should neither read nor fill the cache inside a read-write transaction")
+    void getById_shouldBypassCacheInsideReadWriteTransaction(){
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            eventService.getById(event.getId());
+            eventService.getById(event.getId());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        verify(eventRepository, times(2)).findById(event.getId());
+        assertEquals(0, eventCache.size());
+    }
+
+    @Test
+    @DisplayName("onEventChanged() - Should evict the event once the transaction of the change ends")
+    void onEventChanged_shouldEvictEventOnceChangeIsCommitted(){
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        eventService.getById(event.getId());
+
+        eventService.onEventChanged(new EventChangedEvent(event.getId()));
+
+        assertEquals(0, eventCache.size());
+        assertEquals(1, eventCache.getEvictions());
+        verify(replicaLagGuard, times(1)).changed(event.getId());
+    }
+
     @Test
     @DisplayName("getById() - Should throw EntityNotFoundException when event not found")
     void getById_shouldThrowEntityNotFoundExceptionWhenEventNotFound(){
@@ -104,7 +236,8 @@ class EventServiceTest {
     @Test
     @DisplayName("findAllByDate() - Should return all events by date when successful")
     void findAllByDate_shouldReturnAllByDateWhenSuccessful(){
-        when(eventRepository.findAllByDate(event.getDate().toLocalDate())).thenReturn(List.of(event, event2));
+        LocalDate day = event.getDate().toLocalDate();
+        when(eventRepository.findAllInRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay())).thenReturn(List.of(event, event2));
 
         List<Event> result = eventService.findAllByDate(event.getDate().toLocalDate());
 
@@ -114,6 +247,47 @@ class EventServiceTest {
         assertEquals(event2, result.getLast());
     }
 
+    @Test
+    @DisplayName("findAllInRange() - Should read a page of the half-open range when successful")
+    void findAllInRange_shouldReadPageOfHalfOpenRangeWhenSuccessful(){
+        LocalDate from = LocalDate.of(2026, 5, 1);
+        LocalDate to = LocalDate.of(2026, 6, 1);
+        when(eventRepository.findPageInRange(from.atStartOfDay(), to.atStartOfDay(),
+                Cursor.START.position(), Cursor.START.id(), Limit.of(11))).thenReturn(List.of(event));
+
+        CursorPageDto<Event> result = eventService.findAllInRange(from, to, new PageQuery(Cursor.START, 10));
+
+        assertEquals(List.of(event), result.items());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    @DisplayName("findAllInRange() - Should throw BadRequestException when the range is empty")
+    void findAllInRange_shouldThrowBadRequestExceptionWhenRangeIsEmpty(){
+        LocalDate day = LocalDate.of(2026, 5, 1);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> eventService.findAllInRange(day, day, new PageQuery(Cursor.START, 10)));
+
+        assertEquals("The end of the range must be after its start", exception.getMessage());
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    @DisplayName("countByDay() - Should return every day of the month, with zero for days without events")
+    void countByDay_shouldReturnEveryDayOfMonthWithZeroForDaysWithoutEvents(){
+        YearMonth month = YearMonth.of(2026, 2);
+        when(eventRepository.countByDay(LocalDateTime.of(2026, 2, 1, 0, 0), LocalDateTime.of(2026, 3, 1, 0, 0)))
+                .thenReturn(List.of(new EventDayCountDto(LocalDate.of(2026, 2, 14), 3)));
+
+        List<EventDayCountDto> result = eventService.countByDay(month);
+
+        assertEquals(28, result.size());
+        assertEquals(new EventDayCountDto(LocalDate.of(2026, 2, 1), 0), result.getFirst());
+        assertEquals(new EventDayCountDto(LocalDate.of(2026, 2, 14), 3), result.get(13));
+        assertEquals(3, result.stream().mapToLong(EventDayCountDto::events).sum());
+    }
+
     @Test
     @DisplayName("listAllAvailable() - Should return all events available when spots are available")
     void listAllAvailable_shouldReturnAllEventsAvailableWhenSpotsAreAvailable(){
@@ -127,6 +301,156 @@ class EventServiceTest {
         assertEquals(event2, result.getLast());
     }
 
+    @Test
+    @DisplayName("reserveSpot() - Should reserve a spot when the conditional update hits the event")
+    void reserveSpot_shouldReserveSpotWhenConditionalUpdateHitsEvent(){
+        when(eventRepository.reserveSpot(event.getId())).thenReturn(1);
+
+        assertDoesNotThrow(() -> eventService.reserveSpot(event.getId()));
+
+        verify(entityCacheEvictor, times(1)).evict(Event.class, List.of(event.getId()));
+        verify(eventRepository, times(1)).reserveSpot(event.getId());
+        verifyNoMoreInteractions(eventRepository);
+        verify(eventPublisher, times(1)).publishEvent(new EventChangedEvent(event.getId()));
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - Should take the spot from memory without touching the event row when the event is hot")
+    void reserveSpot_shouldTakeSpotFromMemoryWhenEventIsHot(){
+        when(hotEventSeatService.isHot(event.getId())).thenReturn(true);
+        when(hotEventSeatService.tryReserve(event.getId())).thenReturn(true);
+
+        assertDoesNotThrow(() -> eventService.reserveSpot(event.getId()));
+
+        verifyNoInteractions(eventRepository, entityCacheEvictor);
+        //the row only changes when the counters are flushed, HotEventSeatService publishes then
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - Should throw BadRequestException when the hot event has no seat left")
+    void reserveSpot_shouldThrowBadRequestExceptionWhenHotEventHasNoSeatLeft(){
+        when(hotEventSeatService.isHot(event.getId())).thenReturn(true);
+        when(hotEventSeatService.tryReserve(event.getId())).thenReturn(false);
+
+        assertThrows(BadRequestException.class, () -> eventService.reserveSpot(event.getId()));
+
+        verifyNoInteractions(eventRepository);
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - Should throw BadRequestException when the event is full")
+    void reserveSpot_shouldThrowBadRequestExceptionWhenEventIsFull(){
+        when(eventRepository.reserveSpot(event.getId())).thenReturn(0);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> eventService.reserveSpot(event.getId())
+        );
+
+        assertEquals("There is no spot available in this event", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("reserveSpot() - Should throw EntityNotFoundException when the event doesn't exist")
+    void reserveSpot_shouldThrowEntityNotFoundExceptionWhenEventDoesNotExist(){
+        when(eventRepository.reserveSpot(event.getId())).thenReturn(0);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> eventService.reserveSpot(event.getId()));
+    }
+
+    @Test
+    @DisplayName("reserveSpots() - Should reserve every requested spot with one update when there is room")
+    void reserveSpots_shouldReserveEveryRequestedSpotWhenThereIsRoom(){
+        when(eventRepository.reserveSpots(event.getId(), 10)).thenReturn(1);
+
+        assertEquals(10, eventService.reserveSpots(event.getId(), 10));
+
+        verify(eventRepository, never()).findFreeSpots(any());
+    }
+
+    @Test
+    @DisplayName("reserveSpots() - Should reserve only what is left when there isn't room for everyone")
+    void reserveSpots_shouldReserveOnlyWhatIsLeftWhenThereIsNotRoomForEveryone(){
+        when(eventRepository.reserveSpots(event.getId(), 10)).thenReturn(0);
+        when(eventRepository.findFreeSpots(event.getId())).thenReturn(3);
+        when(eventRepository.reserveSpots(event.getId(), 3)).thenReturn(1);
+
+        assertEquals(3, eventService.reserveSpots(event.getId(), 10));
+    }
+
+    @Test
+    @DisplayName("reserveSpots() - Should reserve nothing when the event is full")
+    void reserveSpots_shouldReserveNothingWhenEventIsFull(){
+        when(eventRepository.reserveSpots(event.getId(), 10)).thenReturn(0);
+        when(eventRepository.findFreeSpots(event.getId())).thenReturn(0);
+
+        assertEquals(0, eventService.reserveSpots(event.getId(), 10));
+    }
+
+    @Test
+    @DisplayName("reserveSpots() - Should throw EntityNotFoundException when the event doesn't exist")
+    void reserveSpots_shouldThrowEntityNotFoundExceptionWhenEventDoesNotExist(){
+        when(eventRepository.reserveSpots(event.getId(), 10)).thenReturn(0);
+        when(eventRepository.findFreeSpots(event.getId())).thenReturn(null);
+
+        assertThrows(EntityNotFoundException.class, () -> eventService.reserveSpots(event.getId(), 10));
+    }
+
+    @Test
+    @DisplayName("releaseSpots() - Should release only the spots the waitlist didn't take")
+    void releaseSpots_shouldReleaseOnlySpotsWaitlistDidNotTake(){
+        when(waitlistService.promote(event.getId(), 3)).thenReturn(1);
+        when(hotEventSeatService.isHot(event.getId())).thenReturn(false);
+
+        eventService.releaseSpots(event.getId(), 3);
+
+        verify(eventRepository, times(1)).releaseSpots(event.getId(), 2);
+    }
+
+    @Test
+    @DisplayName("releaseSpots() - Should keep the counters when the waitlist took every spot")
+    void releaseSpots_shouldKeepCountersWhenWaitlistTookEverySpot(){
+        when(waitlistService.promote(event.getId(), 1)).thenReturn(1);
+
+        eventService.releaseSpots(event.getId(), 1);
+
+        verify(eventRepository, never()).releaseSpots(any(), anyInt());
+        verifyNoInteractions(hotEventSeatService);
+    }
+
+    @Test
+    @DisplayName("releaseOneSpotOfEach() - Should release the spots with one update and give back the hot seats")
+    void releaseOneSpotOfEach_shouldReleaseSpotsWithOneUpdateAndGiveBackHotSeats(){
+        UUID hotEventId = UUID.randomUUID();
+        List<UUID> eventIds = List.of(event.getId(), hotEventId);
+        when(hotEventSeatService.isHot(event.getId())).thenReturn(false);
+        when(hotEventSeatService.isHot(hotEventId)).thenReturn(true);
+        when(waitlistService.findEventIdsWithWaitlist(eventIds)).thenReturn(Set.of());
+
+        eventService.releaseOneSpotOfEach(eventIds);
+
+        verify(eventRepository, times(1)).releaseOneSpotOfEach(eventIds);
+        verify(hotEventSeatService, times(1)).release(hotEventId, 1);
+        verify(hotEventSeatService, never()).release(event.getId(), 1);
+    }
+
+    @Test
+    @DisplayName("releaseOneSpotOfEach() - Should only release the spots of events whose waitlist couldn't take them")
+    void releaseOneSpotOfEach_shouldOnlyReleaseSpotsWaitlistCouldNotTake(){
+        UUID waitedEventId = UUID.randomUUID();
+        when(waitlistService.findEventIdsWithWaitlist(List.of(event.getId(), waitedEventId))).thenReturn(Set.of(waitedEventId));
+        when(waitlistService.promote(waitedEventId, 1)).thenReturn(1);
+
+        eventService.releaseOneSpotOfEach(List.of(event.getId(), waitedEventId));
+
+        verify(eventRepository, times(1)).releaseOneSpotOfEach(List.of(event.getId()));
+        verify(entityCacheEvictor, times(1)).evict(Event.class, List.of(event.getId()));
+        verify(waitlistService, never()).promote(event.getId(), 1);
+    }
+
     @Test
     @DisplayName("isAvailableFreeSpot() - Should return true when spot is available")
     void isAvailableFreeSpot_shouldReturnTrueWhenSpotIsAvailable(){
@@ -173,6 +497,24 @@ class EventServiceTest {
         verify(eventRepository, times(1)).searchEvents(null, event.getLocation());
     }
 
+    @Test
+    @DisplayName("seatsLeft() - Should subtract the registered participants from the capacity")
+    void seatsLeft_shouldSubtractRegisteredParticipantsFromCapacity(){
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+
+        assertEquals(50, eventService.seatsLeft(event.getId()));
+    }
+
+    @Test
+    @DisplayName("seatsLeft() - Should read the in-memory counter of hot events")
+    void seatsLeft_shouldReadInMemoryCounterOfHotEvents(){
+        when(hotEventSeatService.isHot(event.getId())).thenReturn(true);
+        when(hotEventSeatService.available(event.getId())).thenReturn(7);
+
+        assertEquals(7, eventService.seatsLeft(event.getId()));
+        verifyNoInteractions(eventRepository);
+    }
+
     @Test
     @DisplayName("searchEvents() - Should return events when searching by title and location")
     void searchEvents_shouldReturnEventsWhenSearchingByTitleAndLocation(){
@@ -196,12 +538,43 @@ class EventServiceTest {
                 .build();
 
         when(eventRepository.save(any(Event.class))).thenReturn(event);
+        when(tableVersionRepository.increment("event")).thenReturn(1);
 
         Event result = eventService.create(eventCreateDto);
 
         assertNotNull(result);
         assertEquals(event, result);
         verify(eventRepository, times(1)).save(any(Event.class));
+        verify(eventSuggestService, times(1)).put(event);
+        verify(occupancyRollupService, times(1)).eventCreated(event);
+        verify(tableVersionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("create() - Should insert the table version row when it does not exist yet")
+    void create_shouldInsertTableVersionRowWhenItDoesNotExistYet(){
+        EventCreateDto eventCreateDto = EventCreateDto.builder()
+                .title(event.getTitle())
+                .location(event.getLocation())
+                .date(event.getDate())
+                .maxParticipants(event.getMaxParticipants())
+                .build();
+
+        when(eventRepository.save(any(Event.class))).thenReturn(event);
+        when(tableVersionRepository.increment("event")).thenReturn(0);
+
+        eventService.create(eventCreateDto);
+
+        verify(tableVersionRepository, times(1)).save(argThat(row -> row.getTableName().equals("event") && row.getVersion() == 1));
+    }
+
+    @Test
+    @DisplayName("listEtag() - Should combine the table version with the count and versions of the events")
+    void listEtag_shouldCombineTableVersionWithCountAndVersionsOfEvents(){
+        when(eventRepository.findTableStamp()).thenReturn(new EventTableStampDto(2, 7));
+        when(tableVersionRepository.findVersion("event")).thenReturn(Optional.of(3L));
+
+        assertEquals("3-2-7", eventService.listEtag());
     }
 
     @Test
@@ -227,7 +600,8 @@ class EventServiceTest {
 
         verify(eventRepository, times(1)).findById(eventId);
         verify(eventRepository, times(1)).save(eventLocal);
-
+        verify(eventSuggestService, times(1)).put(eventLocal);
+        verify(eventPublisher, times(1)).publishEvent(new EventChangedEvent(eventId));
     }
 
     @Test
@@ -259,24 +633,37 @@ class EventServiceTest {
                 .location(oldLocation)
                 .build();
 
-        EventUpdateLocationDto updateDto = new EventUpdateLocationDto(newLocation);
+        EventUpdateLocationDto updateDto = new EventUpdateLocationDto(newLocation, 38.72, -9.14);
 
         when(eventRepository.findById(eventId)).thenReturn(Optional.of(eventLocal));
 
         eventService.updateLocation(eventId, updateDto);
 
         assertEquals(newLocation, eventLocal.getLocation());
+        assertEquals(38.72, eventLocal.getLatitude());
+        assertEquals(-9.14, eventLocal.getLongitude());
+        assertEquals(GeoGrid.cellOf(38.72, -9.14), eventLocal.getGridCell());
 
         verify(eventRepository, times(1)).findById(eventId);
         verify(eventRepository, times(1)).save(eventLocal);
+        verify(eventSuggestService, times(1)).put(eventLocal);
+    }
 
+    @Test
+    @DisplayName("updateLocation() - Should throw BadRequestException when only one coordinate is given")
+    void updateLocation_ShouldThrowBadRequestException_WhenOnlyOneCoordinateIsGiven(){
+        UUID eventId = UUID.randomUUID();
+
+        assertThrows(BadRequestException.class,
+                () -> eventService.updateLocation(eventId, new EventUpdateLocationDto("New Location", 38.72, null)));
+        verifyNoInteractions(eventRepository);
     }
 
     @Test
     @DisplayName("updateLocation() - Should throw EntityNotFoundException when updating Location for non-existent event")
     void updateLocation_ShouldThrowEntityNotFoundException_WhenEventNotFound() {
         UUID eventId = UUID.randomUUID();
-        EventUpdateLocationDto updateDto = new EventUpdateLocationDto("New Location");
+        EventUpdateLocationDto updateDto = new EventUpdateLocationDto("New Location", null, null);
 
         when(eventRepository.findById(eventId)).thenReturn(Optional.empty());
 
@@ -311,7 +698,7 @@ class EventServiceTest {
 
         verify(eventRepository, times(1)).findById(eventId);
         verify(eventRepository, times(1)).save(event);
-
+        verify(occupancyRollupService, times(1)).eventMoved(event, oldDate, null);
     }
 
     @Test
@@ -353,6 +740,20 @@ class EventServiceTest {
 
         verify(eventRepository, times(1)).findById(eventId);
         verify(eventRepository, times(1)).save(event);
+        verify(occupancyRollupService, times(1)).capacityChanged(event, 50);
+    }
+
+    @Test
+    @DisplayName("updateParticipants() - Should give the new spots to the waitlist first")
+    void updateParticipants_ShouldGiveNewSpotsToWaitlistFirst(){
+        event.setHot(true);
+        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(waitlistService.promote(event.getId(), 20)).thenReturn(5);
+
+        eventService.updateParticipants(event.getId(), new EventUpdateParticipantsDto(120));
+
+        verify(eventRepository, times(1)).addRegisteredParticipants(event.getId(), 5);
+        verify(hotEventSeatService, times(1)).resize(event.getId(), 15);
     }
 
     @Test
@@ -379,10 +780,16 @@ class EventServiceTest {
 
         doNothing().when(eventRepository).deleteById(event.getId());
 
+        when(tableVersionRepository.increment("event")).thenReturn(1);
+
         eventService.delete(event.getId());
 
         verify(eventRepository, times(1)).findById(event.getId());
         verify(eventRepository, times(1)).deleteById(event.getId());
+        verify(tableVersionRepository, times(1)).increment("event");
+        verify(eventTombstoneRepository, times(1)).save(argThat(tombstone -> tombstone.getEventId().equals(event.getId())));
+        verify(eventSuggestService, times(1)).remove(event.getId());
+        verify(occupancyRollupService, times(1)).eventDeleted(event);
     }
 
     @Test
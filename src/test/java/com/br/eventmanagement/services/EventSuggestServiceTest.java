@@ -0,0 +1,103 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.event.EventSuggestSourceDto;
+import com.br.eventmanagement.dtos.event.EventSuggestionDto;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.br.eventmanagement.dtos.event.EventSuggestionDto.Field.LOCATION;
+import static com.br.eventmanagement.dtos.event.EventSuggestionDto.Field.TITLE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventSuggestService Unit Tests")
+class EventSuggestServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private EventSuggestService eventSuggestService;
+
+    private final UUID rockInRio = UUID.randomUUID();
+    private final UUID rockNight = UUID.randomUUID();
+    private final UUID lisbonRock = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(){
+        eventSuggestService = new EventSuggestService(eventRepository, 10, 50);
+        when(eventRepository.findSuggestSources()).thenReturn(List.of(
+                new EventSuggestSourceDto(rockInRio, "Rock in Rio", "Rio de Janeiro", 900),
+                new EventSuggestSourceDto(rockNight, "Rock Night", "São Paulo", 40),
+                new EventSuggestSourceDto(lisbonRock, "Rock in Rio", "Lisboa", 300)));
+        eventSuggestService.rebuild();
+    }
+
+    @Test
+    @DisplayName("suggest() - Should rank the titles and locations starting with the prefix by registered participants")
+    void suggest_shouldRankTermsStartingWithPrefixByPopularity(){
+        assertEquals(List.of(
+                        new EventSuggestionDto("Rock in Rio", TITLE, 1200),
+                        new EventSuggestionDto("Rio de Janeiro", LOCATION, 900),
+                        new EventSuggestionDto("Rock Night", TITLE, 40)),
+                eventSuggestService.suggest("r", null));
+        assertEquals(List.of(new EventSuggestionDto("Rock in Rio", TITLE, 1200)), eventSuggestService.suggest("ROCK", 1));
+    }
+
+    @Test
+    @DisplayName("suggest() - Should match any word of the term, ignoring case, accents and punctuation")
+    void suggest_shouldMatchAnyWordIgnoringCaseAccentsAndPunctuation(){
+        assertEquals(List.of(new EventSuggestionDto("Rock in Rio", TITLE, 1200)), eventSuggestService.suggest("in  r", null));
+        assertEquals(List.of(new EventSuggestionDto("São Paulo", LOCATION, 40)), eventSuggestService.suggest("sao-p", null));
+        assertEquals(List.of(), eventSuggestService.suggest("madrid", null));
+    }
+
+    @Test
+    @DisplayName("suggest() - Should throw BadRequestException when the prefix has no letter or digit")
+    void suggest_shouldThrowBadRequestExceptionWhenPrefixHasNoLetterOrDigit(){
+        assertThrows(BadRequestException.class, () -> eventSuggestService.suggest(" !", null));
+    }
+
+    @Test
+    @DisplayName("put() - Should move the event to its new title and drop terms no event has anymore")
+    void put_shouldMoveEventToNewTitleAndDropUnusedTerms(){
+        eventSuggestService.put(Event.builder().id(rockNight).title("Jazz Night").location("São Paulo")
+                .registeredParticipants(40).build());
+
+        assertEquals(List.of(), eventSuggestService.suggest("rock n", null));
+        assertEquals(List.of(new EventSuggestionDto("Jazz Night", TITLE, 40)), eventSuggestService.suggest("jazz", null));
+        assertEquals(List.of(new EventSuggestionDto("São Paulo", LOCATION, 40)), eventSuggestService.suggest("sao", null));
+    }
+
+    @Test
+    @DisplayName("remove() - Should take the popularity of the event back from the terms it shares")
+    void remove_shouldTakePopularityBackFromSharedTerms(){
+        eventSuggestService.remove(rockInRio);
+
+        assertEquals(List.of(new EventSuggestionDto("Rock in Rio", TITLE, 300)), eventSuggestService.suggest("rock i", null));
+        assertEquals(List.of(), eventSuggestService.suggest("janeiro", null));
+    }
+
+    @Test
+    @DisplayName("bindTo() - Should report the size and the estimated memory of the index")
+    void bindTo_shouldReportSizeAndEstimatedMemory(){
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        eventSuggestService.bindTo(registry);
+
+        //"rock in rio", "in rio", "rio", "rio de janeiro", "de janeiro", "janeiro", "rock night", "night", "sao paulo", "paulo", "lisboa"
+        assertEquals(11, registry.get("event.suggest.keys").gauge().value());
+        assertEquals(5, registry.get("event.suggest.terms").gauge().value());
+        assertTrue(registry.get("event.suggest.memory").gauge().value() > 0);
+    }
+}
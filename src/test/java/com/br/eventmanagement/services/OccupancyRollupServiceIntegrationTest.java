@@ -0,0 +1,229 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.cache.EntityCacheEvictor;
+import com.br.eventmanagement.config.CacheConfig;
+import com.br.eventmanagement.config.PasswordConfig;
+import com.br.eventmanagement.config.SecondLevelCacheConfig;
+import com.br.eventmanagement.datasource.ReplicaLagGuard;
+import com.br.eventmanagement.dtos.event.EventCreateDto;
+import com.br.eventmanagement.dtos.event.EventUpdateLocationDto;
+import com.br.eventmanagement.dtos.event.EventUpdateParticipantsDto;
+import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.stats.OccupancyDayDto;
+import com.br.eventmanagement.dtos.stats.OccupancyHourDto;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.enums.UserRole;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.repositories.EventDayOccupancyRepository;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.RegistrationRollupRepository;
+import com.br.eventmanagement.repositories.UserRepository;
+import com.br.eventmanagement.repositories.WaitlistEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//the rollups written by the real services against H2, every call commits on its own
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OccupancyRollupService.class, RegistrationService.class, EventService.class, HotEventSeatService.class,
+        WaitlistService.class, EventSuggestService.class, ReplicaLagGuard.class, EntityCacheEvictor.class, UserService.class,
+        PasswordConfig.class, CacheConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OccupancyRollupService Integration Tests")
+class OccupancyRollupServiceIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OccupancyRollupService occupancyRollupService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private RegistrationRollupRepository registrationRollupRepository;
+
+    @Autowired
+    private EventDayOccupancyRepository eventDayOccupancyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime date = LocalDateTime.now().plusDays(10);
+
+    private Event event;
+
+    @BeforeEach
+    void setUp(){
+        //every registration waits on the same event row, the default H2 lock timeout (1s) is too short for that
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 30000");
+
+        event = eventService.create(new EventCreateDto("Flash sale", "Sao Paulo, Brazil", date, 100, null, null));
+    }
+
+    @AfterEach
+    void tearDown(){
+        registrationRollupRepository.deleteAllInBatch();
+        eventDayOccupancyRepository.deleteAllInBatch();
+        waitlistEntryRepository.deleteAllInBatch();
+        registrationRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("findByDay() - Should count the events, seats and registrations of the day and location")
+    void findByDay_shouldCountEventsSeatsAndRegistrationsOfDayAndLocation(){
+        eventService.create(new EventCreateDto("Second", "Sao Paulo, Brazil", date, 300, null, null));
+        List<User> users = this.createUsers(3);
+        users.forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+        registrationService.deleteByUserIdAndEventId(users.getFirst().getId(), event.getId());
+
+        List<OccupancyDayDto> days = occupancyRollupService.findByDay(date.toLocalDate(), date.toLocalDate().plusDays(1));
+
+        assertEquals(List.of(new OccupancyDayDto(date.toLocalDate(), "Sao Paulo, Brazil", 2, 400, 2)), days);
+        assertEquals(0.005, days.getFirst().occupancy());
+    }
+
+    @Test
+    @DisplayName("findByHour() - Should sum the registrations held at the end of every hour")
+    void findByHour_shouldSumRegistrationsHeldAtEndOfEveryHour(){
+        List<User> users = this.createUsers(3);
+        users.forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+        registrationService.deleteAllByUserId(users.getLast().getId());
+
+        List<OccupancyHourDto> hours = occupancyRollupService.findByHour(event.getId());
+
+        assertEquals(1, hours.size());
+        assertEquals(3, hours.getFirst().registered());
+        assertEquals(1, hours.getFirst().cancelled());
+        assertEquals(2, hours.getFirst().registrations());
+    }
+
+    @Test
+    @DisplayName("findByDay() - Should throw BadRequestException when the range is empty")
+    void findByDay_shouldThrowBadRequestExceptionWhenRangeIsEmpty(){
+        assertThrows(BadRequestException.class, () -> occupancyRollupService.findByDay(date.toLocalDate(), date.toLocalDate()));
+    }
+
+    @Test
+    @DisplayName("eventMoved() - Should move the seats and registrations of the event to its new location")
+    void eventMoved_shouldMoveSeatsAndRegistrationsToNewLocation(){
+        List<User> users = this.createUsers(2);
+        users.forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+
+        eventService.updateLocation(event.getId(), new EventUpdateLocationDto("Rio de Janeiro, Brazil", null, null));
+        eventService.updateParticipants(event.getId(), new EventUpdateParticipantsDto(150));
+
+        assertEquals(List.of(new OccupancyDayDto(date.toLocalDate(), "Rio de Janeiro, Brazil", 1, 150, 2)),
+                occupancyRollupService.findByDay(date.toLocalDate(), date.toLocalDate().plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("eventDeleted() - Should take the event off the day and drop its hours")
+    void eventDeleted_shouldTakeEventOffDayAndDropItsHours(){
+        this.createUsers(2).forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+        registrationService.deleteAllByEventId(event.getId());
+        assertEquals(0, registrationRollupRepository.countRegistrations(event.getId()));
+
+        eventService.delete(event.getId());
+
+        assertTrue(occupancyRollupService.findByDay(date.toLocalDate(), date.toLocalDate().plusDays(1)).isEmpty());
+        assertEquals(0, registrationRollupRepository.count());
+    }
+
+    @Test
+    @DisplayName("registered() - Should count every registration once under concurrent load")
+    void registered_shouldCountEveryRegistrationOnceUnderConcurrentLoad() throws Exception {
+        List<User> users = this.createUsers(300);
+
+        this.runConcurrently(users.stream().<Runnable>map(user -> () -> {
+            try {
+                registrationService.create(new RegistrationCreateDto(user.getId(), event.getId()));
+            } catch (BadRequestException ignored) {
+            }
+        }).toList());
+
+        assertEquals(100, registrationRollupRepository.countRegistrations(event.getId()));
+        assertEquals(100, occupancyRollupService.findByDay(date.toLocalDate(), date.toLocalDate().plusDays(1))
+                .getFirst().registered());
+    }
+
+    @Test
+    @DisplayName("rebuild() - Should recompute both rollups from the events and registrations")
+    void rebuild_shouldRecomputeRollupsFromEventsAndRegistrations(){
+        this.createUsers(2).forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+        jdbcTemplate.update("DELETE FROM event_day_occupancy");
+        jdbcTemplate.update("UPDATE registration_rollup SET registered = 50");
+
+        occupancyRollupService.rebuild();
+
+        assertEquals(List.of(new OccupancyDayDto(date.toLocalDate(), "Sao Paulo, Brazil", 1, 100, 2)),
+                occupancyRollupService.findByDay(date.toLocalDate(), date.toLocalDate().plusDays(1)));
+        assertEquals(2, occupancyRollupService.findByHour(event.getId()).getLast().registrations());
+    }
+
+    private List<User> createUsers(int amount){
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            User user = new User("user-" + i, "password", "user-" + i + "@gmail.com");
+            user.setRole(UserRole.PARTICIPANT);
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    private void runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
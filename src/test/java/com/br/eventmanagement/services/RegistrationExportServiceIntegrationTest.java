@@ -0,0 +1,161 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.cache.EntityCacheEvictor;
+import com.br.eventmanagement.config.CacheConfig;
+import com.br.eventmanagement.config.SecondLevelCacheConfig;
+import com.br.eventmanagement.datasource.ReplicaLagGuard;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.enums.RegistrationExportFormat;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({RegistrationExportService.class, EventService.class, HotEventSeatService.class, WaitlistService.class,
+        EventSuggestService.class, OccupancyRollupService.class, ReplicaLagGuard.class, EntityCacheEvictor.class, CacheConfig.class,
+        SecondLevelCacheConfig.class, RegistrationExportServiceIntegrationTest.JsonConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("RegistrationExportService Integration Tests")
+class RegistrationExportServiceIntegrationTest {
+
+    private static final int REGISTRATIONS = 50_000;
+
+    @TestConfiguration
+    static class JsonConfig {
+        @Bean
+        ObjectMapper objectMapper() {
+            return JsonMapper.builder().build();
+        }
+    }
+
+    @Autowired
+    private RegistrationExportService registrationExportService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp(){
+        event = eventRepository.save(Event.builder()
+                .title("Festival")
+                .location("Sao Paulo, Brazil")
+                .date(LocalDateTime.now().plusDays(10))
+                .maxParticipants(REGISTRATIONS)
+                .registeredParticipants(REGISTRATIONS)
+                .build());
+
+        //plain JDBC batches, loading the fixture through JPA would take longer than the export itself
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> registrations = new ArrayList<>();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            UUID userId = UUID.randomUUID();
+            users.add(new Object[]{userId, "user-" + i, "user-" + i + "@gmail.com", "password", "PARTICIPANT", now});
+            registrations.add(new Object[]{UUID.randomUUID(), event.getId(), userId, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, role, created_at, credential_version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO registration (id, event_id, user_id, created_at) VALUES (?, ?, ?, ?)", registrations);
+    }
+
+    @AfterEach
+    void tearDown(){
+        registrationRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("write() - Should stream every registration as CSV without keeping entities in memory")
+    void write_shouldStreamEveryRegistrationAsCsvWithoutKeepingEntitiesInMemory() throws Exception {
+        ManagedEntitiesProbe output = new ManagedEntitiesProbe();
+
+        registrationExportService.write(event.getId(), RegistrationExportFormat.CSV, output);
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(REGISTRATIONS + 1, lines.length);
+        assertEquals("registrationId,userId,username,email,createdAt", lines[0]);
+        assertTrue(output.writes > 1, "rows must reach the response while the result set is still open");
+        assertEquals(0, output.maxManagedEntities);
+    }
+
+    @Test
+    @DisplayName("write() - Should stream one JSON document per line as NDJSON")
+    void write_shouldStreamOneJsonDocumentPerLineAsNdjson() throws Exception {
+        ManagedEntitiesProbe output = new ManagedEntitiesProbe();
+
+        registrationExportService.write(event.getId(), RegistrationExportFormat.NDJSON, output);
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(REGISTRATIONS, lines.length);
+        assertTrue(lines[0].startsWith("{\"registrationId\":"));
+        assertEquals(0, output.maxManagedEntities);
+    }
+
+    //collects the export and looks at the persistence context every time a buffer of rows is written
+    private class ManagedEntitiesProbe extends OutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int writes;
+        private int maxManagedEntities;
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            maxManagedEntities = Math.max(maxManagedEntities,
+                    entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+            bytes.write(b, off, len);
+        }
+
+        @Override
+        public String toString() {
+            return bytes.toString();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
+import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationTicketDto;
+import com.br.eventmanagement.enums.RegistrationBatchStatus;
+import com.br.eventmanagement.enums.RegistrationTicketStatus;
+import com.br.eventmanagement.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RegistrationIntakeService Unit Tests")
+class RegistrationIntakeServiceTest {
+
+    @Mock
+    private RegistrationService registrationService;
+
+    private RegistrationIntakeService intakeService;
+    private SimpleMeterRegistry meterRegistry;
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp(){
+        //the worker isn't started, the tests drive process() themselves
+        intakeService = new RegistrationIntakeService(registrationService, true, 2, 500, Duration.ofMinutes(10));
+        meterRegistry = new SimpleMeterRegistry();
+        intakeService.bindTo(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("submit() - Should queue the registration and hand out a pending ticket")
+    void submit_shouldQueueRegistrationAndHandOutPendingTicket(){
+        RegistrationTicketDto ticket = intakeService.submit(new RegistrationCreateDto(userId, eventId));
+
+        assertEquals(RegistrationTicketStatus.PENDING, ticket.status());
+        assertEquals(ticket, intakeService.getTicket(ticket.ticketId()));
+        assertEquals(1, meterRegistry.get("registration.intake.queue.depth").gauge().value());
+        verifyNoInteractions(registrationService);
+    }
+
+    @Test
+    @DisplayName("submit() - Should throw TooManyRequestsException when the queue is full")
+    void submit_shouldThrowTooManyRequestsExceptionWhenQueueIsFull(){
+        intakeService.submit(new RegistrationCreateDto(userId, eventId));
+        intakeService.submit(new RegistrationCreateDto(UUID.randomUUID(), eventId));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> intakeService.submit(new RegistrationCreateDto(UUID.randomUUID(), eventId)));
+
+        assertEquals(1, meterRegistry.get("registration.intake.rejected").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("getTicket() - Should throw EntityNotFoundException when the ticket doesn't exist")
+    void getTicket_shouldThrowEntityNotFoundExceptionWhenTicketDoesNotExist(){
+        assertThrows(EntityNotFoundException.class, () -> intakeService.getTicket(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("process() - Should register every event of the batch once and complete the tickets")
+    void process_shouldRegisterEveryEventOfBatchOnceAndCompleteTickets(){
+        UUID otherEventId = UUID.randomUUID();
+        UUID registrationId = UUID.randomUUID();
+        RegistrationTicketDto first = intakeService.submit(new RegistrationCreateDto(userId, eventId));
+        RegistrationTicketDto repeated = new RegistrationTicketDto(UUID.randomUUID(), userId, eventId,
+                RegistrationTicketStatus.PENDING, null, null);
+        RegistrationTicketDto missingEvent = new RegistrationTicketDto(UUID.randomUUID(), userId, otherEventId,
+                RegistrationTicketStatus.PENDING, null, null);
+
+        when(registrationService.createBatch(new RegistrationBatchCreateDto(eventId, List.of(userId, userId))))
+                .thenReturn(List.of(new RegistrationBatchResultDto(userId, RegistrationBatchStatus.CREATED, registrationId)));
+        when(registrationService.createBatch(new RegistrationBatchCreateDto(otherEventId, List.of(userId))))
+                .thenThrow(new EntityNotFoundException("Event not found"));
+
+        intakeService.process(List.of(first, repeated, missingEvent));
+
+        RegistrationTicketDto created = intakeService.getTicket(first.ticketId());
+        assertEquals(RegistrationTicketStatus.CREATED, created.status());
+        assertEquals(registrationId, created.registrationId());
+        assertEquals(RegistrationTicketStatus.DUPLICATE, intakeService.getTicket(repeated.ticketId()).status());
+        assertEquals("Event not found", intakeService.getTicket(missingEvent.ticketId()).message());
+        assertEquals(3, meterRegistry.get("registration.intake.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("process() - Should give a repeated ticket the outcome of the first one when it did not register")
+    void process_shouldGiveRepeatedTicketOutcomeOfFirstOneWhenItDidNotRegister(){
+        RegistrationTicketDto first = intakeService.submit(new RegistrationCreateDto(userId, eventId));
+        RegistrationTicketDto repeated = intakeService.submit(new RegistrationCreateDto(userId, eventId));
+        when(registrationService.createBatch(new RegistrationBatchCreateDto(eventId, List.of(userId, userId))))
+                .thenReturn(List.of(new RegistrationBatchResultDto(userId, RegistrationBatchStatus.NO_CAPACITY, null)));
+
+        intakeService.process(List.of(first, repeated));
+
+        assertEquals(RegistrationTicketStatus.NO_CAPACITY, intakeService.getTicket(first.ticketId()).status());
+        assertEquals(RegistrationTicketStatus.NO_CAPACITY, intakeService.getTicket(repeated.ticketId()).status());
+    }
+
+    @Test
+    @DisplayName("getTicket() - Should keep pending tickets while finished ones fill the store")
+    void getTicket_shouldKeepPendingTicketsWhileFinishedOnesFillStore(){
+        RegistrationTicketDto waiting = intakeService.submit(new RegistrationCreateDto(userId, eventId));
+        //the store holds 20 finished tickets with a queue of 2
+        List<RegistrationTicketDto> finished = Stream.generate(() -> new RegistrationTicketDto(UUID.randomUUID(),
+                UUID.randomUUID(), eventId, RegistrationTicketStatus.PENDING, null, null)).limit(100).toList();
+        when(registrationService.createBatch(any())).thenAnswer(invocation ->
+                invocation.<RegistrationBatchCreateDto>getArgument(0).userIds().stream()
+                        .map(id -> new RegistrationBatchResultDto(id, RegistrationBatchStatus.CREATED, UUID.randomUUID()))
+                        .toList());
+
+        intakeService.process(finished);
+
+        assertEquals(RegistrationTicketStatus.PENDING, intakeService.getTicket(waiting.ticketId()).status());
+    }
+}
@@ -0,0 +1,415 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.cache.EntityCacheEvictor;
+import com.br.eventmanagement.config.CacheConfig;
+import com.br.eventmanagement.config.PasswordConfig;
+import com.br.eventmanagement.config.SecondLevelCacheConfig;
+import com.br.eventmanagement.datasource.ReplicaLagGuard;
+import com.br.eventmanagement.dtos.event.EventUpdateHotDto;
+import com.br.eventmanagement.dtos.event.EventUpdateParticipantsDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
+import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationView;
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.Registration;
+import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.enums.RegistrationBatchStatus;
+import com.br.eventmanagement.enums.UserRole;
+import com.br.eventmanagement.exceptions.BadRequestException;
+import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
+import com.br.eventmanagement.repositories.EventRepository;
+import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.UserRepository;
+import com.br.eventmanagement.repositories.WaitlistEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.br.eventmanagement.repositories.SqlStatementCounter.assertStatements;
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs the real services against H2, every call commits on its own so the threads really compete
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({RegistrationService.class, EventService.class, HotEventSeatService.class, WaitlistService.class,
+        EventSuggestService.class, OccupancyRollupService.class, ReplicaLagGuard.class, EntityCacheEvictor.class, UserService.class,
+        PasswordConfig.class, CacheConfig.class, SecondLevelCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("RegistrationService Integration Tests")
+class RegistrationServiceIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private HotEventSeatService hotEventSeatService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp(){
+        //every registration waits on the same event row, the default H2 lock timeout (1s) is too short for that
+        jdbcTemplate.execute("SET DEFAULT_LOCK_TIMEOUT 30000");
+
+        event = eventRepository.save(Event.builder()
+                .title("Flash sale")
+                .location("Sao Paulo, Brazil")
+                .date(LocalDateTime.now().plusDays(10))
+                .maxParticipants(100)
+                .registeredParticipants(0)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown(){
+        hotEventSeatService.rebuild();
+        waitlistEntryRepository.deleteAllInBatch();
+        registrationRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("create() - Should never register more participants than the event allows under concurrent load")
+    void create_shouldNeverExceedMaxParticipantsUnderConcurrentLoad() throws Exception {
+        List<User> users = this.createUsers(2_000);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        this.runConcurrently(users.stream().<Runnable>map(user -> () -> {
+            try {
+                registrationService.create(new RegistrationCreateDto(user.getId(), event.getId()));
+                created.incrementAndGet();
+            } catch (BadRequestException exception) {
+                rejected.incrementAndGet();
+            }
+        }).toList());
+
+        Event result = eventRepository.findById(event.getId()).orElseThrow();
+        assertEquals(100, created.get());
+        assertEquals(1_900, rejected.get());
+        assertEquals(100, result.getRegisteredParticipants());
+        assertEquals(100, registrationRepository.findAllByEventId(event.getId()).size());
+    }
+
+    @Test
+    @DisplayName("create() - Should never exceed max participants when the seats of a hot event come from memory")
+    void create_shouldNeverExceedMaxParticipantsWhenEventIsHot() throws Exception {
+        eventService.updateHot(event.getId(), new EventUpdateHotDto(true));
+        List<User> users = this.createUsers(2_000);
+        AtomicInteger created = new AtomicInteger();
+
+        this.runConcurrently(users.stream().<Runnable>map(user -> () -> {
+            try {
+                registrationService.create(new RegistrationCreateDto(user.getId(), event.getId()));
+                created.incrementAndGet();
+            } catch (BadRequestException ignored) {
+            }
+        }).toList());
+        hotEventSeatService.flush();
+
+        assertEquals(100, created.get());
+        assertEquals(0, hotEventSeatService.available(event.getId()));
+        assertEquals(100, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(100, registrationRepository.findAllByEventId(event.getId()).size());
+    }
+
+    @Test
+    @DisplayName("updateHot() - Should write the seats taken from memory before the event leaves the hot path")
+    void updateHot_shouldWriteSeatsTakenFromMemoryBeforeEventLeavesHotPath(){
+        Event smallEvent = eventRepository.save(Event.builder()
+                .title("Workshop")
+                .location("Sao Paulo, Brazil")
+                .date(LocalDateTime.now().plusDays(10))
+                .maxParticipants(3)
+                .registeredParticipants(0)
+                .build());
+        eventService.updateHot(smallEvent.getId(), new EventUpdateHotDto(true));
+        List<User> users = this.createUsers(4);
+        users.subList(0, 3).forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), smallEvent.getId())));
+
+        eventService.updateHot(smallEvent.getId(), new EventUpdateHotDto(false));
+
+        assertEquals(3, eventRepository.findById(smallEvent.getId()).orElseThrow().getRegisteredParticipants());
+        assertThrows(BadRequestException.class,
+                () -> registrationService.create(new RegistrationCreateDto(users.getLast().getId(), smallEvent.getId())));
+    }
+
+    @Test
+    @DisplayName("create() - Should register the same user only once under concurrent load")
+    void create_shouldRegisterSameUserOnlyOnceUnderConcurrentLoad() throws Exception {
+        User user = this.createUsers(1).getFirst();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger duplicated = new AtomicInteger();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(() -> {
+                try {
+                    registrationService.create(new RegistrationCreateDto(user.getId(), event.getId()));
+                    created.incrementAndGet();
+                } catch (EntityAlreadyExistsException exception) {
+                    duplicated.incrementAndGet();
+                }
+            });
+        }
+        this.runConcurrently(tasks);
+
+        assertEquals(1, created.get());
+        assertEquals(49, duplicated.get());
+        //the rolled back attempts must give their spot back
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+    }
+
+    @Test
+    @DisplayName("create() - Should not leave the seat of a rolled back registration in the event cache")
+    void create_shouldNotLeaveSeatOfRolledBackRegistrationInEventCache(){
+        User user = this.createUsers(1).getFirst();
+        registrationService.create(new RegistrationCreateDto(user.getId(), event.getId()));
+
+        assertThrows(EntityAlreadyExistsException.class,
+                () -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+
+        assertEquals(1, eventService.getById(event.getId()).getRegisteredParticipants());
+        assertEquals(99, eventService.seatsLeft(event.getId()));
+    }
+
+    @Test
+    @DisplayName("createBatch() - Should register the batch up to the capacity left in one transaction")
+    void createBatch_shouldRegisterBatchUpToCapacityLeft(){
+        List<User> users = this.createUsers(150);
+        registrationService.create(new RegistrationCreateDto(users.getFirst().getId(), event.getId()));
+
+        List<RegistrationBatchResultDto> result = registrationService.createBatch(new RegistrationBatchCreateDto(
+                event.getId(), users.stream().map(User::getId).toList()));
+
+        Map<RegistrationBatchStatus, Long> statuses = result.stream()
+                .collect(Collectors.groupingBy(RegistrationBatchResultDto::status, Collectors.counting()));
+        assertEquals(1, statuses.get(RegistrationBatchStatus.DUPLICATE));
+        assertEquals(99, statuses.get(RegistrationBatchStatus.CREATED));
+        assertEquals(50, statuses.get(RegistrationBatchStatus.NO_CAPACITY));
+        assertEquals(100, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(100, registrationRepository.findAllByEventId(event.getId()).size());
+    }
+
+    @Test
+    @DisplayName("deleteByUserIdAndEventId() - Should give the spot back to the event")
+    void deleteByUserIdAndEventId_shouldGiveSpotBackToEvent(){
+        List<User> users = this.createUsers(2);
+        users.forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+
+        registrationService.deleteByUserIdAndEventId(users.getFirst().getId(), event.getId());
+
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(1, registrationRepository.findAllByEventId(event.getId()).size());
+    }
+
+    @Test
+    @DisplayName("deleteAllByUserId() - Should give back one spot of every event, hot ones included")
+    void deleteAllByUserId_shouldGiveBackOneSpotOfEveryEvent(){
+        List<User> users = this.createUsers(2);
+        Event hotEvent = this.createEvents(1).getFirst();
+        eventService.updateHot(hotEvent.getId(), new EventUpdateHotDto(true));
+        for (Event current : List.of(event, hotEvent)) {
+            users.forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), current.getId())));
+        }
+        hotEventSeatService.flush();
+
+        registrationService.deleteAllByUserId(users.getFirst().getId());
+        hotEventSeatService.flush();
+
+        assertEquals(1, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(1, eventRepository.findById(hotEvent.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(99, hotEventSeatService.available(hotEvent.getId()));
+        assertTrue(registrationRepository.findAllByUserId(users.getFirst().getId()).isEmpty());
+        assertEquals(2, registrationRepository.findAllByUserId(users.getLast().getId()).size());
+    }
+
+    //the old path issued two statements per registration
+    @Test
+    @DisplayName("deleteAllByUserId() - Should delete 10k registrations of a user with a fixed number of statements per chunk")
+    void deleteAllByUserId_shouldDeleteTenThousandRegistrationsOfUser(){
+        User user = this.createUsers(1).getFirst();
+        List<Event> events = this.createEvents(10_000);
+        registrationRepository.saveAll(events.stream().map(current -> new Registration(user, current)).toList());
+        jdbcTemplate.update("UPDATE event SET registered_participants = 1 WHERE id <> ?", event.getId());
+
+        //the lock, then delete, waitlist lookup, seat update, place count and hourly rollup for each chunk of 1000,
+        //and the daily rollup once before the commit
+        assertStatements(1 + 10 * 5 + 1, () -> {
+            registrationService.deleteAllByUserId(user.getId());
+            return null;
+        });
+
+        assertEquals(0, registrationRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event WHERE registered_participants <> 0", Integer.class));
+    }
+
+    @Test
+    @DisplayName("findAllByEventId() - Should answer 10k registrations with a smaller payload than the entity graph")
+    void findAllByEventId_shouldAnswerTenThousandRegistrationsWithSmallerPayloadThanEntities(){
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> registrations = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID userId = UUID.randomUUID();
+            users.add(new Object[]{userId, "user-" + i, "user-" + i + "@gmail.com", "password", "PARTICIPANT", now});
+            registrations.add(new Object[]{UUID.randomUUID(), event.getId(), userId, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, role, created_at, credential_version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, 0)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO registration (id, event_id, user_id, created_at) VALUES (?, ?, ?, ?)", registrations);
+        ObjectMapper objectMapper = JsonMapper.builder().build();
+
+        //what the endpoint used to return, every registration with its whole user and event
+        byte[] entities = objectMapper.writeValueAsBytes(registrationRepository.findAllByEventId(event.getId()));
+
+        List<RegistrationView> result = registrationService.findAllByEventId(event.getId());
+        byte[] views = objectMapper.writeValueAsBytes(result);
+
+        assertEquals(10_000, result.size());
+        assertTrue(views.length < entities.length / 2);
+        assertFalse(new String(views).contains("password"));
+    }
+
+    @Test
+    @DisplayName("deleteByUserIdAndEventId() - Should hand the freed spot to the head of the waitlist")
+    void deleteByUserIdAndEventId_shouldHandFreedSpotToHeadOfWaitlist(){
+        List<User> users = this.createUsers(102);
+        this.fillEvent(users.subList(0, 100));
+        registrationService.joinWaitlist(new RegistrationCreateDto(users.get(100).getId(), event.getId()));
+        registrationService.joinWaitlist(new RegistrationCreateDto(users.get(101).getId(), event.getId()));
+
+        registrationService.deleteByUserIdAndEventId(users.getFirst().getId(), event.getId());
+
+        assertEquals(100, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertTrue(registrationRepository.existsRegistrationByUserIdAndEventId(users.get(100).getId(), event.getId()));
+        assertFalse(registrationRepository.existsRegistrationByUserIdAndEventId(users.get(101).getId(), event.getId()));
+        assertEquals(1, waitlistEntryRepository.count());
+    }
+
+    @Test
+    @DisplayName("updateParticipants() - Should hand the new spots to the waitlist")
+    void updateParticipants_shouldHandNewSpotsToWaitlist(){
+        List<User> users = this.createUsers(103);
+        this.fillEvent(users.subList(0, 100));
+        users.subList(100, 103).forEach(user ->
+                registrationService.joinWaitlist(new RegistrationCreateDto(user.getId(), event.getId())));
+
+        eventService.updateParticipants(event.getId(), new EventUpdateParticipantsDto(110));
+
+        assertEquals(103, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(0, waitlistEntryRepository.count());
+        assertTrue(eventService.isAvailableFreeSpot(event.getId()));
+    }
+
+    @Test
+    @DisplayName("deleteByUserIdAndEventId() - Should promote every waiting user at most once when seats free up concurrently")
+    void deleteByUserIdAndEventId_shouldPromoteEveryWaitingUserOnceUnderConcurrentLoad() throws Exception {
+        List<User> users = this.createUsers(150);
+        this.fillEvent(users.subList(0, 100));
+        users.subList(100, 150).forEach(user ->
+                registrationService.joinWaitlist(new RegistrationCreateDto(user.getId(), event.getId())));
+
+        //the 50 cancellations skip the entries locked by each other instead of queueing on them
+        this.runConcurrently(users.subList(0, 50).stream().<Runnable>map(user ->
+                () -> registrationService.deleteByUserIdAndEventId(user.getId(), event.getId())).toList());
+
+        //a cancellation that found every entry locked gives its spot back instead, H2 does that more often than Postgres
+        int registered = registrationRepository.findAllByEventId(event.getId()).size();
+        assertEquals(registered, eventRepository.findById(event.getId()).orElseThrow().getRegisteredParticipants());
+        assertEquals(100, registered + waitlistEntryRepository.count());
+        assertTrue(registered > 50);
+    }
+
+    private List<User> createUsers(int amount){
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            User user = new User("user-" + i, "password", "user-" + i + "@gmail.com");
+            user.setRole(UserRole.PARTICIPANT);
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    private void fillEvent(List<User> users){
+        users.forEach(user -> registrationService.create(new RegistrationCreateDto(user.getId(), event.getId())));
+    }
+
+    private List<Event> createEvents(int amount){
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            events.add(Event.builder()
+                    .title("Event " + i)
+                    .location("Sao Paulo, Brazil")
+                    .date(LocalDateTime.now().plusDays(10))
+                    .maxParticipants(100)
+                    .registeredParticipants(0)
+                    .build());
+        }
+        return eventRepository.saveAll(events);
+    }
+
+    private void runConcurrently(List<Runnable> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
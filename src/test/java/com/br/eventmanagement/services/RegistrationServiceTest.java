@@ -1,13 +1,20 @@
 package com.br.eventmanagement.services;
 
+import com.br.eventmanagement.dtos.registration.RegistrationBatchCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationBatchResultDto;
 import com.br.eventmanagement.dtos.registration.RegistrationCreateDto;
+import com.br.eventmanagement.dtos.registration.RegistrationStampDto;
+import com.br.eventmanagement.dtos.registration.RegistrationView;
 import com.br.eventmanagement.entity.Event;
 import com.br.eventmanagement.entity.Registration;
 import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.entity.WaitlistEntry;
+import com.br.eventmanagement.enums.RegistrationBatchStatus;
 import com.br.eventmanagement.enums.UserRole;
 import com.br.eventmanagement.exceptions.BadRequestException;
 import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
 import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.WaitlistEntryRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,10 +23,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,16 +45,24 @@ class RegistrationServiceTest {
     @Mock
     private RegistrationRepository registrationRepository;
 
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
     @Mock
     private EventService eventService;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private OccupancyRollupService occupancyRollupService;
+
     private Event event;
     private User user;
     private Registration registration;
     private Registration registration2;
+    private RegistrationView view;
+    private RegistrationView view2;
     private RegistrationCreateDto registrationDto;
     //TEST DELETE METHODS
     @BeforeEach
@@ -82,6 +99,9 @@ class RegistrationServiceTest {
                 .createdAt(LocalDateTime.now().plusHours(2))
                 .build();
 
+        view = RegistrationView.from(registration);
+        view2 = RegistrationView.from(registration2);
+
         registrationDto = RegistrationCreateDto.builder()
                 .userId(user.getId())
                 .eventId(event.getId())
@@ -118,31 +138,55 @@ class RegistrationServiceTest {
 
     }
 
+    @Test
+    @DisplayName("getViewById() - Should get the Registration view when is successful")
+    void getViewById_shouldReturnRegistrationView_WhenSuccessful(){
+        when(registrationRepository.findViewById(registration.getId())).thenReturn(Optional.of(view));
+
+        RegistrationView result = registrationService.getViewById(registration.getId());
+
+        assertEquals(view, result);
+        verify(registrationRepository, never()).findById(registration.getId());
+    }
+
+    @Test
+    @DisplayName("getViewById() - Should throw EntityNotFoundException when Registration is not found")
+    void getViewById_shouldThrowEntityNotFoundException_WhenRegistrationIsNotFound(){
+        when(registrationRepository.findViewById(registration.getId())).thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(
+                EntityNotFoundException.class,
+                () -> registrationService.getViewById(registration.getId())
+        );
+
+        assertEquals("Registration not found", exception.getMessage());
+    }
+
     @Test
     @DisplayName("listAll() - Should return all Registrations when successful")
     void listAll_shouldReturnAllRegistrations_WhenSuccessful(){
-        when(registrationRepository.findAll()).thenReturn(List.of(registration, registration2));
+        when(registrationRepository.findAllViews()).thenReturn(List.of(view, view2));
 
-        List<Registration> result = registrationService.listAll();
+        List<RegistrationView> result = registrationService.listAll();
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(registration, result.getFirst());
-        assertEquals(registration2, result.getLast());
+        assertEquals(view, result.getFirst());
+        assertEquals(view2, result.getLast());
     }
 
     @Test
     @DisplayName("findAllByUserId() - Should return all Registrations by user id when successful")
     void findAllByUserId_shouldReturnAllRegistrationsByUser_WhenSuccessful(){
         when(userService.getById(user.getId())).thenReturn(user);
-        when(registrationRepository.findAllByUserId(user.getId())).thenReturn(List.of(registration, registration2));
+        when(registrationRepository.findAllViewsByUserId(user.getId())).thenReturn(List.of(view, view2));
 
-        List<Registration> result = registrationService.findAllByUserId(user.getId());
+        List<RegistrationView> result = registrationService.findAllByUserId(user.getId());
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(registration, result.getFirst());
-        assertEquals(registration2, result.getLast());
+        assertEquals(view, result.getFirst());
+        assertEquals(view2, result.getLast());
     }
 
     @Test
@@ -165,14 +209,14 @@ class RegistrationServiceTest {
     @DisplayName("findAllByEventId() - Should return all Registrations by event id when successful")
     void findAllByEventId_shouldReturnAllRegistrationsByEvent_WhenSuccessful(){
         when(eventService.getById(event.getId())).thenReturn(event);
-        when(registrationRepository.findAllByEventId(event.getId())).thenReturn(List.of(registration, registration2));
+        when(registrationRepository.findAllViewsByEventId(event.getId())).thenReturn(List.of(view, view2));
 
-        List<Registration> result = registrationService.findAllByEventId(event.getId());
+        List<RegistrationView> result = registrationService.findAllByEventId(event.getId());
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(registration, result.getFirst());
-        assertEquals(registration2, result.getLast());
+        assertEquals(view, result.getFirst());
+        assertEquals(view2, result.getLast());
     }
 
     @Test
@@ -191,37 +235,49 @@ class RegistrationServiceTest {
         verifyNoInteractions(registrationRepository);
     }
 
+    @Test
+    @DisplayName("registrationsEtag() - Should change when a registration is added to the event")
+    void registrationsEtag_shouldChangeWhenRegistrationIsAddedToEvent(){
+        when(eventService.getById(event.getId())).thenReturn(event);
+        when(registrationRepository.findStampByEventId(event.getId()))
+                .thenReturn(new RegistrationStampDto(1, LocalDateTime.of(2026, 1, 1, 10, 0)))
+                .thenReturn(new RegistrationStampDto(2, LocalDateTime.of(2026, 1, 1, 10, 5)));
+
+        String before = registrationService.registrationsEtag(event.getId());
+        String after = registrationService.registrationsEtag(event.getId());
+
+        assertNotEquals(before, after);
+    }
+
     @Test
     @DisplayName("create() - Should create a Registration successfully")
     void create_shouldCreateRegistration_WhenSuccessful(){
 
-        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(true);
-        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId()))
-                .thenReturn(false);
+        doNothing().when(eventService).reserveSpot(event.getId());
         when(eventService.getById(event.getId())).thenReturn(event);
         when(userService.getById(user.getId())).thenReturn(user);
-        when(registrationRepository.save(any(Registration.class))).thenReturn(registration);
-
-        Integer countParticipantsBeforeUpdate = event.getRegisteredParticipants();
+        when(registrationRepository.saveAndFlush(any(Registration.class))).thenReturn(registration);
 
         Registration result = registrationService.create(registrationDto);
 
         assertNotNull(result);
         assertEquals(registration, result);
-        assertEquals(result.getEvent().getRegisteredParticipants(), countParticipantsBeforeUpdate + 1);
-        verify(eventService, times(1)).isAvailableFreeSpot(event.getId());
-        verify(registrationRepository, times(1)).existsRegistrationByUserIdAndEventId(user.getId(), event.getId());
+        verify(eventService, times(1)).reserveSpot(event.getId());
         verify(eventService, times(1)).getById(event.getId());
         verify(userService, times(1)).getById(user.getId());
-        verify(registrationRepository, times(1)).save(any(Registration.class));
-
+        verify(registrationRepository, times(1)).saveAndFlush(any(Registration.class));
+        verify(occupancyRollupService, times(1)).registered(event, 1);
     }
 
     @Test
     @DisplayName("create() - Should throw EntityAlreadyExistsException when Registration by user and event already exists ")
     void create_shouldThrowEntityAlreadyExistsException_WhenRegistrationAlreadyExists(){
 
-        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId())).thenReturn(true);
+        when(eventService.getById(event.getId())).thenReturn(event);
+        when(userService.getById(user.getId())).thenReturn(user);
+        //the unique (event_id, user_id) constraint is the one that detects the duplicate
+        when(registrationRepository.saveAndFlush(any(Registration.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_registration_event_user"));
 
         EntityAlreadyExistsException exception = assertThrows(
                 EntityAlreadyExistsException.class,
@@ -230,12 +286,8 @@ class RegistrationServiceTest {
 
 
         assertEquals("This user is already registered", exception.getMessage());
-        verify(registrationRepository, times(1)).existsRegistrationByUserIdAndEventId(user.getId(), event.getId());
-
-        verifyNoInteractions(eventService);
-        verifyNoInteractions(userService);
-
-        //It checks if anything *else* was called in registrationRepository
+        verify(eventService, times(1)).reserveSpot(event.getId());
+        verify(registrationRepository, times(1)).saveAndFlush(any(Registration.class));
         verifyNoMoreInteractions(registrationRepository);
 
     }
@@ -244,8 +296,8 @@ class RegistrationServiceTest {
     @DisplayName("create() - Should throw BadRequestException when there is no available free spot in the Event to create")
     void create_shouldThrowBadRequestException_WhenThereIsNoAvailableFreeSpot(){
 
-        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId())).thenReturn(false);
-        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(false);
+        doThrow(new BadRequestException("There is no spot available in this event"))
+                .when(eventService).reserveSpot(event.getId());
 
         BadRequestException exception = assertThrows(
                 BadRequestException.class,
@@ -254,26 +306,17 @@ class RegistrationServiceTest {
 
         assertEquals("There is no spot available in this event", exception.getMessage());
 
-        //first 'if'
-        verify(registrationRepository, times(1)).existsRegistrationByUserIdAndEventId(user.getId(), event.getId());
-        verify(eventService, times(1)).isAvailableFreeSpot(event.getId());
+        verify(eventService, times(1)).reserveSpot(event.getId());
 
         verifyNoInteractions(userService);
-
+        verifyNoInteractions(registrationRepository);
         verifyNoMoreInteractions(eventService);
-        verifyNoMoreInteractions(registrationRepository);
-        //it had executed one time, the first 'if', in spite of that (I used no more interactions followed after this first one)
     }
 
     @Test
     @DisplayName("create() - Should throw EntityNotFoundException when event not found")
     void create_shouldThrowEntityNotFoundException_WhenEventNotFound(){
-        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId())).thenReturn(false);
-        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(true);
-        /* Why I am throwing the exception?
-        * Because I'm testing the RegistrationService, so it doesn't matter how EventService throw the error.
-        *  I just throw it(error) */
-        when(eventService.getById(event.getId())).thenThrow(new EntityNotFoundException("Event not found"));
+        doThrow(new EntityNotFoundException("Event not found")).when(eventService).reserveSpot(event.getId());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -282,20 +325,16 @@ class RegistrationServiceTest {
 
         assertEquals("Event not found", exception.getMessage());
 
-        verify(registrationRepository, times(1)).existsRegistrationByUserIdAndEventId(user.getId(), event.getId());
-        verify(eventService, times(1)).isAvailableFreeSpot(event.getId());
-        verify(eventService, times(1)).getById(event.getId());
+        verify(eventService, times(1)).reserveSpot(event.getId());
 
         verifyNoInteractions(userService);
-        verifyNoMoreInteractions(registrationRepository);
+        verifyNoInteractions(registrationRepository);
     }
 
     @Test
     @DisplayName("create() - Should throw EntityNotFoundException when user not found")
     void create_shouldThrowEntityNotFoundException_WhenUserNotFound(){
-        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId())).thenReturn(false);
-        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(true);
-        when(eventService.getById(event.getId())).thenReturn(event);
+        doNothing().when(eventService).reserveSpot(event.getId());
 
         when(userService.getById(user.getId())).thenThrow(new EntityNotFoundException("User not found"));
 
@@ -306,67 +345,170 @@ class RegistrationServiceTest {
 
         assertEquals("User not found", exception.getMessage());
 
-        verify(registrationRepository, times(1)).existsRegistrationByUserIdAndEventId(user.getId(), event.getId());
-        verify(eventService, times(1)).isAvailableFreeSpot(event.getId());
-        verify(eventService, times(1)).getById(event.getId());
+        verify(eventService, times(1)).reserveSpot(event.getId());
         verify(userService, times(1)).getById(user.getId());
 
-        verifyNoMoreInteractions(registrationRepository);
+        verifyNoInteractions(registrationRepository);
+
+
+    }
+
+    @Test
+    @DisplayName("createBatch() - Should report a result for every user of the batch")
+    void createBatch_shouldReportResultForEveryUserOfTheBatch(){
+        User duplicatedUser = User.builder().id(UUID.randomUUID()).username("duplicated").build();
+        User lateUser = User.builder().id(UUID.randomUUID()).username("late").build();
+        UUID unknownUserId = UUID.randomUUID();
+        List<UUID> userIds = List.of(user.getId(), duplicatedUser.getId(), unknownUserId, lateUser.getId(), user.getId());
+
+        when(eventService.getById(event.getId())).thenReturn(event);
+        when(userService.findAllById(List.of(user.getId(), duplicatedUser.getId(), unknownUserId, lateUser.getId())))
+                .thenReturn(List.of(user, duplicatedUser, lateUser));
+        when(registrationRepository.findRegisteredUserIds(eq(event.getId()), any()))
+                .thenReturn(Set.of(duplicatedUser.getId()));
+        //only one spot left for the two candidates
+        when(eventService.reserveSpots(event.getId(), 2)).thenReturn(1);
+        when(registrationRepository.saveAllAndFlush(anyList())).thenReturn(List.of(registration));
+
+        List<RegistrationBatchResultDto> result = registrationService.createBatch(
+                new RegistrationBatchCreateDto(event.getId(), userIds));
+
+        assertEquals(List.of(
+                new RegistrationBatchResultDto(user.getId(), RegistrationBatchStatus.CREATED, registration.getId()),
+                new RegistrationBatchResultDto(duplicatedUser.getId(), RegistrationBatchStatus.DUPLICATE, null),
+                new RegistrationBatchResultDto(unknownUserId, RegistrationBatchStatus.UNKNOWN_USER, null),
+                new RegistrationBatchResultDto(lateUser.getId(), RegistrationBatchStatus.NO_CAPACITY, null)
+        ), result);
+        verify(eventService, times(1)).reserveSpots(event.getId(), 2);
+        verify(registrationRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    @DisplayName("createBatch() - Should throw EntityNotFoundException when event is not found")
+    void createBatch_shouldThrowEntityNotFoundExceptionWhenEventIsNotFound(){
+        when(eventService.getById(event.getId())).thenThrow(new EntityNotFoundException("Event not found"));
 
+        assertThrows(EntityNotFoundException.class, () -> registrationService.createBatch(
+                new RegistrationBatchCreateDto(event.getId(), List.of(user.getId()))));
 
+        verifyNoInteractions(registrationRepository);
+        verifyNoInteractions(userService);
     }
 
     @Test
-    @DisplayName("deleteByUserIdAndEventId() - Should delete a Registration when successful")
+    @DisplayName("joinWaitlist() - Should put the user on the waitlist when the event is full")
+    void joinWaitlist_shouldPutUserOnWaitlistWhenEventIsFull(){
+        WaitlistEntry entry = new WaitlistEntry(user, event);
+        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(false);
+        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId())).thenReturn(false);
+        when(userService.getById(user.getId())).thenReturn(user);
+        when(eventService.getById(event.getId())).thenReturn(event);
+        when(waitlistEntryRepository.saveAndFlush(any(WaitlistEntry.class))).thenReturn(entry);
+
+        WaitlistEntry result = registrationService.joinWaitlist(registrationDto);
+
+        assertEquals(entry, result);
+        verify(waitlistEntryRepository, times(1)).saveAndFlush(any(WaitlistEntry.class));
+    }
+
+    @Test
+    @DisplayName("joinWaitlist() - Should throw BadRequestException when the event still has spots")
+    void joinWaitlist_shouldThrowBadRequestExceptionWhenEventStillHasSpots(){
+        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(true);
+
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> registrationService.joinWaitlist(registrationDto));
+
+        assertEquals("There are spots available in this event, register instead", exception.getMessage());
+        verifyNoInteractions(waitlistEntryRepository);
+    }
+
+    @Test
+    @DisplayName("joinWaitlist() - Should throw EntityAlreadyExistsException when the user is already waiting")
+    void joinWaitlist_shouldThrowEntityAlreadyExistsExceptionWhenUserIsAlreadyWaiting(){
+        when(eventService.isAvailableFreeSpot(event.getId())).thenReturn(false);
+        when(registrationRepository.existsRegistrationByUserIdAndEventId(user.getId(), event.getId())).thenReturn(false);
+        when(userService.getById(user.getId())).thenReturn(user);
+        when(eventService.getById(event.getId())).thenReturn(event);
+        when(waitlistEntryRepository.saveAndFlush(any(WaitlistEntry.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_waitlist_event_user"));
+
+        EntityAlreadyExistsException exception = assertThrows(EntityAlreadyExistsException.class,
+                () -> registrationService.joinWaitlist(registrationDto));
+
+        assertEquals("This user is already on the waitlist", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("leaveWaitlist() - Should throw EntityNotFoundException when the user is not waiting")
+    void leaveWaitlist_shouldThrowEntityNotFoundExceptionWhenUserIsNotWaiting(){
+        when(waitlistEntryRepository.deleteByUserIdAndEventId(user.getId(), event.getId())).thenReturn(0);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> registrationService.leaveWaitlist(user.getId(), event.getId()));
+
+        assertEquals("This user is not on the waitlist of this event", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("deleteByUserIdAndEventId() - Should delete a Registration and release its spot when successful")
     void deleteByUserIdAndEvent_ShouldDeleteRegistration_WhenSuccessful(){
-        when(registrationRepository.findByUserIdAndEventId(user.getId(), event.getId())).thenReturn(Optional.of(registration));
-
-        /*
-        * It literally means "execute zero lines of code."
-        * Think of doNothing() as hollowing out the method. It replaces the method's entire body with an empty block { }.
-        * You verify the interaction (the method call), not the state change
-        * (the data deletion, this data verification would be in repository and integration tests).
-        * */
-        doNothing().when(registrationRepository).delete(registration);
+        when(registrationRepository.deleteByUserIdAndEventId(user.getId(), event.getId())).thenReturn(1);
 
         registrationService.deleteByUserIdAndEventId(user.getId(),event.getId());
 
-        verify(registrationRepository, times(1)).findByUserIdAndEventId(user.getId(), event.getId());
-        verify(registrationRepository, times(1)).delete(registration);
+        verify(registrationRepository, times(1)).deleteByUserIdAndEventId(user.getId(), event.getId());
+        verify(eventService, times(1)).releaseSpots(event.getId(), 1);
     }
 
     @Test
     @DisplayName("deleteByUserIdAndEventId() -  Should throw EntityNotFoundException when Registration not found")
     void deleteByUserIdAndEventId_ShouldThrowEntityNotFoundException_WhenRegistrationNotFound(){
-        when(registrationRepository.findByUserIdAndEventId(user.getId(), event.getId())).thenReturn(Optional.empty());
+        when(registrationRepository.deleteByUserIdAndEventId(user.getId(), event.getId())).thenReturn(0);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
             registrationService.deleteByUserIdAndEventId(user.getId(), event.getId());
         });
 
         assertEquals("There is no registration of this user to this event", exception.getMessage());
-        verify(registrationRepository, times(1)).findByUserIdAndEventId(user.getId(), event.getId());
+        verify(registrationRepository, times(1)).deleteByUserIdAndEventId(user.getId(), event.getId());
         verifyNoMoreInteractions(registrationRepository);
+        verifyNoInteractions(eventService);
     }
 
     @Test
-    @DisplayName("deleteAllByUserId() - Should delete all Registrations by user id when successful")
+    @DisplayName("deleteAllByUserId() - Should delete all Registrations by user id and release their spots when successful")
     void deleteAllByUserId_ShouldDeleteAllRegistrationsByUserId_WhenSuccessful(){
-        when(registrationService.findAllByUserId(user.getId())).thenReturn(List.of(registration, registration2));
-
-        doNothing().when(registrationRepository).delete(any(Registration.class));
+        List<UUID> eventIds = List.of(event.getId(), UUID.randomUUID());
+        when(userService.getById(user.getId())).thenReturn(user);
+        when(registrationRepository.lockEventIdsByUserId(user.getId())).thenReturn(eventIds);
+        when(registrationRepository.deleteAllByUserIdAndEventIdIn(user.getId(), eventIds)).thenReturn(2);
 
         registrationService.deleteAllByUserId(user.getId());
 
-        verify(registrationRepository, times(1)).findAllByUserId(user.getId());
-        verify(registrationRepository, times(2)).delete(any(Registration.class));
+        verify(registrationRepository, times(1)).lockEventIdsByUserId(user.getId());
+        verify(registrationRepository, times(1)).deleteAllByUserIdAndEventIdIn(user.getId(), eventIds);
+        verify(eventService, times(1)).releaseOneSpotOfEach(eventIds);
+        verify(registrationRepository, never()).delete(any(Registration.class));
+    }
+
+    @Test
+    @DisplayName("deleteAllByUserId() - Should do nothing when the user has no Registrations")
+    void deleteAllByUserId_ShouldDoNothing_WhenUserHasNoRegistrations(){
+        when(userService.getById(user.getId())).thenReturn(user);
+        when(registrationRepository.lockEventIdsByUserId(user.getId())).thenReturn(List.of());
+
+        registrationService.deleteAllByUserId(user.getId());
 
+        verify(registrationRepository, times(1)).lockEventIdsByUserId(user.getId());
+        verifyNoMoreInteractions(registrationRepository);
+        verifyNoInteractions(eventService);
     }
 
     @Test
     @DisplayName("deleteAllByUserId() - Should throw EntityNotFoundException when user is not found")
     void deleteAllByUserId_ShouldThrowEntityNotFoundExceptionWhenUserIsNoFound(){
-        when(registrationService.findAllByUserId(user.getId())).thenThrow(new EntityNotFoundException("User not found"));
+        when(userService.getById(user.getId())).thenThrow(new EntityNotFoundException("User not found"));
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -374,29 +516,29 @@ class RegistrationServiceTest {
         );
 
         assertEquals("User not found", exception.getMessage());
-        verify(registrationRepository, times(1)).findAllByUserId(user.getId());
-        verifyNoMoreInteractions(registrationRepository);
+        verifyNoInteractions(registrationRepository);
     }
 
     @Test
     @DisplayName("deleteAllByEventId() - Should delete a all Registrations by event id when successful")
     void deleteAllByEventId_ShouldDeleteAllRegistrationsByEventId_WhenSuccessful(){
-        when(eventService.getById(event.getId())).thenReturn(event);
+        doNothing().when(eventService).resetSpots(event.getId());
 
-        doNothing().when(registrationRepository).deleteAllByEventId(event.getId());
+        when(registrationRepository.deleteAllByEventId(event.getId())).thenReturn(3L);
+        when(eventService.getById(event.getId())).thenReturn(event);
 
         registrationService.deleteAllByEventId(event.getId());
 
-        verify(eventService, times(1)).getById(event.getId());
+        verify(eventService, times(1)).resetSpots(event.getId()); //the participants are reset by the EventService
         verify(registrationRepository, times(1)).deleteAllByEventId(event.getId());
-        assertEquals(0, event.getRegisteredParticipants()); //checking if the participants were updated
+        verify(occupancyRollupService, times(1)).cancelled(event, 3);
 
     }
 
     @Test
     @DisplayName("deleteAllByEventId() - Should throw EntityNotFoundException when event is not found")
     void deleteAllByEventId_ShouldThrowEntityNotFoundExceptionWhenEventIsNotFound(){
-        when(eventService.getById(event.getId())).thenThrow(new EntityNotFoundException("Event not found"));
+        doThrow(new EntityNotFoundException("Event not found")).when(eventService).resetSpots(event.getId());
 
         EntityNotFoundException exception = assertThrows(
                 EntityNotFoundException.class,
@@ -404,7 +546,7 @@ class RegistrationServiceTest {
         );
 
         assertEquals("Event not found", exception.getMessage());
-        verify(eventService, times(1)).getById(event.getId());
+        verify(eventService, times(1)).resetSpots(event.getId());
         verifyNoInteractions(registrationRepository);
 
     }
@@ -424,6 +566,8 @@ class RegistrationServiceTest {
 
         verify(registrationRepository, times(1)).findById(registration.getId());
         verify(registrationRepository, times(1)).delete(registration);
+        verify(eventService, times(1)).releaseSpots(event.getId(), 1);
+        verify(occupancyRollupService, times(1)).cancelled(event, 1);
     }
     @Test
     @DisplayName("deleteById() - Should throw EntityNotFoundException when registration is not found")
@@ -0,0 +1,95 @@
+package com.br.eventmanagement.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripedSeatCounter Unit Tests")
+class StripedSeatCounterTest {
+
+    @Test
+    @DisplayName("tryAcquire() - Should hand out exactly the available seats across all stripes")
+    void tryAcquire_shouldHandOutExactlyTheAvailableSeats(){
+        StripedSeatCounter counter = new StripedSeatCounter(10, 4);
+
+        int acquired = 0;
+        while (counter.tryAcquire()) acquired++;
+
+        assertEquals(10, acquired);
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    @DisplayName("tryAcquire() - Should never hand out more seats than available under concurrent load")
+    void tryAcquire_shouldNeverHandOutMoreSeatsUnderConcurrentLoad() throws Exception {
+        StripedSeatCounter counter = new StripedSeatCounter(1_000, 16);
+        AtomicInteger acquired = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                futures.add(executor.submit(() -> {
+                    if (counter.tryAcquire()) acquired.incrementAndGet();
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1_000, acquired.get());
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    @DisplayName("release() - Should make released seats available again")
+    void release_shouldMakeReleasedSeatsAvailableAgain(){
+        StripedSeatCounter counter = new StripedSeatCounter(1, 4);
+        assertTrue(counter.tryAcquire());
+        assertFalse(counter.tryAcquire());
+
+        counter.release(1);
+
+        assertTrue(counter.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("release() - Should spread a shrink across the stripes so no more than the new capacity is handed out")
+    void release_shouldSpreadShrinkAcrossStripes(){
+        StripedSeatCounter counter = new StripedSeatCounter(100, 16);
+        for (int i = 0; i < 10; i++) assertTrue(counter.tryAcquire());
+
+        counter.release(-50);
+
+        int acquired = 0;
+        while (counter.tryAcquire()) acquired++;
+        assertEquals(50 - 10, acquired);
+    }
+
+    @Test
+    @DisplayName("release() - Should pay back a shrink larger than the free seats before handing out seats again")
+    void release_shouldPayBackShrinkLargerThanFreeSeatsFirst(){
+        StripedSeatCounter counter = new StripedSeatCounter(10, 4);
+        for (int i = 0; i < 8; i++) assertTrue(counter.tryAcquire());
+
+        counter.release(-5); //capacity 5, 8 taken
+        counter.release(1);
+        counter.release(1);
+        counter.release(1);
+
+        assertEquals(0, counter.available());
+        assertFalse(counter.tryAcquire());
+        counter.release(1);
+        assertEquals(1, counter.available());
+        assertTrue(counter.tryAcquire());
+    }
+}
@@ -1,5 +1,6 @@
 package com.br.eventmanagement.services;
 
+import com.br.eventmanagement.cache.LocalCache;
 import com.br.eventmanagement.dtos.authentication.ChangePasswordDto;
 import com.br.eventmanagement.dtos.authentication.RegisterDto;
 import com.br.eventmanagement.entity.User;
@@ -7,6 +8,7 @@ import com.br.eventmanagement.enums.UserRole;
 import com.br.eventmanagement.exceptions.BadRequestException;
 import com.br.eventmanagement.exceptions.EntityAlreadyExistsException;
 import com.br.eventmanagement.repositories.UserRepository;
+import com.br.eventmanagement.security.TokenPrincipal;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,11 +17,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +47,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private LocalCache<String, UserDetails> principalCache;
+
     private User user;
 
 
@@ -78,6 +91,28 @@ class UserServiceTest {
         verify(userRepository, times(1)).findById(user.getId());
     }
 
+    @Test
+    @DisplayName("loadUserByUsername() - Should load the user through the principal cache")
+    @SuppressWarnings("unchecked")
+    void loadUserByUsername_shouldLoadUserThroughPrincipalCache(){
+        when(principalCache.get(eq(user.getUsername()), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<String, UserDetails>>getArgument(1).apply(user.getUsername()));
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(user);
+
+        UserDetails result = userService.loadUserByUsername(user.getUsername());
+
+        assertEquals(user, result);
+        verify(userRepository, times(1)).findByUsername(user.getUsername());
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername() - Should throw UsernameNotFoundException when user not found")
+    void loadUserByUsername_shouldThrowUsernameNotFoundExceptionWhenUserNotFound(){
+        when(principalCache.get(eq(user.getUsername()), any())).thenReturn(null);
+
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername(user.getUsername()));
+    }
+
     @Test
     @DisplayName("register() - Should register a user when successful")
     void register_shouldRegisterUserWhenSuccessful(){
@@ -127,14 +162,48 @@ class UserServiceTest {
         // it will ignore the spring security context of getting the current user, just return the one I specified
         UserService spyService = spy(userService);
         doReturn(userCurrent).when(spyService).getCurrentUser();
+        User loaded = copyOf(userCurrent);
+        when(userRepository.findById(userCurrent.getId())).thenReturn(Optional.of(loaded));
 
-        when(passwordEncoder.matches(changePasswordDto.oldPassword(), userCurrent.getPassword())).thenReturn(true);
+        when(passwordEncoder.matches(changePasswordDto.oldPassword(), loaded.getPassword())).thenReturn(true);
         when(passwordEncoder.encode(changePasswordDto.newPassword())).thenReturn("encoded-new");
 
         spyService.changePassword(changePasswordDto);
 
-        assertEquals("encoded-new", userCurrent.getPassword());
-        verify(userRepository, times(1)).save(userCurrent);
+        assertEquals("encoded-new", loaded.getPassword());
+        assertEquals(1, loaded.getCredentialVersion());
+        //the principal may be the cached one, it is left as it is
+        assertEquals("encoded-old", userCurrent.getPassword());
+        verify(userRepository, times(1)).save(loaded);
+        verify(principalCache, times(1)).invalidate(userCurrent.getUsername());
+    }
+
+    @Test
+    @DisplayName("changePassword() - Should evict the cached principal only once the transaction commits")
+    void changePassword_shouldEvictCachedPrincipalOnlyOnceTransactionCommits() {
+        User userCurrent = User.builder()
+                .id(UUID.randomUUID())
+                .username("allison")
+                .password("encoded-old")
+                .email("testing@gmail.com")
+                .build();
+        UserService spyService = spy(userService);
+        doReturn(userCurrent).when(spyService).getCurrentUser();
+        when(userRepository.findById(userCurrent.getId())).thenReturn(Optional.of(copyOf(userCurrent)));
+        when(passwordEncoder.matches("old123", "encoded-old")).thenReturn(true);
+        when(passwordEncoder.encode("new123")).thenReturn("encoded-new");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            spyService.changePassword(new ChangePasswordDto("old123", "new123"));
+            verify(principalCache, never()).invalidate(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(principalCache, times(1)).invalidate("allison");
     }
 
     @Test
@@ -152,6 +221,7 @@ class UserServiceTest {
 
         UserService spyService = spy(userService);
         doReturn(userCurrent).when(spyService).getCurrentUser();
+        when(userRepository.findById(userCurrent.getId())).thenReturn(Optional.of(copyOf(userCurrent)));
 
         when(passwordEncoder.matches(changePasswordDto.oldPassword(), userCurrent.getPassword())).thenReturn(false);
 
@@ -161,6 +231,49 @@ class UserServiceTest {
         );
 
         assertEquals("Error while verifying the passwords", exception.getMessage());
-        verifyNoInteractions(userRepository);
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    @DisplayName("getCurrentUser() - Should load the user when the token principal is up to date")
+    void getCurrentUser_shouldLoadUserWhenTokenPrincipalIsUpToDate(){
+        TokenPrincipal principal = new TokenPrincipal(user.getId(), user.getUsername(), user.getRole(), 0);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        try {
+            assertEquals(user, userService.getCurrentUser());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    @DisplayName("getCurrentUser() - Should throw CredentialsExpiredException when the token principal is outdated")
+    void getCurrentUser_shouldThrowCredentialsExpiredExceptionWhenTokenPrincipalIsOutdated(){
+        user.setCredentialVersion(3);
+        TokenPrincipal principal = new TokenPrincipal(user.getId(), user.getUsername(), user.getRole(), 2);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        try {
+            assertThrows(CredentialsExpiredException.class, () -> userService.getCurrentUser());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    //the row as the repository loads it, a separate object from the principal of the request
+    private static User copyOf(User principal){
+        return User.builder()
+                .id(principal.getId())
+                .username(principal.getUsername())
+                .password(principal.getPassword())
+                .email(principal.getEmail())
+                .credentialVersion(principal.getCredentialVersion())
+                .build();
     }
-}
\ No newline at end of file
+}
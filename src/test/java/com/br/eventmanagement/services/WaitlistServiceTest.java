@@ -0,0 +1,84 @@
+package com.br.eventmanagement.services;
+
+import com.br.eventmanagement.entity.Event;
+import com.br.eventmanagement.entity.Registration;
+import com.br.eventmanagement.entity.User;
+import com.br.eventmanagement.entity.WaitlistEntry;
+import com.br.eventmanagement.repositories.RegistrationRepository;
+import com.br.eventmanagement.repositories.WaitlistEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WaitlistService Unit Tests")
+class WaitlistServiceTest {
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    @Mock
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Mock
+    private RegistrationRepository registrationRepository;
+
+    @Mock
+    private OccupancyRollupService occupancyRollupService;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp(){
+        event = Event.builder().id(UUID.randomUUID()).maxParticipants(10).registeredParticipants(10).build();
+    }
+
+    @Test
+    @DisplayName("promote() - Should register the head of the waitlist and remove it from the queue")
+    @SuppressWarnings("unchecked")
+    void promote_shouldRegisterHeadOfWaitlistAndRemoveItFromQueue(){
+        User first = User.builder().id(UUID.randomUUID()).build();
+        User second = User.builder().id(UUID.randomUUID()).build();
+        List<WaitlistEntry> head = List.of(new WaitlistEntry(first, event), new WaitlistEntry(second, event));
+        when(waitlistEntryRepository.lockHead(event.getId(), Limit.of(3))).thenReturn(head);
+
+        int promoted = waitlistService.promote(event.getId(), 3);
+
+        ArgumentCaptor<List<Registration>> registrations = ArgumentCaptor.forClass(List.class);
+        verify(registrationRepository).saveAll(registrations.capture());
+        assertEquals(2, promoted);
+        assertEquals(List.of(first, second), registrations.getValue().stream().map(Registration::getUser).toList());
+        verify(waitlistEntryRepository, times(1)).deleteAllInBatch(head);
+        verify(occupancyRollupService, times(1)).registered(event, 2);
+    }
+
+    @Test
+    @DisplayName("promote() - Should promote nobody when the waitlist is empty")
+    void promote_shouldPromoteNobodyWhenWaitlistIsEmpty(){
+        when(waitlistEntryRepository.lockHead(event.getId(), Limit.of(1))).thenReturn(List.of());
+
+        assertEquals(0, waitlistService.promote(event.getId(), 1));
+
+        verifyNoInteractions(registrationRepository);
+    }
+
+    @Test
+    @DisplayName("promote() - Should not touch the waitlist when no spot was freed")
+    void promote_shouldNotTouchWaitlistWhenNoSpotWasFreed(){
+        assertEquals(0, waitlistService.promote(event.getId(), -5));
+
+        verifyNoInteractions(waitlistEntryRepository, registrationRepository);
+    }
+}
@@ -0,0 +1,2 @@
+-- the schema is generated by hibernate in tests, the change feed sequence comes from V11 in production
+create sequence if not exists event_change_seq;